@@ -0,0 +1,43 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AbilityScoreBenchmark {
+
+    @Param({"1", "10", "18"})
+    public int score;
+
+    private AbilityScore abilityScore;
+
+    @Setup
+    public void setUp() {
+        abilityScore = new AbilityScore(score);
+    }
+
+    @Benchmark
+    public int getModifier() {
+        return abilityScore.getModifier();
+    }
+
+    @Benchmark
+    public AbilityScore newInstance() {
+        return new AbilityScore(score);
+    }
+
+    @Benchmark
+    public AbilityScore cachedInstance() {
+        return AbilityScore.of(score);
+    }
+}
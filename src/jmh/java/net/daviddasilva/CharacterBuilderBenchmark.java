@@ -0,0 +1,32 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CharacterBuilderBenchmark {
+
+    @Param({"1", "20"})
+    public int level;
+
+    @Benchmark
+    public Hero build() {
+        return Hero.builder()
+                   .name("Krom")
+                   .alignment(Alignment.NEUTRAL)
+                   .strength(15)
+                   .dexterity(12)
+                   .constitution(14)
+                   .level(level)
+                   .build();
+    }
+}
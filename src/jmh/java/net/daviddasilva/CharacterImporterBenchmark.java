@@ -0,0 +1,122 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Characters per second imported from local files of {@link #CHARACTERS} characters, one in a hundred of them
+ * rejected, compared to reading the CSV line by line into the {@link CharacterBuilder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CharacterImporterBenchmark {
+
+    private static final int CHARACTERS = 1_000_000;
+    private static final List<String> CLASSES = List.of("", "Fighter", "Rogue", "Monk");
+
+    private final CharacterImporter importer = new CharacterImporter();
+    private Path directory;
+    private Path csv;
+    private Path stream;
+    private long imported;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("import");
+        csv = directory.resolve("heroes.csv");
+        stream = directory.resolve("heroes.bin");
+        var random = new SplittableRandom(42);
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8);
+             var writer = new HeroStreamWriter(FileChannel.open(stream, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+            out.write("name,alignment,class,race,armorClass,hitPoints,strength,dexterity,constitution,wisdom,intelligence,charisma,level\n");
+            for (int i = 0; i < CHARACTERS; i++) {
+                int[] scores = new int[6];
+                for (int ability = 0; ability < scores.length; ability++) {
+                    scores[ability] = random.nextInt(3, 19);
+                }
+                if (i % 100 == 0) {
+                    scores[0] = 25;
+                }
+                String characterClass = CLASSES.get(random.nextInt(CLASSES.size()));
+                out.write("Hero " + i + ",NEUTRAL," + characterClass + ",HUMAN,10,5," + scores[0] + "," + scores[1] + ","
+                        + scores[2] + "," + scores[3] + "," + scores[4] + "," + scores[5] + ",1\n");
+                if (scores[0] <= 20) {
+                    writer.write(Hero.builder().name("Hero " + i).alignment(Alignment.NEUTRAL)
+                                     .characterClass(characterClass.isEmpty() ? CharacterClass.defaultClass() : CharacterClass.named(characterClass))
+                                     .strength(scores[0]).dexterity(scores[1]).constitution(scores[2])
+                                     .wisdom(scores[3]).intelligence(scores[4]).charisma(scores[5]).build());
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(stream);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHARACTERS)
+    public long importCsv() throws IOException {
+        imported = 0;
+        try (var in = FileChannel.open(csv)) {
+            return importer.importCsv(in, hero -> imported++, rejection -> { }).imported();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHARACTERS)
+    public long importStream() throws IOException {
+        imported = 0;
+        try (var in = FileChannel.open(stream)) {
+            return importer.importStream(in, hero -> imported++, rejection -> { }).imported();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHARACTERS)
+    public long builderPerLine() throws IOException {
+        imported = 0;
+        try (var lines = Files.lines(csv, StandardCharsets.UTF_8)) {
+            lines.skip(1).forEach(line -> {
+                String[] columns = line.split(",", -1);
+                try {
+                    Hero.builder().name(columns[0]).alignment(Alignment.valueOf(columns[1]))
+                        .characterClass(columns[2].isEmpty() ? CharacterClass.defaultClass() : CharacterClass.named(columns[2]))
+                        .race(Race.valueOf(columns[3])).armorClass(Integer.parseInt(columns[4]))
+                        .hitPoints(Integer.parseInt(columns[5])).strength(Integer.parseInt(columns[6]))
+                        .dexterity(Integer.parseInt(columns[7])).constitution(Integer.parseInt(columns[8]))
+                        .wisdom(Integer.parseInt(columns[9])).intelligence(Integer.parseInt(columns[10]))
+                        .charisma(Integer.parseInt(columns[11])).level(Integer.parseInt(columns[12])).build();
+                    imported++;
+                } catch (IllegalArgumentException e) {
+                    // rejected
+                }
+            });
+        }
+        return imported;
+    }
+}
@@ -0,0 +1,48 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx2g"})
+public class CombatKernelBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int lanes;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    private CombatLanes combatLanes;
+    private CombatKernel combatKernel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        combatLanes = new CombatLanes(lanes);
+        for (int i = 0; i < lanes; i++) {
+            combatLanes.add(random.nextInt(1, 21), random.nextInt(-5, 10), random.nextInt(5, 25),
+                    random.nextInt(-4, 12), random.nextInt(2, 4), random.nextInt(19, 21));
+        }
+        combatKernel = kernel.equals("vector") ? CombatKernel.vector() : CombatKernel.scalar();
+    }
+
+    @Benchmark
+    public CombatLanes resolve() {
+        combatKernel.resolve(combatLanes);
+        return combatLanes;
+    }
+}
@@ -0,0 +1,83 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CombatMetricsBenchmark {
+
+    private static final int HEROES = 1024;
+    private static final int ATTACKS = 4096;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private Hero attacker;
+    private Hero defender;
+    private HeroTable table;
+    private CombatBatch batch;
+    private int next;
+    private final int[] attackers = new int[ATTACKS];
+    private final int[] defenders = new int[ATTACKS];
+    private final int[] rolls = new int[ATTACKS];
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if (metrics) {
+            CombatMetrics.enable();
+        } else {
+            CombatMetrics.disable();
+        }
+        attacker = Hero.builder().strength(15).build();
+        defender = Hero.builder().armorClass(12).hitPoints(Integer.MAX_VALUE).build();
+        var random = new SplittableRandom(42);
+        table = new HeroTable(HEROES);
+        for (int i = 0; i < HEROES; i++) {
+            table.add(Hero.builder().strength(random.nextInt(1, 21)).hitPoints(Integer.MAX_VALUE / 2).build());
+        }
+        for (int i = 0; i < ATTACKS; i++) {
+            attackers[i] = random.nextInt(HEROES);
+            defenders[i] = random.nextInt(HEROES);
+            rolls[i] = random.nextInt(1, 21);
+        }
+        batch = new CombatBatch(table);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        CombatMetrics.disable();
+        CombatMetrics.reset();
+    }
+
+    @Benchmark
+    public boolean attemptAttack() {
+        return attacker.attemptAttack(defender, 15);
+    }
+
+    @Benchmark
+    public boolean tableAttack() {
+        int i = next;
+        next = (i + 1) & (ATTACKS - 1);
+        return table.attemptAttack(attackers[i], defenders[i], rolls[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ATTACKS)
+    public int batch() {
+        return batch.resolve(attackers, defenders, rolls);
+    }
+}
@@ -0,0 +1,70 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiceBenchmark {
+
+    private static final int ROLLS = 1024;
+    private static final Random SHARED_RANDOM = new Random();
+
+    private final SplittableRandom splittableRandom = new SplittableRandom(42);
+    private final Dice seeded = Dice.seeded(42);
+    private final Dice random = Dice.random();
+    private final int[] rolls = new int[ROLLS];
+
+    @Benchmark
+    @OperationsPerInvocation(ROLLS)
+    public int[] sharedJavaUtilRandom() {
+        for (int i = 0; i < ROLLS; i++) {
+            rolls[i] = SHARED_RANDOM.nextInt(Dice.D20) + 1;
+        }
+        return rolls;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROLLS)
+    public int[] splittableRandomNextInt() {
+        for (int i = 0; i < ROLLS; i++) {
+            rolls[i] = splittableRandom.nextInt(Dice.D20) + 1;
+        }
+        return rolls;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROLLS)
+    public int[] seededOneByOne() {
+        for (int i = 0; i < ROLLS; i++) {
+            rolls[i] = seeded.rollD20();
+        }
+        return rolls;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROLLS)
+    public int[] seededInBulk() {
+        seeded.rollD20(rolls);
+        return rolls;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROLLS)
+    public int[] randomInBulk() {
+        random.rollD20(rolls);
+        return rolls;
+    }
+}
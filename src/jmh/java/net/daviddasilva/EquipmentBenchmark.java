@@ -0,0 +1,60 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EquipmentBenchmark {
+
+    @Param({"0", "20", "1000"})
+    public int items;
+
+    private Hero attacker;
+    private Hero defender;
+    private int roll;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        attacker = Hero.builder().name("Attacker").strength(15).build();
+        defender = Hero.builder().name("Defender").armorClass(12).hitPoints(Integer.MAX_VALUE).build();
+        if (items > 0) {
+            attacker.equip(Item.longsword());
+            defender.equip(Item.leatherArmor());
+        }
+        for (int i = 2; i < items; i++) {
+            attacker.equip(i % 2 == 0 ? Item.beltOfGiantStrength() : Item.ringOfProtection());
+            defender.equip(Item.ringOfProtection());
+        }
+    }
+
+    @Benchmark
+    public boolean attemptAttack() {
+        // walks every roll so hits, misses and critical hits all show up
+        roll = roll == Hero.NAT_20 ? 1 : roll + 1;
+        return attacker.attemptAttack(defender, roll);
+    }
+
+    @Benchmark
+    public int getArmorClass() {
+        return defender.getArmorClass();
+    }
+
+    @Benchmark
+    public int equipAndUnequip() {
+        var ring = Item.ringOfProtection();
+        attacker.equip(ring);
+        attacker.unequip(ring);
+        return attacker.getArmorClass();
+    }
+}
@@ -0,0 +1,48 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HeroBenchmark {
+
+    private Hero attacker;
+    private Hero defender;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        attacker = Hero.builder().name("Attacker").strength(15).build();
+        defender = Hero.builder().name("Defender").armorClass(12).hitPoints(Integer.MAX_VALUE).build();
+    }
+
+    @Benchmark
+    public boolean attemptAttack_hit() {
+        return attacker.attemptAttack(defender, 15);
+    }
+
+    @Benchmark
+    public boolean attemptAttack_miss() {
+        return attacker.attemptAttack(defender, 2);
+    }
+
+    @Benchmark
+    public boolean attemptAttack_natural20() {
+        return attacker.attemptAttack(defender, Hero.NAT_20);
+    }
+
+    @Benchmark
+    public int gainXP() {
+        attacker.gainXP();
+        return attacker.getLevel();
+    }
+}
@@ -0,0 +1,44 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HeroCodecBenchmark {
+
+    private Hero hero;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setUp() {
+        hero = Hero.builder().name("Krom").alignment(Alignment.EVIL).strength(18).level(12).build();
+        buffer = ByteBuffer.allocateDirect(256);
+        encoded = ByteBuffer.allocate(256);
+        HeroCodec.write(hero, encoded);
+        encoded.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer write() {
+        buffer.clear();
+        HeroCodec.write(hero, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Hero read() {
+        encoded.rewind();
+        return HeroCodec.read(encoded);
+    }
+}
@@ -0,0 +1,79 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Living EVIL heroes level 5 to 8" over a table where about a quarter of the heroes are dead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-Xmx2g")
+public class HeroIndexBenchmark {
+
+    private static final Alignment[] ALIGNMENTS = {null, Alignment.GOOD, Alignment.EVIL, Alignment.NEUTRAL};
+
+    @Param({"10000", "1000000"})
+    public int heroes;
+
+    private HeroTable table;
+    private HeroIndex index;
+    private int row;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        table = new HeroTable(heroes);
+        var builder = Hero.builder();
+        for (int i = 0; i < heroes; i++) {
+            builder.reset().alignment(ALIGNMENTS[random.nextInt(ALIGNMENTS.length)]).level(random.nextInt(1, 21));
+            int added = table.add(builder.build());
+            if (random.nextInt(4) == 0) {
+                table.applyDamage(CombatListener.NO_HERO, added, 100);
+            }
+        }
+        index = new HeroIndex(table);
+        table.setListener(index);
+    }
+
+    @Benchmark
+    public int scan() {
+        int found = 0;
+        for (int i = 0; i < table.size(); i++) {
+            if (table.getAlignment(i) == Alignment.EVIL && table.getLevel(i) >= 5 && table.getLevel(i) <= 8 && !table.isDead(i)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int count() {
+        return index.count(Alignment.EVIL, 5, 8, true);
+    }
+
+    @Benchmark
+    public int[] find() {
+        return index.find(Alignment.EVIL, 5, 8, true);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int levelUp() {
+        row = row + 1 == table.size() ? 0 : row + 1;
+        index.onLevelUp(row, table.getLevel(row) % 20 + 1);
+        return row;
+    }
+}
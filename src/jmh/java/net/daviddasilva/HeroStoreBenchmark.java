@@ -0,0 +1,73 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a save costs compared to the hit it follows, and a hit on a hero attached to the store, written through.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HeroStoreBenchmark {
+
+    private static final int HEROES = 1024;
+
+    private Path directory;
+    private HeroStore store;
+    private Hero hero;
+    private Hero attached;
+    private int row;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("store");
+        store = HeroStore.open(directory);
+        hero = Hero.builder().name("Krom").hitPoints(Integer.MAX_VALUE).build();
+        for (int i = 0; i < HEROES; i++) {
+            store.append(hero);
+        }
+        attached = Hero.builder().name("Conan").hitPoints(Integer.MAX_VALUE).build();
+        store.attach(store.append(attached), attached);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(directory.resolve(HeroStore.RECORDS_FILE));
+        Files.deleteIfExists(directory.resolve(HeroStore.NAMES_FILE));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Hero takeHit() {
+        hero.takeHit(1);
+        return hero;
+    }
+
+    @Benchmark
+    public Hero takeHitAndSave() throws IOException {
+        hero.takeHit(1);
+        store.save(row, hero);
+        row = (row + 1) % HEROES;
+        return hero;
+    }
+
+    @Benchmark
+    public Hero takeHitWrittenThrough() {
+        attached.takeHit(1);
+        return attached;
+    }
+}
@@ -0,0 +1,74 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RaceBenchmark {
+
+    private static final int HEROES = 1024;
+    private static final int ATTACKS = 4096;
+    private static final Race[] RACES = Race.values();
+
+    @Param({"human", "mixed"})
+    public String races;
+
+    private Hero[] heroes;
+    private CombatBatch batch;
+    private final int[] attackers = new int[ATTACKS];
+    private final int[] defenders = new int[ATTACKS];
+    private final int[] rolls = new int[ATTACKS];
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        heroes = new Hero[HEROES];
+        var table = new HeroTable(HEROES);
+        for (int i = 0; i < HEROES; i++) {
+            heroes[i] = Hero.builder()
+                            .race(races.equals("mixed") ? RACES[i % RACES.length] : Race.HUMAN)
+                            .strength(random.nextInt(1, 21))
+                            .armorClass(random.nextInt(8, 18))
+                            .hitPoints(Integer.MAX_VALUE / 2)
+                            .build();
+            table.add(heroes[i]);
+        }
+        for (int i = 0; i < ATTACKS; i++) {
+            attackers[i] = random.nextInt(HEROES);
+            defenders[i] = random.nextInt(HEROES);
+            rolls[i] = random.nextInt(1, 21);
+        }
+        batch = new CombatBatch(table);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ATTACKS)
+    public int heroes() {
+        int hits = 0;
+        for (int i = 0; i < ATTACKS; i++) {
+            if (heroes[attackers[i]].attemptAttack(heroes[defenders[i]], rolls[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ATTACKS)
+    public int batch() {
+        return batch.resolve(attackers, defenders, rolls);
+    }
+}
@@ -0,0 +1,76 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attacks per second through a world of worker processes, ticks of {@link #ATTACKS} attacks between random heroes,
+ * so that most of them cross shards. Throughput grows with the shards as long as there are cores to run them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ShardedWorldBenchmark {
+
+    private static final int HEROES = 100_000;
+    private static final int ATTACKS = 20_000;
+
+    @Param({"1", "2", "4"})
+    public int shards;
+
+    @Param({"tcp", "unix"})
+    public String transport;
+
+    private final int[] attackers = new int[ATTACKS];
+    private final int[] defenders = new int[ATTACKS];
+    private final int[] rolls = new int[ATTACKS];
+    private Path sockets;
+    private ShardedWorld world;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sockets = Files.createTempDirectory("shards");
+        world = ShardedWorld.launch(shards, transport.equals("tcp") ? ShardTransport.loopback() : ShardTransport.unixDomain(sockets));
+        var builder = Hero.builder().hitPoints(1_000_000);
+        for (int i = 0; i < HEROES; i++) {
+            world.spawn(builder.build());
+        }
+        world.tick();
+        var random = new SplittableRandom(42);
+        for (int i = 0; i < ATTACKS; i++) {
+            attackers[i] = random.nextInt(HEROES);
+            defenders[i] = random.nextInt(HEROES);
+            rolls[i] = random.nextInt(1, 21);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        world.close();
+        Files.deleteIfExists(sockets);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ATTACKS)
+    public int tick() throws IOException {
+        for (int i = 0; i < ATTACKS; i++) {
+            world.attack(attackers[i], defenders[i], rolls[i]);
+        }
+        return world.tick();
+    }
+}
@@ -0,0 +1,79 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A storm of 100k monsters spawned while at most {@link #LIVE} of them are alive. Run it with the GC profiler to
+ * see how many collections and how much pause time the spawning costs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpawnStormBenchmark {
+
+    private static final int SPAWNS = 100_000;
+    private static final int LIVE = 1024;
+    private static final int ROLLS = 4096;
+
+    @Param({"build", "reusedBuilder", "pool"})
+    public String spawning;
+
+    private Hero hero;
+    private HeroPool pool;
+    private final CharacterBuilder builder = Hero.builder();
+    private final Hero[] live = new Hero[LIVE];
+    private final int[] strengths = new int[ROLLS];
+    private final int[] rolls = new int[ROLLS];
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        hero = Hero.builder().name("Hero").strength(16).hitPoints(Integer.MAX_VALUE / 2).build();
+        pool = new HeroPool(LIVE).prefill();
+        for (int i = 0; i < ROLLS; i++) {
+            strengths[i] = random.nextInt(3, 19);
+            rolls[i] = random.nextInt(1, 21);
+        }
+        for (int i = 0; i < LIVE; i++) {
+            live[i] = spawn(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPAWNS)
+    public int storm() {
+        int killed = 0;
+        for (int i = 0; i < SPAWNS; i++) {
+            int slot = i & (LIVE - 1);
+            if (spawning.equals("pool")) {
+                pool.release(live[slot]);
+            }
+            Hero monster = spawn(i);
+            hero.attemptAttack(monster, rolls[i & (ROLLS - 1)]);
+            killed += monster.isDead() ? 1 : 0;
+            live[slot] = monster;
+        }
+        return killed;
+    }
+
+    private Hero spawn(int i) {
+        int strength = strengths[i & (ROLLS - 1)];
+        return switch (spawning) {
+            case "build" -> Hero.builder().name("Goblin").race(Race.ORC).strength(strength).hitPoints(3).build();
+            case "reusedBuilder" -> builder.reset().name("Goblin").race(Race.ORC).strength(strength).hitPoints(3).build();
+            default -> pool.acquire(builder.reset().name("Goblin").race(Race.ORC).strength(strength).hitPoints(3));
+        };
+    }
+}
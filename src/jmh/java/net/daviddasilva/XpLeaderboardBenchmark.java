@@ -0,0 +1,87 @@
+package net.daviddasilva;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top ten and rank of a hero read from the leaderboard, against sorting every hero as the leaderboards used to be
+ * built, and what tracking costs to a hero gaining XP.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class XpLeaderboardBenchmark {
+
+    @Param({"100000"})
+    public int heroes;
+
+    @Param({"1", "4"})
+    public int stripes;
+
+    private final List<Hero> all = new ArrayList<>();
+    private XpLeaderboard leaderboard;
+    private Hero untracked;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        leaderboard = new XpLeaderboard(stripes);
+        for (int i = 0; i < heroes; i++) {
+            var hero = Hero.builder().name("Hero " + i).alignment(Alignment.values()[i % 3]).build();
+            hero.grantXP(random.nextInt(20_000));
+            all.add(hero);
+            leaderboard.track(hero);
+        }
+        untracked = Hero.builder().name("Untracked").build();
+    }
+
+    @Benchmark
+    public Hero gainXpUntracked() {
+        untracked.gainXP();
+        return untracked;
+    }
+
+    @Benchmark
+    public Hero gainXpTracked() {
+        next = next + 1 == all.size() ? 0 : next + 1;
+        var hero = all.get(next);
+        hero.gainXP();
+        return hero;
+    }
+
+    @Benchmark
+    public List<Hero> top10() {
+        return leaderboard.top(10);
+    }
+
+    @Benchmark
+    public List<Hero> top10InAlignment() {
+        return leaderboard.top(Alignment.EVIL, 10);
+    }
+
+    @Benchmark
+    public int rankOf() {
+        next = next + 1 == all.size() ? 0 : next + 1;
+        return leaderboard.rankOf(all.get(next));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Hero> sortAll() {
+        return all.stream().sorted(Comparator.comparingLong(Hero::getCurrentXP).reversed()).limit(10).toList();
+    }
+}
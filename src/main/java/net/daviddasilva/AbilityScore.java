@@ -1,38 +1,28 @@
 package net.daviddasilva;
 
-import java.util.Map;
-
-import static java.util.Map.entry;
-
 public record AbilityScore(int score) {
 
+    public static final int MIN_SCORE = 1;
+    public static final int MAX_SCORE = 20;
     private static final int DEFAULT_SCORE = 10;
-    private static final Map<Integer, Integer> MODIFIER_TABLE = Map.ofEntries(
-            entry(1,-5),
-            entry(2, -4),
-            entry(3, -4),
-            entry(4, -3),
-            entry(5, -3),
-            entry(6, -2),
-            entry(7, -2),
-            entry(8, -1),
-            entry(9, -1),
-            entry(10, 0),
-            entry(11, 0),
-            entry(12, 1),
-            entry(13, 1),
-            entry(14, 1),
-            entry(15, 2),
-            entry(16, 3),
-            entry(17, 3),
-            entry(18, 4),
-            entry(19, 4),
-            entry(20, 5)
-
-    );
+    private static final int[] MODIFIER_TABLE = {
+            // index 0 is never used, scores start at 1
+            0,
+            -5, -4, -4, -3, -3,
+            -2, -2, -1, -1, 0,
+            0, 1, 1, 1, 2,
+            3, 3, 4, 4, 5
+    };
+    private static final AbilityScore[] CACHE = new AbilityScore[MAX_SCORE + 1];
+
+    static {
+        for (int score = MIN_SCORE; score <= MAX_SCORE; score++) {
+            CACHE[score] = new AbilityScore(score);
+        }
+    }
 
     public AbilityScore {
-        if (score < 1 || score > 20) {
+        if (score < MIN_SCORE || score > MAX_SCORE) {
             throw new IllegalArgumentException("Ability score should be between 1 and 20");
         }
     }
@@ -41,7 +31,22 @@ public record AbilityScore(int score) {
         this(DEFAULT_SCORE);
     }
 
+    public static AbilityScore of(int score) {
+        if (score < MIN_SCORE || score > MAX_SCORE) {
+            throw new IllegalArgumentException("Ability score should be between 1 and 20");
+        }
+        return CACHE[score];
+    }
+
+    public static AbilityScore defaultScore() {
+        return CACHE[DEFAULT_SCORE];
+    }
+
+    public static int modifierOf(int score) {
+        return MODIFIER_TABLE[score];
+    }
+
     public int getModifier() {
-        return MODIFIER_TABLE.get(this.score);
+        return MODIFIER_TABLE[this.score];
     }
 }
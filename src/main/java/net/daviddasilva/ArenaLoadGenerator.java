@@ -0,0 +1,88 @@
+package net.daviddasilva;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Floods an in-process {@link ArenaServer} with encounters and prints what came out of them.
+ * <pre>
+ * java net.daviddasilva.ArenaLoadGenerator [encounters] [max in flight] [timeout in ms]
+ * </pre>
+ */
+public final class ArenaLoadGenerator {
+
+    private static final int DEFAULT_ENCOUNTERS = 100_000;
+    private static final int PARTY_SIZE = 4;
+    private static final int MONSTERS = 4;
+
+    private ArenaLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int encounters = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ENCOUNTERS;
+        int maxInFlight = args.length > 1 ? Integer.parseInt(args[1]) : encounters;
+        Duration timeout = Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 60_000);
+        try (var server = new ArenaServer(maxInFlight, timeout)) {
+            var report = run(server, encounters);
+            System.out.println(report);
+        }
+    }
+
+    static Report run(ArenaServer server, int encounters) throws InterruptedException {
+        var latency = new LatencyHistogram();
+        var outcomes = new EnumMap<Encounter.Outcome, Integer>(Encounter.Outcome.class);
+        List<CompletableFuture<Encounter.Result>> results = new ArrayList<>(encounters);
+        long start = System.nanoTime();
+        int peakInFlight = 0;
+        for (int i = 0; i < encounters; i++) {
+            results.add(server.submit(encounter(i)));
+            peakInFlight = Math.max(peakInFlight, server.inFlight());
+        }
+        int failed = 0;
+        for (CompletableFuture<Encounter.Result> result : results) {
+            try {
+                var encounter = result.join();
+                latency.record(encounter.elapsedNanos());
+                outcomes.merge(encounter.outcome(), 1, Integer::sum);
+            } catch (CompletionException | CancellationException e) {
+                failed++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Report(encounters, peakInFlight, elapsed, outcomes, failed,
+                latency.percentile(50), latency.percentile(99), latency.percentile(100));
+    }
+
+    private static Encounter encounter(int seed) {
+        List<Hero> party = new ArrayList<>(PARTY_SIZE);
+        for (int i = 0; i < PARTY_SIZE; i++) {
+            party.add(Hero.builder().strength(12 + (seed + i) % 6).level(1 + i).build());
+        }
+        List<Hero> monsters = new ArrayList<>(MONSTERS);
+        for (int i = 0; i < MONSTERS; i++) {
+            monsters.add(Hero.builder().strength(14).armorClass(12).hitPoints(8).build());
+        }
+        return new Encounter(party, monsters);
+    }
+
+    record Report(int encounters, int peakInFlight, long elapsedNanos, EnumMap<Encounter.Outcome, Integer> outcomes,
+                  int failed, long p50Nanos, long p99Nanos, long maxNanos) {
+
+        double encountersPerSecond() {
+            return elapsedNanos == 0 ? 0 : encounters * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d encounters in %.2f s (%.0f/s), peak in flight %d, %s, failed %d,"
+                            + " latency p50 %.2f ms p99 %.2f ms max %.2f ms",
+                    encounters, elapsedNanos / 1e9, encountersPerSecond(), peakInFlight, outcomes, failed,
+                    p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+        }
+    }
+}
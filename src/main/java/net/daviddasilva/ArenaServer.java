@@ -0,0 +1,218 @@
+package net.daviddasilva;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs many encounters at once on a small pool of threads.
+ * <p>
+ * An encounter never holds a thread for long : it plays {@link #ROUNDS_PER_SLICE} rounds then goes back to the end of
+ * the queue, so a hundred thousand encounters share the threads fairly, a long fight does not starve the others, and
+ * timeouts and cancellations are noticed between two slices. Admission is bounded, {@link #submit} blocks while the
+ * maximum number of encounters are in flight.
+ * <p>
+ * Closing the server cancels the encounters still running, the same way leaving a scope would.
+ */
+public final class ArenaServer implements AutoCloseable {
+
+    static final int ROUNDS_PER_SLICE = 64;
+    static final int MAX_ROUNDS = 10_000;
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Semaphore admissions;
+    private final Duration timeout;
+    private final Supplier<Dice> dice;
+    private final Set<CompletableFuture<Encounter.Result>> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public ArenaServer(int maxEncounters, Duration timeout) {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true), maxEncounters, timeout, Dice::random, true);
+    }
+
+    /**
+     * @param dice gives the dice of each encounter, the slices of an encounter never run concurrently so its dice do
+     *             not need to be thread safe
+     */
+    public ArenaServer(Executor executor, int maxEncounters, Duration timeout, Supplier<Dice> dice) {
+        this(executor, maxEncounters, timeout, dice, false);
+    }
+
+    private ArenaServer(Executor executor, int maxEncounters, Duration timeout, Supplier<Dice> dice, boolean owned) {
+        if (maxEncounters <= 0) {
+            throw new IllegalArgumentException("Maximum number of encounters should be positive");
+        }
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+        this.admissions = new Semaphore(maxEncounters);
+        this.timeout = timeout;
+        this.dice = dice;
+    }
+
+    public CompletableFuture<Encounter.Result> submit(Encounter encounter) throws InterruptedException {
+        return submit(encounter, timeout);
+    }
+
+    public CompletableFuture<Encounter.Result> submit(Encounter encounter, Duration timeout) throws InterruptedException {
+        checkOpen();
+        admissions.acquire();
+        return start(encounter, timeout);
+    }
+
+    public Optional<CompletableFuture<Encounter.Result>> trySubmit(Encounter encounter, Duration wait) throws InterruptedException {
+        checkOpen();
+        if (!admissions.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS)) {
+            return Optional.empty();
+        }
+        return Optional.of(start(encounter, timeout));
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (CompletableFuture<Encounter.Result> result : inFlight) {
+            result.cancel(false);
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private CompletableFuture<Encounter.Result> start(Encounter encounter, Duration timeout) {
+        var fight = new Fight(encounter, dice.get(), timeout);
+        inFlight.add(fight.result);
+        if (closed) {
+            fight.result.cancel(false);
+        }
+        fight.schedule();
+        return fight.result;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Arena server is closed");
+        }
+    }
+
+    private final class Fight implements Runnable {
+        private final List<Hero> party;
+        private final List<Hero> monsters;
+        private final Dice dice;
+        private final long start = System.nanoTime();
+        private final long deadline;
+        private final CompletableFuture<Encounter.Result> result = new CompletableFuture<>();
+        private int partyFront;
+        private int monstersFront;
+        private int rounds;
+
+        private Fight(Encounter encounter, Dice dice, Duration timeout) {
+            this.party = encounter.party();
+            this.monsters = encounter.monsters();
+            this.dice = dice;
+            this.deadline = start + timeout.toNanos();
+        }
+
+        @Override
+        public void run() {
+            // a cancelled encounter is only let go here, so its permit is not reused while a slice still runs
+            if (result.isDone()) {
+                finish();
+                return;
+            }
+            Encounter.Outcome outcome;
+            try {
+                outcome = playSlice();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                finish();
+                return;
+            }
+            if (outcome == null) {
+                schedule();
+                return;
+            }
+            result.complete(new Encounter.Result(outcome, rounds, System.nanoTime() - start));
+            finish();
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+                finish();
+            }
+        }
+
+        private void finish() {
+            inFlight.remove(result);
+            admissions.release();
+        }
+
+        private Encounter.Outcome playSlice() {
+            for (int i = 0; i < ROUNDS_PER_SLICE; i++) {
+                Encounter.Outcome outcome = playRound();
+                if (outcome != null) {
+                    return outcome;
+                }
+            }
+            return System.nanoTime() - deadline >= 0 ? Encounter.Outcome.TIMED_OUT : null;
+        }
+
+        private Encounter.Outcome playRound() {
+            if (rounds == MAX_ROUNDS) {
+                return Encounter.Outcome.DRAW;
+            }
+            rounds++;
+            // attacks always target the front line, so the index of the first living hero only moves forward
+            for (Hero hero : party) {
+                monstersFront = firstAlive(monsters, monstersFront);
+                if (monstersFront == monsters.size()) {
+                    return Encounter.Outcome.PARTY_WON;
+                }
+                if (!hero.isDead()) {
+                    hero.attemptAttack(monsters.get(monstersFront), dice);
+                }
+            }
+            monstersFront = firstAlive(monsters, monstersFront);
+            if (monstersFront == monsters.size()) {
+                return Encounter.Outcome.PARTY_WON;
+            }
+            for (Hero monster : monsters) {
+                partyFront = firstAlive(party, partyFront);
+                if (partyFront == party.size()) {
+                    return Encounter.Outcome.MONSTERS_WON;
+                }
+                if (!monster.isDead()) {
+                    monster.attemptAttack(party.get(partyFront), dice);
+                }
+            }
+            partyFront = firstAlive(party, partyFront);
+            return partyFront == party.size() ? Encounter.Outcome.MONSTERS_WON : null;
+        }
+
+        private int firstAlive(List<Hero> heroes, int from) {
+            int index = from;
+            while (index < heroes.size() && heroes.get(index).isDead()) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
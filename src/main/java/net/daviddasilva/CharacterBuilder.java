@@ -9,13 +9,14 @@ public class CharacterBuilder {
     private static final int DEFAULT_HIT_POINTS = 5;
     private static final int DEFAULT_LEVEL = 1;
     private static final int MINIMAL_HIT_POINTS = 1;
+    private static final Ability[] ABILITIES = Ability.values();
     private static final Map<Ability, AbilityScore> DEFAULT_ABILITIES = Map.of(
-            Ability.STRENGTH, new AbilityScore(),
-            Ability.DEXTERITY, new AbilityScore(),
-            Ability.CONSTITUTION, new AbilityScore(),
-            Ability.WISDOM, new AbilityScore(),
-            Ability.INTELLIGENCE, new AbilityScore(),
-            Ability.CHARISMA, new AbilityScore()
+            Ability.STRENGTH, AbilityScore.defaultScore(),
+            Ability.DEXTERITY, AbilityScore.defaultScore(),
+            Ability.CONSTITUTION, AbilityScore.defaultScore(),
+            Ability.WISDOM, AbilityScore.defaultScore(),
+            Ability.INTELLIGENCE, AbilityScore.defaultScore(),
+            Ability.CHARISMA, AbilityScore.defaultScore()
 
     );
 
@@ -23,6 +24,8 @@ public class CharacterBuilder {
 
     private String name;
     private Alignment alignment;
+    private CharacterClass characterClass = CharacterClass.defaultClass();
+    private Race race = Race.HUMAN;
     private int armorClass = DEFAULT_ARMOR_CLASS;
     private int hitPoints = DEFAULT_HIT_POINTS;
     private final EnumMap<Ability, AbilityScore> abilities;
@@ -42,6 +45,16 @@ public class CharacterBuilder {
         return this;
     }
 
+    public CharacterBuilder characterClass(CharacterClass characterClass) {
+        this.characterClass = characterClass;
+        return this;
+    }
+
+    public CharacterBuilder race(Race race) {
+        this.race = race;
+        return this;
+    }
+
     public CharacterBuilder armorClass(int armorClass) {
         this.armorClass = armorClass;
         return this;
@@ -53,32 +66,32 @@ public class CharacterBuilder {
     }
 
     public CharacterBuilder strength(int score) {
-        this.abilities.put(Ability.STRENGTH, new AbilityScore(score));
+        this.abilities.put(Ability.STRENGTH, AbilityScore.of(score));
         return this;
     }
 
     public CharacterBuilder dexterity(int score) {
-        this.abilities.put(Ability.DEXTERITY, new AbilityScore(score));
+        this.abilities.put(Ability.DEXTERITY, AbilityScore.of(score));
         return this;
     }
 
     public CharacterBuilder constitution(int score) {
-        this.abilities.put(Ability.CONSTITUTION, new AbilityScore(score));
+        this.abilities.put(Ability.CONSTITUTION, AbilityScore.of(score));
         return this;
     }
 
     public CharacterBuilder wisdom(int score) {
-        this.abilities.put(Ability.WISDOM, new AbilityScore(score));
+        this.abilities.put(Ability.WISDOM, AbilityScore.of(score));
         return this;
     }
 
     public CharacterBuilder intelligence(int score) {
-        this.abilities.put(Ability.INTELLIGENCE, new AbilityScore(score));
+        this.abilities.put(Ability.INTELLIGENCE, AbilityScore.of(score));
         return this;
     }
 
     public CharacterBuilder charisma(int score) {
-        this.abilities.put(Ability.CHARISMA, new AbilityScore(score));
+        this.abilities.put(Ability.CHARISMA, AbilityScore.of(score));
         return this;
     }
 
@@ -87,7 +100,26 @@ public class CharacterBuilder {
         return this;
     }
 
+    public CharacterBuilder reset() {
+        this.name = null;
+        this.alignment = null;
+        this.characterClass = CharacterClass.defaultClass();
+        this.race = Race.HUMAN;
+        this.armorClass = DEFAULT_ARMOR_CLASS;
+        this.hitPoints = DEFAULT_HIT_POINTS;
+        for (Ability ability : ABILITIES) {
+            this.abilities.put(ability, AbilityScore.defaultScore());
+        }
+        this.level = DEFAULT_LEVEL;
+        return this;
+    }
+
     public Hero build() {
-        return new Hero(this.name, this.alignment, armorClass, hitPoints, abilities, level);
+        return new Hero(this.name, this.alignment, characterClass, race, armorClass, hitPoints, abilities, level);
+    }
+
+    public Hero buildInto(Hero hero) {
+        hero.reset(this.name, this.alignment, characterClass, race, armorClass, hitPoints, abilities, level);
+        return hero;
     }
 }
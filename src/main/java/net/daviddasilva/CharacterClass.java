@@ -0,0 +1,189 @@
+package net.daviddasilva;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A character class as defined in {@code classes.csv}. Classes are data : adding one is adding a line to the file,
+ * and the rules are compiled into plain tables by {@link ClassRules} so combat never branches on the class.
+ */
+public final class CharacterClass {
+
+    static final String DEFINITIONS = "classes.csv";
+    private static final int MAX_CLASSES = Byte.MAX_VALUE + 1;
+    private static final int COLUMNS = 12;
+    private static final String NO_ALIGNMENT = "NONE";
+    private static final List<CharacterClass> CLASSES = load();
+
+    private final byte id;
+    private final String name;
+    private final int hitPointsPerLevel;
+    private final int[] attackEvery;
+    private final Ability attackAbility;
+    private final int baseDamage;
+    private final int criticalMultiplier;
+    private final Ability armorAbility;
+    private final boolean ignoresDexterityArmor;
+    private final Set<Alignment> alignments;
+    private final boolean allowsNoAlignment;
+    private final Alignment favoredEnemy;
+    private final int favoredBonus;
+    private final int favoredCriticalMultiplier;
+
+    private CharacterClass(byte id, String[] columns) {
+        this.id = id;
+        this.name = columns[0];
+        this.hitPointsPerLevel = Integer.parseInt(columns[1]);
+        this.attackEvery = Arrays.stream(columns[2].split(" +")).mapToInt(Integer::parseInt).toArray();
+        this.attackAbility = Ability.valueOf(columns[3]);
+        this.baseDamage = Integer.parseInt(columns[4]);
+        this.criticalMultiplier = Integer.parseInt(columns[5]);
+        this.armorAbility = columns[6].isEmpty() ? null : Ability.valueOf(columns[6]);
+        this.ignoresDexterityArmor = Boolean.parseBoolean(columns[7]);
+        this.alignments = EnumSet.noneOf(Alignment.class);
+        boolean noAlignment = false;
+        for (String alignment : columns[8].split(" +")) {
+            if (alignment.equals(NO_ALIGNMENT)) {
+                noAlignment = true;
+            } else {
+                alignments.add(Alignment.valueOf(alignment));
+            }
+        }
+        this.allowsNoAlignment = noAlignment;
+        this.favoredEnemy = columns[9].isEmpty() ? null : Alignment.valueOf(columns[9]);
+        this.favoredBonus = columns[10].isEmpty() ? 0 : Integer.parseInt(columns[10]);
+        this.favoredCriticalMultiplier = columns[11].isEmpty() ? criticalMultiplier : Integer.parseInt(columns[11]);
+        for (int every : attackEvery) {
+            if (every <= 0) {
+                throw new IllegalArgumentException("Attack progression should be made of positive levels");
+            }
+        }
+    }
+
+    public static CharacterClass defaultClass() {
+        return CLASSES.get(0);
+    }
+
+    public static CharacterClass named(String name) {
+        for (CharacterClass characterClass : CLASSES) {
+            if (characterClass.name.equalsIgnoreCase(name)) {
+                return characterClass;
+            }
+        }
+        throw new IllegalArgumentException("Unknown character class " + name);
+    }
+
+    public static List<CharacterClass> values() {
+        return CLASSES;
+    }
+
+    static CharacterClass byId(int id) {
+        if (id < 0 || id >= CLASSES.size()) {
+            throw new IllegalArgumentException("Unknown character class id " + id);
+        }
+        return CLASSES.get(id);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean allows(Alignment alignment) {
+        return alignment == null ? allowsNoAlignment : alignments.contains(alignment);
+    }
+
+    byte id() {
+        return id;
+    }
+
+    int hitPointsPerLevel() {
+        return hitPointsPerLevel;
+    }
+
+    int[] attackEvery() {
+        return attackEvery.clone();
+    }
+
+    Ability attackAbility() {
+        return attackAbility;
+    }
+
+    int baseDamage() {
+        return baseDamage;
+    }
+
+    int criticalMultiplier() {
+        return criticalMultiplier;
+    }
+
+    Ability armorAbility() {
+        return armorAbility;
+    }
+
+    boolean ignoresDexterityArmor() {
+        return ignoresDexterityArmor;
+    }
+
+    Alignment favoredEnemy() {
+        return favoredEnemy;
+    }
+
+    int favoredBonus() {
+        return favoredBonus;
+    }
+
+    int favoredCriticalMultiplier() {
+        return favoredCriticalMultiplier;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static List<CharacterClass> load() {
+        var resource = CharacterClass.class.getResourceAsStream(DEFINITIONS);
+        if (resource == null) {
+            throw new IllegalStateException("Missing character class definitions " + DEFINITIONS);
+        }
+        try (var reader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+            return parse(reader.lines().toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<CharacterClass> parse(List<String> lines) {
+        List<CharacterClass> classes = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split(",", -1);
+            if (columns.length != COLUMNS || classes.size() == MAX_CLASSES) {
+                throw new IllegalStateException("Invalid character class at line " + (i + 1) + " of " + DEFINITIONS);
+            }
+            for (int column = 0; column < COLUMNS; column++) {
+                columns[column] = columns[column].strip();
+            }
+            try {
+                classes.add(new CharacterClass((byte) classes.size(), columns));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid character class at line " + (i + 1) + " of " + DEFINITIONS, e);
+            }
+        }
+        if (classes.isEmpty()) {
+            throw new IllegalStateException("No character class defined in " + DEFINITIONS);
+        }
+        return List.copyOf(classes);
+    }
+}
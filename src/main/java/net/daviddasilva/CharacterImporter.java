@@ -0,0 +1,643 @@
+package net.daviddasilva;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Imports characters in bulk from legacy CSV exports or from hero streams written by {@link HeroStreamWriter}.
+ * <p>
+ * The input is read in chunks cut at the end of the last complete row. Chunks are parsed, validated and turned into
+ * heroes in parallel, then handed over in the order of the file on the calling thread, with at most a fixed number
+ * of chunks in flight so memory stays bounded whatever the size of the file. A row that does not make a valid hero
+ * is rejected with its reason, without an exception, and the import goes on with the next one.
+ * <p>
+ * A CSV export starts with a header line, skipped, then has a character per line :
+ * <pre>
+ * name,alignment,class,race,armorClass,hitPoints,strength,dexterity,constitution,wisdom,intelligence,charisma,level
+ * </pre>
+ * Fields may be double quoted, with doubled quotes inside, but not span lines. Empty name and alignment mean none,
+ * empty class and race mean the defaults, and characters are built as by {@link CharacterBuilder}. A row longer than
+ * {@link #MAX_ROW_CHUNKS} chunks is rejected without being read to its end. Rows of a CSV export are numbered by
+ * line, header included, records of a hero stream from 1.
+ * <p>
+ * A hero stream is read back as it was written, dead heroes included, and only records the codec could not have
+ * written are rejected.
+ */
+public final class CharacterImporter {
+
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    static final int MIN_CHUNK_SIZE = 1 << 16;
+    static final int MAX_ROW_CHUNKS = 4;
+    private static final byte[] NO_DATA = new byte[0];
+    private static final Ability[] ABILITIES = Ability.values();
+    private static final Alignment[] ALIGNMENTS = Alignment.values();
+    private static final Race[] RACES = Race.values();
+    private static final byte[][] ALIGNMENT_NAMES = namesOf(Arrays.stream(ALIGNMENTS).map(Enum::name).toList());
+    private static final byte[][] RACE_NAMES = namesOf(Arrays.stream(RACES).map(Enum::name).toList());
+    private static final byte[][] CLASS_NAMES = namesOf(CharacterClass.values().stream().map(CharacterClass::getName).toList());
+    private static final int NO_MATCH = -1;
+    private static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int chunksInFlight;
+
+    public CharacterImporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, 2 * ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public CharacterImporter(ForkJoinPool pool, int chunkSize, int chunksInFlight) {
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunks should be at least " + MIN_CHUNK_SIZE + " bytes");
+        }
+        if (chunksInFlight < 1) {
+            throw new IllegalArgumentException("At least one chunk should be in flight");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.chunksInFlight = chunksInFlight;
+    }
+
+    public Report importCsv(ReadableByteChannel in, Consumer<Hero> heroes, Consumer<Rejection> rejections) throws IOException {
+        return run(in, new CsvFormat(), heroes, rejections);
+    }
+
+    public Report importStream(ReadableByteChannel in, Consumer<Hero> heroes, Consumer<Rejection> rejections) throws IOException {
+        var magic = ByteBuffer.allocate(Integer.BYTES);
+        while (magic.hasRemaining()) {
+            if (in.read(magic) < 0) {
+                throw new IOException("Not a hero stream");
+            }
+        }
+        if (magic.getInt(0) != HeroStreamWriter.MAGIC) {
+            throw new IOException("Not a hero stream");
+        }
+        return run(in, new StreamFormat(), heroes, rejections);
+    }
+
+    private Report run(ReadableByteChannel in, Format format, Consumer<Hero> heroes, Consumer<Rejection> rejections) throws IOException {
+        long start = System.nanoTime();
+        var delivery = new Delivery(heroes, rejections);
+        var inFlight = new ArrayDeque<Chunk>(chunksInFlight);
+        byte[] data = new byte[chunkSize];
+        int length = 0;
+        boolean first = true;
+        boolean end = false;
+        boolean skipping = false;
+        String unreadable = null;
+        while (!end && unreadable == null) {
+            var buffer = ByteBuffer.wrap(data, length, data.length - length);
+            while (buffer.hasRemaining() && !end) {
+                end = in.read(buffer) < 0;
+            }
+            length = buffer.position();
+            if (skipping) {
+                int next = format.nextRow(data, length);
+                if (next < 0) {
+                    length = 0;
+                    continue;
+                }
+                System.arraycopy(data, next, data, 0, length - next);
+                length -= next;
+                skipping = false;
+            }
+            int split = format.split(data, length, end);
+            if (split < length) {
+                unreadable = format.unreadable(data, split, length, end);
+            }
+            if (split == 0 && length == data.length && unreadable == null) {
+                if (data.length < MAX_ROW_CHUNKS * chunkSize) {
+                    // a single row longer than a chunk
+                    data = Arrays.copyOf(data, Math.min(2 * data.length, MAX_ROW_CHUNKS * chunkSize));
+                    continue;
+                }
+                // too long to be a character, rejected in its place and skipped up to the next row
+                if (inFlight.size() == chunksInFlight) {
+                    delivery.deliver(inFlight.poll());
+                }
+                var skipped = new Chunk(NO_DATA, 0, first);
+                skipped.rows = 1;
+                if (!first) {
+                    skipped.reject(1, "Row longer than " + data.length + " bytes");
+                }
+                skipped.parsed = CompletableFuture.completedFuture(null);
+                inFlight.add(skipped);
+                first = false;
+                skipping = true;
+                length = 0;
+                data = delivery.recycled(chunkSize);
+                continue;
+            }
+            if (inFlight.size() == chunksInFlight) {
+                delivery.deliver(inFlight.poll());
+            }
+            var chunk = new Chunk(data, split, first);
+            chunk.parsed = CompletableFuture.runAsync(() -> format.parse(chunk), pool);
+            inFlight.add(chunk);
+            first = false;
+            byte[] next = length - split > chunkSize ? new byte[length - split] : delivery.recycled(chunkSize);
+            System.arraycopy(data, split, next, 0, length - split);
+            length -= split;
+            data = next;
+        }
+        while (!inFlight.isEmpty()) {
+            delivery.deliver(inFlight.poll());
+        }
+        if (unreadable != null) {
+            delivery.reject(1, unreadable);
+        }
+        return new Report(delivery.imported, delivery.rejected, System.nanoTime() - start);
+    }
+
+    /**
+     * Where a row was rejected, see the class documentation for how rows are numbered, and why.
+     */
+    public record Rejection(long row, String reason) {
+    }
+
+    public record Report(long imported, long rejected, long elapsedNanos) {
+
+        public double heroesPerSecond() {
+            return elapsedNanos == 0 ? 0 : imported * 1e9 / elapsedNanos;
+        }
+    }
+
+    private interface Format {
+
+        /**
+         * The end of the last complete row, knowing whether the input ends there.
+         */
+        int split(byte[] data, int length, boolean end);
+
+        /**
+         * Why the rest of the input, starting at a row that is not complete, can never be read, or null when more
+         * bytes would make it a row.
+         */
+        String unreadable(byte[] data, int position, int length, boolean end);
+
+        /**
+         * The start of the first row, when the data starts in a row too long to be read, or -1 when that row goes on
+         * after the data.
+         */
+        int nextRow(byte[] data, int length);
+
+        void parse(Chunk chunk);
+    }
+
+    private static final class Chunk {
+
+        private final byte[] data;
+        private final int length;
+        private final boolean first;
+        private final List<Hero> heroes = new ArrayList<>();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private CompletableFuture<Void> parsed;
+        private int rows;
+
+        private Chunk(byte[] data, int length, boolean first) {
+            this.data = data;
+            this.length = length;
+            this.first = first;
+        }
+
+        void reject(int row, String reason) {
+            rejections.add(new Rejection(row, reason));
+        }
+    }
+
+    /*
+     * Runs on the calling thread, in the order of the input, and keeps the buffers of delivered chunks for reuse.
+     */
+    private static final class Delivery {
+
+        private final Consumer<Hero> heroes;
+        private final Consumer<Rejection> rejections;
+        private final ArrayDeque<byte[]> buffers = new ArrayDeque<>();
+        private long rows;
+        private long imported;
+        private long rejected;
+
+        private Delivery(Consumer<Hero> heroes, Consumer<Rejection> rejections) {
+            this.heroes = heroes;
+            this.rejections = rejections;
+        }
+
+        void deliver(Chunk chunk) {
+            try {
+                chunk.parsed.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            for (Hero hero : chunk.heroes) {
+                heroes.accept(hero);
+            }
+            for (Rejection rejection : chunk.rejections) {
+                reject(rejection.row(), rejection.reason());
+            }
+            imported += chunk.heroes.size();
+            rows += chunk.rows;
+            buffers.add(chunk.data);
+        }
+
+        void reject(long row, String reason) {
+            rejections.accept(new Rejection(rows + row, reason));
+            rejected++;
+        }
+
+        byte[] recycled(int size) {
+            byte[] buffer;
+            while ((buffer = buffers.poll()) != null) {
+                if (buffer.length == size) {
+                    return buffer;
+                }
+            }
+            return new byte[size];
+        }
+    }
+
+    private static final class CsvFormat implements Format {
+
+        private static final int COLUMNS = 13;
+        private static final int NAME = 0;
+        private static final int ALIGNMENT = 1;
+        private static final int CLASS = 2;
+        private static final int RACE = 3;
+        private static final int ARMOR_CLASS = 4;
+        private static final int HIT_POINTS = 5;
+        private static final int FIRST_ABILITY = 6;
+        private static final int LEVEL = 12;
+        private static final byte QUOTE = '"';
+
+        @Override
+        public int split(byte[] data, int length, boolean end) {
+            if (end) {
+                // the last line needs no line feed
+                return length;
+            }
+            for (int i = length - 1; i >= 0; i--) {
+                if (data[i] == '\n') {
+                    return i + 1;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String unreadable(byte[] data, int position, int length, boolean end) {
+            return null;
+        }
+
+        @Override
+        public int nextRow(byte[] data, int length) {
+            for (int i = 0; i < length; i++) {
+                if (data[i] == '\n') {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void parse(Chunk chunk) {
+            byte[] data = chunk.data;
+            var fields = new int[2 * COLUMNS];
+            var abilities = new EnumMap<Ability, AbilityScore>(Ability.class);
+            int position = 0;
+            int line = 0;
+            while (position < chunk.length) {
+                int end = position;
+                while (end < chunk.length && data[end] != '\n') {
+                    end++;
+                }
+                line++;
+                int rowEnd = end > position && data[end - 1] == '\r' ? end - 1 : end;
+                if (rowEnd > position && !(chunk.first && line == 1)) {
+                    parseRow(chunk, line, data, position, rowEnd, fields, abilities);
+                }
+                position = end + 1;
+            }
+            chunk.rows = line;
+        }
+
+        private static void parseRow(Chunk chunk, int line, byte[] data, int from, int to, int[] fields, EnumMap<Ability, AbilityScore> abilities) {
+            int columns = 0;
+            int position = from;
+            boolean quotedName = false;
+            while (true) {
+                if (columns == COLUMNS) {
+                    chunk.reject(line, "Expected " + COLUMNS + " columns, got more");
+                    return;
+                }
+                int start = position;
+                int end;
+                if (position < to && data[position] == QUOTE) {
+                    start = position + 1;
+                    end = closingQuote(data, start, to);
+                    if (end < 0 || (end + 1 < to && data[end + 1] != ',')) {
+                        chunk.reject(line, "Malformed quoted field in column " + (columns + 1));
+                        return;
+                    }
+                    quotedName |= columns == NAME;
+                    position = end + 1;
+                } else {
+                    while (position < to && data[position] != ',') {
+                        position++;
+                    }
+                    end = position;
+                }
+                fields[2 * columns] = start;
+                fields[2 * columns + 1] = end;
+                columns++;
+                if (position >= to) {
+                    break;
+                }
+                position++;
+            }
+            if (columns != COLUMNS) {
+                chunk.reject(line, "Expected " + COLUMNS + " columns, got " + columns);
+                return;
+            }
+            int alignment = optional(ALIGNMENT_NAMES, data, fields, ALIGNMENT);
+            if (alignment == NO_MATCH) {
+                chunk.reject(line, "Unknown alignment " + text(data, fields, ALIGNMENT));
+                return;
+            }
+            int characterClass = optional(CLASS_NAMES, data, fields, CLASS);
+            if (characterClass == NO_MATCH) {
+                chunk.reject(line, "Unknown character class " + text(data, fields, CLASS));
+                return;
+            }
+            int race = optional(RACE_NAMES, data, fields, RACE);
+            if (race == NO_MATCH) {
+                chunk.reject(line, "Unknown race " + text(data, fields, RACE));
+                return;
+            }
+            long armorClass = number(data, fields, ARMOR_CLASS);
+            if (armorClass == NOT_A_NUMBER) {
+                chunk.reject(line, "Armor class should be a number");
+                return;
+            }
+            long hitPoints = number(data, fields, HIT_POINTS);
+            if (hitPoints == NOT_A_NUMBER || hitPoints < 1) {
+                chunk.reject(line, "Hit points should be positive");
+                return;
+            }
+            for (Ability ability : ABILITIES) {
+                long score = number(data, fields, FIRST_ABILITY + ability.ordinal());
+                if (score < AbilityScore.MIN_SCORE || score > AbilityScore.MAX_SCORE) {
+                    chunk.reject(line, ability + " should be between 1 and 20");
+                    return;
+                }
+                abilities.put(ability, AbilityScore.of((int) score));
+            }
+            long level = number(data, fields, LEVEL);
+            if (level == NOT_A_NUMBER || level < 1) {
+                chunk.reject(line, "Level should be positive");
+                return;
+            }
+            var alignmentValue = alignment == ALIGNMENTS.length ? null : ALIGNMENTS[alignment];
+            var characterClassValue = characterClass == CLASS_NAMES.length ? CharacterClass.defaultClass() : CharacterClass.values().get(characterClass);
+            var raceValue = race == RACES.length ? Race.HUMAN : RACES[race];
+            String reason = disallowed(characterClassValue, raceValue, alignmentValue);
+            if (reason != null) {
+                chunk.reject(line, reason);
+                return;
+            }
+            String name = fields[0] == fields[1] ? null : text(data, fields, NAME);
+            if (quotedName && name != null) {
+                name = name.replace("\"\"", "\"");
+            }
+            chunk.heroes.add(new Hero(name, alignmentValue, characterClassValue, raceValue, (int) armorClass, (int) hitPoints, abilities, (int) level));
+        }
+
+        private static int closingQuote(byte[] data, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (data[i] == QUOTE) {
+                    if (i + 1 < to && data[i + 1] == QUOTE) {
+                        i++;
+                    } else {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /*
+         * The index of the name in the field, the number of names when the field is empty.
+         */
+        private static int optional(byte[][] names, byte[] data, int[] fields, int column) {
+            int from = fields[2 * column];
+            int to = fields[2 * column + 1];
+            return from == to ? names.length : match(names, data, from, to);
+        }
+
+        private static long number(byte[] data, int[] fields, int column) {
+            return parseNumber(data, fields[2 * column], fields[2 * column + 1]);
+        }
+
+        private static String text(byte[] data, int[] fields, int column) {
+            int from = fields[2 * column];
+            return new String(data, from, fields[2 * column + 1] - from, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class StreamFormat implements Format {
+
+        private static final int NAME_LENGTH_SIZE = Short.BYTES;
+        private static final byte NO_ALIGNMENT = -1;
+        private static final int NO_NAME = -1;
+        // bytes of a body before the class and race bytes, which versions add one after the other
+        private static final int HEAD_SIZE = 2;
+        private static final int OPTIONAL_BYTES = 2;
+
+        @Override
+        public int split(byte[] data, int length, boolean end) {
+            int position = 0;
+            while (true) {
+                int size = recordSize(data, position, length);
+                if (size <= 0) {
+                    return position;
+                }
+                position += size;
+            }
+        }
+
+        @Override
+        public String unreadable(byte[] data, int position, int length, boolean end) {
+            byte version = data[position];
+            if (!HeroCodec.isSupported(version)) {
+                return "Unsupported hero format version " + version + ", the rest of the stream cannot be read";
+            }
+            int nameLength = position + HeroCodec.bodySize(version) + NAME_LENGTH_SIZE <= length
+                    ? ByteBuffer.wrap(data).getShort(position + HeroCodec.bodySize(version)) : 0;
+            if (nameLength < NO_NAME) {
+                return "Invalid name length " + nameLength + ", the rest of the stream cannot be read";
+            }
+            return end ? "Truncated record" : null;
+        }
+
+        @Override
+        public int nextRow(byte[] data, int length) {
+            // a record and its longest name are smaller than the smallest chunk
+            throw new IllegalStateException("A hero record always fits a chunk");
+        }
+
+        /*
+         * The size of the complete record at the position, 0 when it is cut short and -1 when it is unreadable.
+         */
+        private static int recordSize(byte[] data, int position, int length) {
+            if (position >= length) {
+                return 0;
+            }
+            byte version = data[position];
+            if (!HeroCodec.isSupported(version)) {
+                return -1;
+            }
+            int bodySize = HeroCodec.bodySize(version);
+            if (position + bodySize + NAME_LENGTH_SIZE > length) {
+                return 0;
+            }
+            int nameLength = (short) ((data[position + bodySize] & 0xFF) << 8 | data[position + bodySize + 1] & 0xFF);
+            if (nameLength < NO_NAME) {
+                return -1;
+            }
+            int size = bodySize + NAME_LENGTH_SIZE + Math.max(0, nameLength);
+            return position + size <= length ? size : 0;
+        }
+
+        @Override
+        public void parse(Chunk chunk) {
+            var in = ByteBuffer.wrap(chunk.data, 0, chunk.length);
+            var abilities = new EnumMap<Ability, AbilityScore>(Ability.class);
+            int position = 0;
+            int record = 0;
+            while (position < chunk.length) {
+                int size = recordSize(chunk.data, position, chunk.length);
+                record++;
+                parseRecord(chunk, record, in, position, abilities);
+                position += size;
+            }
+            chunk.rows = record;
+        }
+
+        private static void parseRecord(Chunk chunk, int record, ByteBuffer in, int position, EnumMap<Ability, AbilityScore> abilities) {
+            byte version = in.get(position);
+            int bodySize = HeroCodec.bodySize(version);
+            int optionalBytes = bodySize - (HeroCodec.BODY_SIZE - OPTIONAL_BYTES);
+            int fields = position + HEAD_SIZE + optionalBytes;
+            byte alignment = in.get(position + 1);
+            if (alignment < NO_ALIGNMENT || alignment >= ALIGNMENTS.length) {
+                chunk.reject(record, "Unknown alignment " + alignment);
+                return;
+            }
+            int classId = optionalBytes > 0 ? in.get(position + HEAD_SIZE) : CharacterClass.defaultClass().id();
+            if (classId < 0 || classId >= CharacterClass.values().size()) {
+                chunk.reject(record, "Unknown character class id " + classId);
+                return;
+            }
+            int race = optionalBytes > 1 ? in.get(position + HEAD_SIZE + 1) : Race.HUMAN.ordinal();
+            if (race < 0 || race >= RACES.length) {
+                chunk.reject(record, "Unknown race " + race);
+                return;
+            }
+            int armorClass = in.getInt(fields);
+            // any hit points, heroes are written dead or alive
+            int hitPoints = in.getInt(fields + Integer.BYTES);
+            int abilityScores = fields + 2 * Integer.BYTES;
+            for (Ability ability : ABILITIES) {
+                int score = in.get(abilityScores + ability.ordinal());
+                if (score < AbilityScore.MIN_SCORE || score > AbilityScore.MAX_SCORE) {
+                    chunk.reject(record, ability + " should be between 1 and 20");
+                    return;
+                }
+                abilities.put(ability, AbilityScore.of(score));
+            }
+            int level = in.getInt(abilityScores + ABILITIES.length);
+            if (level < 1) {
+                chunk.reject(record, "Level should be positive");
+                return;
+            }
+            int attackBonus = in.getInt(abilityScores + ABILITIES.length + Integer.BYTES);
+            long xp = in.getLong(abilityScores + ABILITIES.length + 2 * Integer.BYTES);
+            var alignmentValue = alignment == NO_ALIGNMENT ? null : ALIGNMENTS[alignment];
+            var characterClass = CharacterClass.values().get(classId);
+            String reason = disallowed(characterClass, RACES[race], alignmentValue);
+            if (reason != null) {
+                chunk.reject(record, reason);
+                return;
+            }
+            in.position(position + bodySize);
+            String name = HeroCodec.readName(in);
+            chunk.heroes.add(Hero.restore(name, alignmentValue, characterClass, RACES[race], armorClass, hitPoints, abilities, xp, level, attackBonus));
+        }
+    }
+
+    private static String disallowed(CharacterClass characterClass, Race race, Alignment alignment) {
+        if (!characterClass.allows(alignment)) {
+            return "A " + characterClass + " cannot be " + (alignment == null ? "unaligned" : alignment);
+        }
+        if (!race.allows(alignment)) {
+            return "A " + race + " cannot be " + alignment;
+        }
+        return null;
+    }
+
+    private static byte[][] namesOf(List<String> names) {
+        var bytes = new byte[names.size()][];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = names.get(i).toUpperCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+        }
+        return bytes;
+    }
+
+    /*
+     * Compares ASCII case insensitively, without decoding the field.
+     */
+    private static int match(byte[][] names, byte[] data, int from, int to) {
+        for (int index = 0; index < names.length; index++) {
+            byte[] name = names[index];
+            if (name.length != to - from) {
+                continue;
+            }
+            int i = 0;
+            while (i < name.length && name[i] == (byte) Character.toUpperCase(data[from + i])) {
+                i++;
+            }
+            if (i == name.length) {
+                return index;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static long parseNumber(byte[] data, int from, int to) {
+        boolean negative = from < to && data[from] == '-';
+        int position = negative ? from + 1 : from;
+        // nine digits at most, so that the value always fits an int
+        if (position == to || to - position > 9) {
+            return NOT_A_NUMBER;
+        }
+        long value = 0;
+        for (; position < to; position++) {
+            int digit = data[position] - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_A_NUMBER;
+            }
+            value = 10 * value + digit;
+        }
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,166 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static net.daviddasilva.Hero.BASE_DAMAGE;
+
+/**
+ * The rules of every {@link CharacterClass} compiled into primitive arrays indexed by class id, so the combat path
+ * looks rules up rather than branching on the class. Rules depending on the alignment of the opponent are indexed
+ * by {@code classId * ALIGNMENT_SLOTS + alignmentIndex}.
+ * <p>
+ * The attack bonus at a level counts the levels from 2 up to it that are a multiple of one of the class divisors.
+ * That pattern repeats every lcm(divisors) levels, so only the counts within one cycle are kept.
+ */
+final class ClassRules {
+
+    static final int NO_ALIGNMENT = Alignment.values().length;
+    static final int ALIGNMENT_SLOTS = NO_ALIGNMENT + 1;
+    static final int NO_ABILITY = -1;
+    private static final int MAX_ATTACK_CYCLE = 1 << 16;
+
+    private static final int[] HIT_POINTS_PER_LEVEL;
+    private static final int[] BASE_DAMAGES;
+    private static final int[] ATTACK_ABILITIES;
+    private static final int[] ARMOR_ABILITIES;
+    private static final boolean[] IGNORES_DEXTERITY_ARMOR;
+    private static final int[] ATTACK_CYCLE_OFFSETS;
+    private static final int[] ATTACK_CYCLE_LENGTHS;
+    private static final int[] ATTACK_CYCLE_COUNTS;
+    private static final int[] BONUSES_VERSUS;
+    private static final int[] CRITICAL_MULTIPLIERS_VERSUS;
+
+    static {
+        List<CharacterClass> classes = CharacterClass.values();
+        int count = classes.size();
+        HIT_POINTS_PER_LEVEL = new int[count];
+        BASE_DAMAGES = new int[count];
+        ATTACK_ABILITIES = new int[count];
+        ARMOR_ABILITIES = new int[count];
+        IGNORES_DEXTERITY_ARMOR = new boolean[count];
+        ATTACK_CYCLE_OFFSETS = new int[count];
+        ATTACK_CYCLE_LENGTHS = new int[count];
+        BONUSES_VERSUS = new int[count * ALIGNMENT_SLOTS];
+        CRITICAL_MULTIPLIERS_VERSUS = new int[count * ALIGNMENT_SLOTS];
+        int cycles = 0;
+        for (CharacterClass characterClass : classes) {
+            int id = characterClass.id();
+            ATTACK_CYCLE_OFFSETS[id] = cycles;
+            ATTACK_CYCLE_LENGTHS[id] = attackCycleOf(characterClass.attackEvery());
+            cycles += ATTACK_CYCLE_LENGTHS[id] + 1;
+        }
+        ATTACK_CYCLE_COUNTS = new int[cycles];
+        for (CharacterClass characterClass : classes) {
+            int id = characterClass.id();
+            HIT_POINTS_PER_LEVEL[id] = characterClass.hitPointsPerLevel();
+            BASE_DAMAGES[id] = characterClass.baseDamage();
+            ATTACK_ABILITIES[id] = characterClass.attackAbility().ordinal();
+            ARMOR_ABILITIES[id] = characterClass.armorAbility() == null ? NO_ABILITY : characterClass.armorAbility().ordinal();
+            IGNORES_DEXTERITY_ARMOR[id] = characterClass.ignoresDexterityArmor();
+            compileAttackCycle(id, characterClass.attackEvery());
+            for (int alignment = 0; alignment < ALIGNMENT_SLOTS; alignment++) {
+                boolean favored = characterClass.favoredEnemy() != null && characterClass.favoredEnemy().ordinal() == alignment;
+                BONUSES_VERSUS[id * ALIGNMENT_SLOTS + alignment] = favored ? characterClass.favoredBonus() : 0;
+                CRITICAL_MULTIPLIERS_VERSUS[id * ALIGNMENT_SLOTS + alignment] = favored
+                        ? characterClass.favoredCriticalMultiplier() : characterClass.criticalMultiplier();
+            }
+        }
+    }
+
+    private ClassRules() {
+    }
+
+    static int alignmentIndex(Alignment alignment) {
+        return alignment == null ? NO_ALIGNMENT : alignment.ordinal();
+    }
+
+    static int hitPointsGained(int classId, int fromLevel, int toLevel, int constitutionModifier) {
+        return (toLevel - fromLevel) * (HIT_POINTS_PER_LEVEL[classId] + constitutionModifier);
+    }
+
+    static int attackBonusGained(int classId, int fromLevel, int toLevel) {
+        return attackBonusAt(classId, toLevel) - attackBonusAt(classId, fromLevel);
+    }
+
+    static int attackBonusAt(int classId, int level) {
+        if (level <= 1) {
+            return 0;
+        }
+        int offset = ATTACK_CYCLE_OFFSETS[classId];
+        int cycle = ATTACK_CYCLE_LENGTHS[classId];
+        // counts[r] is the number of levels in 1..r getting a bonus, level 1 is taken back out
+        return level / cycle * ATTACK_CYCLE_COUNTS[offset + cycle] + ATTACK_CYCLE_COUNTS[offset + level % cycle]
+                - ATTACK_CYCLE_COUNTS[offset + 1];
+    }
+
+    static int attackAbility(int classId) {
+        return ATTACK_ABILITIES[classId];
+    }
+
+    static int armorAbility(int classId) {
+        return ARMOR_ABILITIES[classId];
+    }
+
+    static int armorClassAgainst(int attackerClassId, int armorClass, int dexterityModifier) {
+        return IGNORES_DEXTERITY_ARMOR[attackerClassId] ? armorClass - Math.max(0, dexterityModifier) : armorClass;
+    }
+
+    static int bonusVersus(int classId, int alignmentIndex) {
+        return BONUSES_VERSUS[classId * ALIGNMENT_SLOTS + alignmentIndex];
+    }
+
+    static int damage(int classId, int alignmentIndex, int damageModifier) {
+        return BASE_DAMAGES[classId] + damageModifier + bonusVersus(classId, alignmentIndex);
+    }
+
+    static int criticalMultiplier(int classId, int alignmentIndex) {
+        return CRITICAL_MULTIPLIERS_VERSUS[classId * ALIGNMENT_SLOTS + alignmentIndex];
+    }
+
+    static int hitDamage(int classId, int alignmentIndex, int damageModifier) {
+        int damageDealt = BASE_DAMAGES[classId] + damageModifier + bonusVersus(classId, alignmentIndex);
+        return damageDealt <= 0 ? BASE_DAMAGE : damageDealt;
+    }
+
+    static int baseDamage(int classId) {
+        return BASE_DAMAGES[classId];
+    }
+
+    static int criticalHitDamage(int classId, int alignmentIndex, int damageModifier) {
+        return criticalHitDamage(classId, alignmentIndex, damageModifier, 0);
+    }
+
+    static int criticalHitDamage(int classId, int alignmentIndex, int damageModifier, int multiplierBonus) {
+        int index = classId * ALIGNMENT_SLOTS + alignmentIndex;
+        int damageDealt = (CRITICAL_MULTIPLIERS_VERSUS[index] + multiplierBonus) * (BASE_DAMAGES[classId] + damageModifier + BONUSES_VERSUS[index]);
+        return damageDealt <= 0 ? BASE_DAMAGE : damageDealt;
+    }
+
+    private static int attackCycleOf(int[] attackEvery) {
+        long cycle = 1;
+        for (int every : attackEvery) {
+            cycle = cycle / gcd(cycle, every) * every;
+            if (cycle > MAX_ATTACK_CYCLE) {
+                throw new IllegalStateException("Attack progression " + Arrays.toString(attackEvery) + " repeats too rarely");
+            }
+        }
+        return (int) cycle;
+    }
+
+    private static void compileAttackCycle(int classId, int[] attackEvery) {
+        int offset = ATTACK_CYCLE_OFFSETS[classId];
+        int cycle = ATTACK_CYCLE_LENGTHS[classId];
+        for (int level = 1; level <= cycle; level++) {
+            boolean bonus = false;
+            for (int every : attackEvery) {
+                bonus |= level % every == 0;
+            }
+            ATTACK_CYCLE_COUNTS[offset + level] = ATTACK_CYCLE_COUNTS[offset + level - 1] + (bonus ? 1 : 0);
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
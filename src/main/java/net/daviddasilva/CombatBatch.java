@@ -0,0 +1,100 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+
+/**
+ * Resolves many attacks between rows of a {@link HeroTable} in one pass, in order, exactly as the same sequence of
+ * {@link HeroTable#attemptAttack(int, int, int)} calls would. Results are kept in reusable buffers : one outcome
+ * byte of flags, the damage dealt and the level of the attacker afterwards, per attack.
+ */
+public final class CombatBatch {
+
+    public static final byte MISS = 0;
+    public static final byte HIT = 1;
+    public static final byte CRITICAL_HIT = 1 << 1;
+    public static final byte KILLED = 1 << 2;
+    public static final byte LEVEL_UP = 1 << 3;
+
+    private final HeroTable table;
+    private byte[] outcomes = new byte[0];
+    private int[] damages = new int[0];
+    private int[] attackerLevels = new int[0];
+    private int size;
+    private int hits;
+
+    public CombatBatch(HeroTable table) {
+        this.table = table;
+    }
+
+    public int resolve(int[] attackers, int[] defenders, int[] rolls) {
+        if (attackers.length != defenders.length || attackers.length != rolls.length) {
+            throw new IllegalArgumentException("Attackers, defenders and rolls should have the same length");
+        }
+        return resolve(attackers, defenders, rolls, attackers.length);
+    }
+
+    public int resolve(int[] attackers, int[] defenders, int[] rolls, int count) {
+        if (count < 0 || count > attackers.length || count > defenders.length || count > rolls.length) {
+            throw new IllegalArgumentException("Count should be between 0 and the length of attackers, defenders and rolls, got " + count);
+        }
+        if (outcomes.length < count) {
+            outcomes = new byte[count];
+            damages = new int[count];
+            attackerLevels = new int[count];
+        }
+        this.size = count;
+        long start = CombatMetrics.startBatch();
+        this.hits = table.resolveAttacks(attackers, defenders, rolls, count, outcomes, damages, attackerLevels);
+        CombatMetrics.recordBatch(start);
+        return hits;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int hits() {
+        return hits;
+    }
+
+    public byte outcome(int attack) {
+        checkAttack(attack);
+        return outcomes[attack];
+    }
+
+    public boolean isHit(int attack) {
+        return (outcome(attack) & HIT) != 0;
+    }
+
+    public boolean isCriticalHit(int attack) {
+        return (outcome(attack) & CRITICAL_HIT) != 0;
+    }
+
+    public boolean hasKilled(int attack) {
+        return (outcome(attack) & KILLED) != 0;
+    }
+
+    public boolean hasLeveledUp(int attack) {
+        return (outcome(attack) & LEVEL_UP) != 0;
+    }
+
+    public int damage(int attack) {
+        checkAttack(attack);
+        return damages[attack];
+    }
+
+    public int attackerLevel(int attack) {
+        checkAttack(attack);
+        return attackerLevels[attack];
+    }
+
+    public byte[] outcomes() {
+        return Arrays.copyOf(outcomes, size);
+    }
+
+    private void checkAttack(int attack) {
+        if (attack < 0 || attack >= size) {
+            throw new IndexOutOfBoundsException("No attack at index " + attack);
+        }
+    }
+}
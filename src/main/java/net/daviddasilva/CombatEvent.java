@@ -0,0 +1,8 @@
+package net.daviddasilva;
+
+public enum CombatEvent {
+    HIT,
+    CRITICAL_HIT,
+    DEATH,
+    LEVEL_UP
+}
@@ -0,0 +1,172 @@
+package net.daviddasilva;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes combat events of a {@link HeroTable}, or of heroes it listens to, to subscribers running on their own
+ * threads, through a ring buffer allocated once. There is a single publisher, the combat thread the bus listens to,
+ * and it never allocates : it writes the event fields in the next slot then moves the cursor. Each subscriber follows
+ * the cursor at its own pace and the publisher waits when it would overwrite a slot the slowest subscriber has not
+ * read yet.
+ * <ul>
+ *     <li>{@link CombatEvent#HIT} and {@link CombatEvent#CRITICAL_HIT} : source is the attacker, target the defender, value the damage</li>
+ *     <li>{@link CombatEvent#DEATH} : source is the killer, target the dead hero</li>
+ *     <li>{@link CombatEvent#LEVEL_UP} : source and target are the hero, value the level reached</li>
+ * </ul>
+ */
+public final class CombatEventBus implements CombatListener, AutoCloseable {
+
+    private static final CombatEvent[] EVENTS = CombatEvent.values();
+    private static final long IDLE_NANOS = 50_000;
+
+    private final int mask;
+    private final byte[] events;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] values;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<SubscriberThread> subscribers = new ArrayList<>();
+    private volatile boolean running;
+    private long next;
+    private long cachedSlowest = -1;
+
+    public CombatEventBus(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity should be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.events = new byte[capacity];
+        this.sources = new int[capacity];
+        this.targets = new int[capacity];
+        this.values = new int[capacity];
+    }
+
+    public void subscribe(String name, Subscriber subscriber) {
+        if (running) {
+            throw new IllegalStateException("Subscribers should be registered before the bus starts");
+        }
+        subscribers.add(new SubscriberThread(name, subscriber));
+    }
+
+    public void start() {
+        running = true;
+        subscribers.forEach(Thread::start);
+    }
+
+    @Override
+    public void onHit(int attacker, int defender, int damage) {
+        publish(CombatEvent.HIT, attacker, defender, damage);
+    }
+
+    @Override
+    public void onCriticalHit(int attacker, int defender, int damage) {
+        publish(CombatEvent.CRITICAL_HIT, attacker, defender, damage);
+    }
+
+    @Override
+    public void onDeath(int hero, int killer) {
+        publish(CombatEvent.DEATH, killer, hero, 0);
+    }
+
+    @Override
+    public void onLevelUp(int hero, int level) {
+        publish(CombatEvent.LEVEL_UP, hero, hero, level);
+    }
+
+    public void publish(CombatEvent event, int source, int target, int value) {
+        long sequence = next++;
+        long wrapPoint = sequence - events.length;
+        while (wrapPoint > cachedSlowest) {
+            cachedSlowest = slowestSubscriber(sequence - 1);
+            if (wrapPoint > cachedSlowest) {
+                Thread.onSpinWait();
+            }
+        }
+        int slot = (int) sequence & mask;
+        events[slot] = (byte) event.ordinal();
+        sources[slot] = source;
+        targets[slot] = target;
+        values[slot] = value;
+        cursor.lazySet(sequence);
+    }
+
+    public long published() {
+        return cursor.get() + 1;
+    }
+
+    /**
+     * Stops the subscribers once they have handled every event published so far. When interrupted, returns without
+     * waiting for them, with the interrupt flag set, and they still stop on their own.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (SubscriberThread subscriber : subscribers) {
+            LockSupport.unpark(subscriber);
+        }
+        try {
+            for (SubscriberThread subscriber : subscribers) {
+                subscriber.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long slowestSubscriber(long published) {
+        long slowest = published;
+        for (SubscriberThread subscriber : subscribers) {
+            slowest = Math.min(slowest, subscriber.sequence.get());
+        }
+        return slowest;
+    }
+
+    @FunctionalInterface
+    public interface Subscriber {
+        void onEvent(CombatEvent event, int source, int target, int value);
+    }
+
+    private final class SubscriberThread extends Thread {
+        private final Subscriber subscriber;
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        private SubscriberThread(String name, Subscriber subscriber) {
+            super(name);
+            this.subscriber = subscriber;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                follow();
+            } finally {
+                // a subscriber that died should not block the publisher forever
+                sequence.set(Long.MAX_VALUE);
+            }
+        }
+
+        private void follow() {
+            long handled = -1;
+            while (true) {
+                boolean stopping = !running;
+                long available = cursor.get();
+                if (available > handled) {
+                    for (long s = handled + 1; s <= available; s++) {
+                        int slot = (int) s & mask;
+                        subscriber.onEvent(EVENTS[events[slot]], sources[slot], targets[slot], values[slot]);
+                    }
+                    handled = available;
+                    sequence.lazySet(handled);
+                } else if (stopping) {
+                    return;
+                } else {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package net.daviddasilva;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static net.daviddasilva.Hero.XP_FOR_ATTACK;
+
+/**
+ * Append-only journal of resolved attacks between rows of a {@link HeroTable}. Each attack is a fixed size record :
+ * <pre>
+ * attacker:4 defender:4 roll:1 outcome:1 damage:4 xpGained:4 attackerLevel:4 checksum:4
+ * </pre>
+ * The checksum is the CRC32C of the rest of the record. Records gather in a buffer and reach the file when it is full
+ * or on {@link #commit()}, which also forces them to disk, so many batches can share one write and one sync. A crash
+ * can tear any record of the last write, not only the last one, and leave intact records after a torn one : opening
+ * the journal checks the records from the first, truncates it at the first failing its checksum and appends over it,
+ * {@link CombatReplay} stops at the same record.
+ * <p>
+ * Only batches are journaled. Attacks resolved one at a time, by {@link HeroTable#attemptAttack(int, int, int)} or a
+ * {@link HeroTable.HeroView}, are not : a table fighting that way has to be snapshot after them to be restored.
+ */
+public final class CombatJournal implements Closeable {
+
+    static final int MAGIC = 0x45564a32; // "EVJ2"
+    static final int HEADER_SIZE = Integer.BYTES;
+    static final int EVENT_SIZE = 26;
+    private static final int CHECKSUM_OFFSET = EVENT_SIZE - Integer.BYTES;
+    private static final int BUFFER_SIZE = EVENT_SIZE * 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer checked = buffer.duplicate();
+    private final CRC32C checksum = new CRC32C();
+    private long position;
+    private long events;
+
+    private CombatJournal(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size == 0) {
+            channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(0, MAGIC), 0);
+            size = HEADER_SIZE;
+        } else {
+            checkHeader(channel);
+        }
+        // records from the first torn by a crash are dropped, the next ones are written over them
+        this.events = intactEvents(size);
+        this.position = HEADER_SIZE + events * EVENT_SIZE;
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+    }
+
+    /*
+     * Counts the records before the first failing its checksum, reading them through the still empty write buffer.
+     */
+    private long intactEvents(long size) throws IOException {
+        long events = 0;
+        long position = HEADER_SIZE;
+        while (size - position >= EVENT_SIZE) {
+            buffer.clear().limit((int) Math.min(BUFFER_SIZE, (size - position) / EVENT_SIZE * EVENT_SIZE));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Truncated combat journal at " + position);
+                }
+            }
+            buffer.flip();
+            for (int offset = 0; offset < buffer.limit(); offset += EVENT_SIZE) {
+                if (!isIntact(buffer, offset, checksum)) {
+                    buffer.clear();
+                    return events;
+                }
+                events++;
+            }
+            position += buffer.limit();
+        }
+        buffer.clear();
+        return events;
+    }
+
+    public static CombatJournal open(Path file) throws IOException {
+        var channel = FileChannel.open(file, CREATE, READ, WRITE);
+        try {
+            return new CombatJournal(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public void append(CombatBatch batch, int[] attackers, int[] defenders, int[] rolls) throws IOException {
+        for (int i = 0; i < batch.size(); i++) {
+            if (buffer.remaining() < EVENT_SIZE) {
+                write();
+            }
+            boolean hit = batch.isHit(i);
+            int start = buffer.position();
+            buffer.putInt(attackers[i])
+                  .putInt(defenders[i])
+                  .put((byte) rolls[i])
+                  .put(batch.outcome(i))
+                  .putInt(batch.damage(i))
+                  .putInt(hit ? XP_FOR_ATTACK : 0)
+                  .putInt(batch.attackerLevel(i));
+            checksum.reset();
+            checksum.update(checked.limit(start + CHECKSUM_OFFSET).position(start));
+            buffer.putInt((int) checksum.getValue());
+            events++;
+        }
+    }
+
+    public long events() {
+        return events;
+    }
+
+    public void commit() throws IOException {
+        write();
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            commit();
+        }
+    }
+
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Whether the record at the offset of the buffer matches its checksum, the buffer being left as it was.
+     */
+    static boolean isIntact(ByteBuffer buffer, int offset, CRC32C checksum) {
+        checksum.reset();
+        checksum.update(buffer.duplicate().limit(offset + CHECKSUM_OFFSET).position(offset));
+        return buffer.getInt(offset + CHECKSUM_OFFSET) == (int) checksum.getValue();
+    }
+
+    /**
+     * Reads the record at the position of the file into the buffer, which is returned.
+     */
+    static ByteBuffer read(FileChannel channel, ByteBuffer record, long position) throws IOException {
+        record.clear();
+        while (record.hasRemaining()) {
+            if (channel.read(record, position + record.position()) < 0) {
+                throw new IOException("Truncated combat journal at " + position);
+            }
+        }
+        return record.flip();
+    }
+
+    static void checkHeader(FileChannel channel) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Not a combat journal");
+            }
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a combat journal");
+        }
+    }
+}
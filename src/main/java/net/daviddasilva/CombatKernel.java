@@ -0,0 +1,39 @@
+package net.daviddasilva;
+
+/**
+ * Resolves the hit, critical hit and damage of every lane of {@link CombatLanes}, each on its own. A lane hits when
+ * its roll reaches the critical threshold or when the roll plus the attack modifier meets the armor class. The damage
+ * of a hit, multiplied on a critical hit, is at least 1, and a miss deals none.
+ */
+public interface CombatKernel {
+
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    void resolve(CombatLanes lanes);
+
+    static CombatKernel scalar() {
+        return ScalarCombatKernel.INSTANCE;
+    }
+
+    /**
+     * A kernel working on whole vectors of lanes at once, it needs the JVM to run with
+     * {@code --add-modules jdk.incubator.vector}. Its results are exactly the ones of the scalar kernel.
+     */
+    static CombatKernel vector() {
+        if (!isVectorAvailable()) {
+            throw new IllegalStateException("The vector kernel needs --add-modules " + VECTOR_MODULE);
+        }
+        return VectorCombatKernel.INSTANCE;
+    }
+
+    /**
+     * The vector kernel when the JVM can run it, the scalar one otherwise.
+     */
+    static CombatKernel best() {
+        return isVectorAvailable() ? vector() : scalar();
+    }
+
+    static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+}
@@ -0,0 +1,92 @@
+package net.daviddasilva;
+
+/**
+ * Independent attacks laid out as one primitive array per input, ready for a {@link CombatKernel}. Every lane holds
+ * the roll and the attack figures already resolved for its attacker and defender : the attack modifier, the armor
+ * class to beat, the damage before the minimum of 1 is applied, the critical multiplier and the lowest roll that is
+ * a critical hit. The kernel writes the outcome flags of {@link CombatBatch} and the damage dealt of every lane.
+ */
+public final class CombatLanes {
+
+    final int[] rolls;
+    final int[] attackModifiers;
+    final int[] armorClasses;
+    final int[] damages;
+    final int[] criticalMultipliers;
+    final int[] criticalThresholds;
+    final int[] outcomes;
+    final int[] damagesDealt;
+    int size;
+
+    public CombatLanes(int capacity) {
+        rolls = new int[capacity];
+        attackModifiers = new int[capacity];
+        armorClasses = new int[capacity];
+        damages = new int[capacity];
+        criticalMultipliers = new int[capacity];
+        criticalThresholds = new int[capacity];
+        outcomes = new int[capacity];
+        damagesDealt = new int[capacity];
+    }
+
+    public int add(int roll, int attackModifier, int armorClass, int damage, int criticalMultiplier, int criticalThreshold) {
+        if (size == rolls.length) {
+            throw new IllegalStateException("Combat lanes are full");
+        }
+        int lane = size++;
+        rolls[lane] = roll;
+        attackModifiers[lane] = attackModifier;
+        armorClasses[lane] = armorClass;
+        damages[lane] = damage;
+        criticalMultipliers[lane] = criticalMultiplier;
+        criticalThresholds[lane] = criticalThreshold;
+        return lane;
+    }
+
+    /**
+     * Fills the lanes with attacks between rows of a table as they stand, nothing is applied to the table.
+     */
+    public void load(HeroTable table, int[] attackers, int[] defenders, int[] rolls, int count) {
+        if (count > this.rolls.length) {
+            throw new IllegalArgumentException("Cannot load " + count + " attacks in " + this.rolls.length + " lanes");
+        }
+        table.loadLanes(attackers, defenders, rolls, count, this);
+        size = count;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return rolls.length;
+    }
+
+    public int outcome(int lane) {
+        checkLane(lane);
+        return outcomes[lane];
+    }
+
+    public boolean isHit(int lane) {
+        return (outcome(lane) & CombatBatch.HIT) != 0;
+    }
+
+    public boolean isCriticalHit(int lane) {
+        return (outcome(lane) & CombatBatch.CRITICAL_HIT) != 0;
+    }
+
+    public int damageDealt(int lane) {
+        checkLane(lane);
+        return damagesDealt[lane];
+    }
+
+    private void checkLane(int lane) {
+        if (lane < 0 || lane >= size) {
+            throw new IndexOutOfBoundsException("No attack in lane " + lane);
+        }
+    }
+}
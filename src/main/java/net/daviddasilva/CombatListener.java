@@ -0,0 +1,60 @@
+package net.daviddasilva;
+
+/**
+ * Called back on the combat thread as attacks are resolved, by a {@link HeroTable} with heroes given by row, or by
+ * heroes with the ids they were given along with the listener, see {@link Hero#setListener(CombatListener, int)}. An
+ * attacker living on another shard, see {@link ShardedWorld}, is given as {@link #REMOTE_HERO}, damage taken
+ * outside of an attack as from {@link #NO_HERO}.
+ */
+public interface CombatListener {
+
+    int REMOTE_HERO = -1;
+    int NO_HERO = -2;
+
+    CombatListener NONE = new CombatListener() {
+    };
+
+    default void onHit(int attacker, int defender, int damage) {
+    }
+
+    default void onCriticalHit(int attacker, int defender, int damage) {
+    }
+
+    default void onDeath(int hero, int killer) {
+    }
+
+    default void onLevelUp(int hero, int level) {
+    }
+
+    /**
+     * A listener calling this one then the next one.
+     */
+    default CombatListener andThen(CombatListener next) {
+        CombatListener first = this;
+        return new CombatListener() {
+            @Override
+            public void onHit(int attacker, int defender, int damage) {
+                first.onHit(attacker, defender, damage);
+                next.onHit(attacker, defender, damage);
+            }
+
+            @Override
+            public void onCriticalHit(int attacker, int defender, int damage) {
+                first.onCriticalHit(attacker, defender, damage);
+                next.onCriticalHit(attacker, defender, damage);
+            }
+
+            @Override
+            public void onDeath(int hero, int killer) {
+                first.onDeath(hero, killer);
+                next.onDeath(hero, killer);
+            }
+
+            @Override
+            public void onLevelUp(int hero, int level) {
+                first.onLevelUp(hero, level);
+                next.onLevelUp(hero, level);
+            }
+        };
+    }
+}
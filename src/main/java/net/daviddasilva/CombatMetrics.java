@@ -0,0 +1,244 @@
+package net.daviddasilva;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Process wide counters of combat and progression, off by default. When off, recording costs one read of a
+ * volatile flag. When on, every thread counts in its own block of counters, written without any atomic instruction,
+ * and {@link #snapshot()} sums the blocks of all threads. A single attack looks its block up once and batches publish
+ * their totals once rather than per attack, their duration going to a {@link LatencyHistogram}.
+ * <p>
+ * Only batches keep the cost of counting within a few percent. An attack resolved on its own, by a {@link Hero} or by
+ * {@link HeroTable#attemptAttack(int, int, int)}, still writes its counts as it resolves, some 6 to 8 ns on top of an
+ * attack of 10 to 30 ns : keeping them on while fighting that way costs a third or more.
+ * <p>
+ * The blocks of threads that ended are folded into retired totals, when a snapshot is taken and as new threads
+ * register, so that pools replacing their threads do not pile blocks up.
+ */
+public final class CombatMetrics {
+
+    private static final int ATTACKS = 0;
+    private static final int HITS = 1;
+    private static final int CRITICAL_HITS = 2;
+    private static final int DAMAGE = 3;
+    private static final int DEATHS = 4;
+    private static final int LEVEL_UPS = 5;
+    private static final int COUNTERS = 6;
+
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled;
+    private static volatile long[] baseline = new long[COUNTERS];
+
+    private static final int MIN_PRUNE_SIZE = 16;
+
+    // both guarded by ALL_COUNTERS
+    private static final List<Counters> ALL_COUNTERS = new ArrayList<>();
+    private static final long[] RETIRED = new long[COUNTERS];
+    private static int pruneSize = MIN_PRUNE_SIZE;
+    private static final ThreadLocal<Counters> THREAD_COUNTERS = ThreadLocal.withInitial(CombatMetrics::register);
+    private static final LatencyHistogram BATCH_LATENCY = new LatencyHistogram();
+
+    private CombatMetrics() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void reset() {
+        baseline = sums();
+        BATCH_LATENCY.reset();
+    }
+
+    public static Snapshot snapshot() {
+        long[] sums = sums();
+        long[] since = baseline;
+        return new Snapshot(System.nanoTime(),
+                sums[ATTACKS] - since[ATTACKS],
+                sums[HITS] - since[HITS],
+                sums[CRITICAL_HITS] - since[CRITICAL_HITS],
+                sums[DAMAGE] - since[DAMAGE],
+                sums[DEATHS] - since[DEATHS],
+                sums[LEVEL_UPS] - since[LEVEL_UPS],
+                BATCH_LATENCY.count(),
+                BATCH_LATENCY.percentile(50), BATCH_LATENCY.percentile(99), BATCH_LATENCY.percentile(100));
+    }
+
+    /**
+     * One attack, with the damage it dealt to a defender who had the given hit points before, when it hit.
+     */
+    static void recordAttack(boolean hit, boolean criticalHit, int damage, int hitPointsBefore) {
+        if (enabled) {
+            var counters = THREAD_COUNTERS.get();
+            counters.add(ATTACKS, 1);
+            if (hit) {
+                counters.add(HITS, 1);
+                counters.add(CRITICAL_HITS, criticalHit ? 1 : 0);
+                counters.add(DAMAGE, damage);
+                if (hitPointsBefore > 0 && hitPointsBefore - damage <= 0) {
+                    counters.add(DEATHS, 1);
+                }
+            }
+        }
+    }
+
+    static void recordAttacks(int attacks, int hits, int criticalHits, long damage, int deaths, int levelUps) {
+        if (enabled) {
+            var counters = THREAD_COUNTERS.get();
+            counters.add(ATTACKS, attacks);
+            counters.add(HITS, hits);
+            counters.add(CRITICAL_HITS, criticalHits);
+            counters.add(DAMAGE, damage);
+            counters.add(DEATHS, deaths);
+            counters.add(LEVEL_UPS, levelUps);
+        }
+    }
+
+    static void recordDamage(int damage, int hitPointsBefore) {
+        if (enabled) {
+            var counters = THREAD_COUNTERS.get();
+            counters.add(DAMAGE, damage);
+            if (hitPointsBefore > 0 && hitPointsBefore - damage <= 0) {
+                counters.add(DEATHS, 1);
+            }
+        }
+    }
+
+    static void recordLevelUps(int levels) {
+        if (enabled && levels != 0) {
+            THREAD_COUNTERS.get().add(LEVEL_UPS, levels);
+        }
+    }
+
+    static long startBatch() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    static void recordBatch(long start) {
+        if (enabled && start != NOT_TIMED) {
+            BATCH_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    static int registeredThreads() {
+        synchronized (ALL_COUNTERS) {
+            return ALL_COUNTERS.size();
+        }
+    }
+
+    private static long[] sums() {
+        synchronized (ALL_COUNTERS) {
+            retireEndedThreads();
+            long[] sums = RETIRED.clone();
+            for (Counters counters : ALL_COUNTERS) {
+                for (int i = 0; i < COUNTERS; i++) {
+                    sums[i] += counters.get(i);
+                }
+            }
+            return sums;
+        }
+    }
+
+    /*
+     * Pruning once the list has doubled keeps registration amortized constant whatever the number of live threads.
+     */
+    private static Counters register() {
+        var counters = new Counters(Thread.currentThread());
+        synchronized (ALL_COUNTERS) {
+            if (ALL_COUNTERS.size() >= pruneSize) {
+                retireEndedThreads();
+                pruneSize = Math.max(MIN_PRUNE_SIZE, 2 * ALL_COUNTERS.size());
+            }
+            ALL_COUNTERS.add(counters);
+        }
+        return counters;
+    }
+
+    private static void retireEndedThreads() {
+        for (Iterator<Counters> iterator = ALL_COUNTERS.iterator(); iterator.hasNext(); ) {
+            var counters = iterator.next();
+            if (counters.hasEnded()) {
+                for (int i = 0; i < COUNTERS; i++) {
+                    RETIRED[i] += counters.get(i);
+                }
+                iterator.remove();
+            }
+        }
+    }
+
+    /*
+     * Only ever written by its own thread, opaque accesses are enough for other threads to eventually see the counts.
+     * Once its thread has ended, and seeing it ended happens after its last writes, the counts are final.
+     */
+    private static final class Counters {
+        private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final long[] counts = new long[COUNTERS];
+        private final WeakReference<Thread> owner;
+
+        Counters(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        boolean hasEnded() {
+            var thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        void add(int counter, long amount) {
+            COUNTS.setOpaque(counts, counter, (long) COUNTS.getOpaque(counts, counter) + amount);
+        }
+
+        long get(int counter) {
+            return (long) COUNTS.getOpaque(counts, counter);
+        }
+    }
+
+    public record Snapshot(long nanoTime, long attacks, long hits, long criticalHits, long damage, long deaths,
+                           long levelUps, long batches, long batchLatencyP50Nanos, long batchLatencyP99Nanos,
+                           long batchLatencyMaxNanos) {
+
+        public double hitRatio() {
+            return attacks == 0 ? 0 : (double) hits / attacks;
+        }
+
+        public double criticalHitRatio() {
+            return attacks == 0 ? 0 : (double) criticalHits / attacks;
+        }
+
+        public double averageDamage() {
+            return hits == 0 ? 0 : (double) damage / hits;
+        }
+
+        public double attacksPerSecond(Snapshot previous) {
+            return perSecond(attacks - previous.attacks, previous);
+        }
+
+        public double deathsPerSecond(Snapshot previous) {
+            return perSecond(deaths - previous.deaths, previous);
+        }
+
+        public double levelUpsPerSecond(Snapshot previous) {
+            return perSecond(levelUps - previous.levelUps, previous);
+        }
+
+        private double perSecond(long count, Snapshot previous) {
+            long elapsed = nanoTime - previous.nanoTime;
+            return elapsed <= 0 ? 0 : count * 1e9 / elapsed;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.daviddasilva.Hero.NAT_20;
+
+/**
+ * Exact odds of one hero attacking another, computed from the combat rules over the twenty faces of the die rather
+ * than by rolling. The expected number of attacks to kill assumes the attacker does not level up during the fight.
+ * The chances are memoized by the stats that matter : attack modifier and damage against armor class. Hit points
+ * change all along a fight, they are left out of the key so that the cache stays as small as the set of matchups.
+ * <p>
+ * Each matchup memoizes the expected attacks to kill by hit points instead, in a table grown on demand up to
+ * {@link #EXACT_HIT_POINTS}, so that asking again costs an array read. Beyond, every period of hit points that is a
+ * multiple of both damages adds the same number of attacks once the rolls have evened out, and the expectation is
+ * extrapolated from the end of the table in constant time. Only damages too large for a period to fit the table are
+ * worked out hit point by hit point, no rules of the game come close.
+ */
+public record CombatOdds(double hitChance, double criticalHitChance, double expectedDamagePerRound, double expectedAttacksToKill) {
+
+    static final int EXACT_HIT_POINTS = 1 << 16;
+    private static final Map<Matchup, Chances> CACHE = new ConcurrentHashMap<>();
+
+    public static CombatOdds between(Hero attacker, Hero defender) {
+        return CACHE.computeIfAbsent(new Matchup(attacker.attackModifierAgainst(defender), attacker.hitDamageTo(defender),
+                attacker.criticalHitDamageTo(defender), attacker.getCriticalThreshold(), defender.armorClassAgainst(attacker)),
+                Chances::of).against(defender.getHitPoints());
+    }
+
+    public static CombatOdds of(int attackModifier, int damageModifier, int armorClass, int hitPoints) {
+        return CACHE.computeIfAbsent(new Matchup(attackModifier, CombatRules.hitDamage(damageModifier),
+                CombatRules.criticalHitDamage(damageModifier * 2), NAT_20, armorClass), Chances::of).against(hitPoints);
+    }
+
+    static int cachedMatchups() {
+        return CACHE.size();
+    }
+
+    private record Matchup(int attackModifier, int hitDamage, int criticalHitDamage, int criticalThreshold, int armorClass) {
+    }
+
+    private static final class Chances {
+
+        private final double normalHitChance;
+        private final double criticalHitChance;
+        private final int hitDamage;
+        private final int criticalHitDamage;
+        private final double expectedDamage;
+        // hit points after which the expectation grows by the same amount, 0 when too long to extrapolate from
+        private final int period;
+        // expected attacks to kill, indexed by hit points, and only ever replaced by a longer copy
+        private volatile double[] expectedAttacks = new double[1];
+
+        private Chances(double normalHitChance, double criticalHitChance, int hitDamage, int criticalHitDamage) {
+            this.normalHitChance = normalHitChance;
+            this.criticalHitChance = criticalHitChance;
+            this.hitDamage = hitDamage;
+            this.criticalHitDamage = criticalHitDamage;
+            this.expectedDamage = normalHitChance * hitDamage + criticalHitChance * criticalHitDamage;
+            long period = (long) hitDamage / gcd(hitDamage, criticalHitDamage) * criticalHitDamage;
+            this.period = period <= EXACT_HIT_POINTS / 2 ? (int) period : 0;
+        }
+
+        static Chances of(Matchup matchup) {
+            int hits = 0;
+            int criticalHits = 0;
+            for (int roll = 1; roll <= NAT_20; roll++) {
+                if (CombatRules.isCriticalHit(roll, matchup.criticalThreshold())) {
+                    criticalHits++;
+                } else if (CombatRules.isHit(roll, matchup.attackModifier(), matchup.armorClass())) {
+                    hits++;
+                }
+            }
+            return new Chances((double) hits / NAT_20, (double) criticalHits / NAT_20, matchup.hitDamage(), matchup.criticalHitDamage());
+        }
+
+        CombatOdds against(int hitPoints) {
+            return new CombatOdds(normalHitChance + criticalHitChance, criticalHitChance, expectedDamage, expectedAttacksToKill(hitPoints));
+        }
+
+        private double expectedAttacksToKill(int hitPoints) {
+            if (hitPoints <= 0) {
+                return 0;
+            }
+            double[] expected = expectedAttacks;
+            if (hitPoints < expected.length) {
+                return expected[hitPoints];
+            }
+            if (hitPoints <= EXACT_HIT_POINTS) {
+                return grow(hitPoints)[hitPoints];
+            }
+            if (period == 0) {
+                return CombatOdds.expectedAttacksToKill(hitPoints, normalHitChance, hitDamage, criticalHitChance, criticalHitDamage);
+            }
+            expected = grow(EXACT_HIT_POINTS);
+            // whole periods back into the last period of the table
+            long periods = ((long) hitPoints - EXACT_HIT_POINTS + period - 1) / period;
+            return expected[(int) (hitPoints - periods * period)] + periods * period / expectedDamage;
+        }
+
+        /*
+         * E(hp) = 1 + miss * E(hp) + hit * E(hp - hitDamage) + critical * E(hp - criticalDamage), with E(hp <= 0) = 0.
+         * Damage is at least 1, so E(hp) only depends on smaller values, already in the table.
+         */
+        private synchronized double[] grow(int hitPoints) {
+            double[] expected = expectedAttacks;
+            if (hitPoints < expected.length) {
+                return expected;
+            }
+            int from = expected.length;
+            expected = Arrays.copyOf(expected, Math.min(Math.max(hitPoints + 1, 2 * from), EXACT_HIT_POINTS + 1));
+            double landingChance = normalHitChance + criticalHitChance;
+            for (int hp = from; hp < expected.length; hp++) {
+                double afterHit = hp <= hitDamage ? 0 : expected[hp - hitDamage];
+                double afterCriticalHit = hp <= criticalHitDamage ? 0 : expected[hp - criticalHitDamage];
+                expected[hp] = (1 + normalHitChance * afterHit + criticalHitChance * afterCriticalHit) / landingChance;
+            }
+            expectedAttacks = expected;
+            return expected;
+        }
+
+        private static int gcd(int a, int b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+    }
+
+    /*
+     * The same recurrence over a ring of the last few values, for damages too large to extrapolate from the table.
+     */
+    private static double expectedAttacksToKill(int hitPoints, double hitChance, int hitDamage, double criticalHitChance, int criticalHitDamage) {
+        int window = Math.max(hitDamage, criticalHitDamage) + 1;
+        double[] expected = new double[window];
+        double landingChance = hitChance + criticalHitChance;
+        for (int hp = 1; hp <= hitPoints; hp++) {
+            double afterHit = hp <= hitDamage ? 0 : expected[(hp - hitDamage) % window];
+            double afterCriticalHit = hp <= criticalHitDamage ? 0 : expected[(hp - criticalHitDamage) % window];
+            expected[hp % window] = (1 + hitChance * afterHit + criticalHitChance * afterCriticalHit) / landingChance;
+        }
+        return expected[hitPoints % window];
+    }
+}
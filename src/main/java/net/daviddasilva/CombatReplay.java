@@ -0,0 +1,133 @@
+package net.daviddasilva;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Rebuilds a {@link HeroTable} from a snapshot and the {@link CombatJournal} events written after it. Events are
+ * applied as recorded, damage to the defender and experience to the attacker, without resolving the attacks again,
+ * and are not counted again in the {@link CombatMetrics}, which saw them when they were fought. Replay stops at the first event failing its checksum, where opening the journal truncates it after a crash : intact
+ * events after a torn one belong to the same lost write.
+ * <p>
+ * A snapshot is written to a sibling file then moved over the previous one, so a crash leaves one or the other whole.
+ */
+public final class CombatReplay {
+
+    private static final int SNAPSHOT_MAGIC = 0x45565350; // "EVSP"
+    private static final int SNAPSHOT_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int REPLAY_BUFFER_SIZE = CombatJournal.EVENT_SIZE * (1 << 15);
+
+    private CombatReplay() {
+    }
+
+    public static void snapshot(HeroTable table, long journalEvents, Path file) throws IOException {
+        Path written = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            write(table, journalEvents, written);
+            Files.move(written, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(written);
+            throw e;
+        }
+    }
+
+    private static void write(HeroTable table, long journalEvents, Path file) throws IOException {
+        try (var channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            var header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE).putInt(SNAPSHOT_MAGIC).putLong(journalEvents).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            var writer = new HeroStreamWriter(channel);
+            for (int row = 0; row < table.size(); row++) {
+                writer.write(table.toHero(row));
+            }
+            writer.flush();
+            channel.force(true);
+        }
+    }
+
+    public static HeroTable restore(Path snapshot, Path journal) throws IOException {
+        var table = new HeroTable();
+        long journalEvents;
+        try (var channel = FileChannel.open(snapshot, READ)) {
+            var header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("Not a snapshot");
+                }
+            }
+            if (header.getInt(0) != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a snapshot");
+            }
+            journalEvents = header.getLong(Integer.BYTES);
+            var reader = new HeroStreamReader(channel);
+            while (reader.hasNext()) {
+                table.add(reader.next());
+            }
+        }
+        replay(journal, table, journalEvents);
+        return table;
+    }
+
+    public static long replay(Path journal, HeroTable table, long fromEvent) throws IOException {
+        try (var channel = FileChannel.open(journal, READ)) {
+            CombatJournal.checkHeader(channel);
+            var buffer = ByteBuffer.allocateDirect(REPLAY_BUFFER_SIZE);
+            var checksum = new CRC32C();
+            long position = CombatJournal.HEADER_SIZE + fromEvent * CombatJournal.EVENT_SIZE;
+            long event = fromEvent;
+            boolean torn = false;
+            while (!torn) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.remaining() >= CombatJournal.EVENT_SIZE) {
+                    if (!CombatJournal.isIntact(buffer, buffer.position(), checksum)) {
+                        torn = true;
+                        break;
+                    }
+                    apply(table, buffer, event);
+                    event++;
+                }
+                // a torn event, and every event after it, is never applied
+                position += read - buffer.remaining();
+                if (buffer.remaining() == read) {
+                    break;
+                }
+            }
+            return event - fromEvent;
+        }
+    }
+
+    private static void apply(HeroTable table, ByteBuffer buffer, long event) {
+        int attacker = buffer.getInt();
+        int defender = buffer.getInt();
+        buffer.get(); // roll, kept for audit
+        byte outcome = buffer.get();
+        int damage = buffer.getInt();
+        int xpGained = buffer.getInt();
+        int attackerLevel = buffer.getInt();
+        buffer.getInt(); // checksum, checked before
+        if ((outcome & CombatBatch.HIT) != 0) {
+            table.applyDamage(attacker, defender, damage);
+            table.applyXP(attacker, xpGained);
+        }
+        if (table.getLevel(attacker) != attackerLevel) {
+            throw new IllegalStateException("Combat journal does not match the heroes at event " + event);
+        }
+    }
+}
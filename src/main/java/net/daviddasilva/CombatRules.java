@@ -0,0 +1,46 @@
+package net.daviddasilva;
+
+import static net.daviddasilva.Hero.BASE_DAMAGE;
+import static net.daviddasilva.Hero.LEVEL_THRESHOLD_XP;
+import static net.daviddasilva.Hero.NAT_20;
+
+final class CombatRules {
+
+    private CombatRules() {
+    }
+
+    static boolean isCriticalHit(int roll) {
+        return roll == NAT_20;
+    }
+
+    static boolean isCriticalHit(int roll, int criticalThreshold) {
+        return roll >= criticalThreshold;
+    }
+
+    static boolean isHit(int roll, int attackModifier, int armorClass) {
+        return roll + attackModifier >= armorClass;
+    }
+
+    static int hitDamage(int opponentModifier) {
+        int damageDealt = BASE_DAMAGE + opponentModifier;
+        return damageDealt <= 0 ? BASE_DAMAGE : damageDealt;
+    }
+
+    static int criticalHitDamage(int opponentModifier) {
+        int damageDealt = BASE_DAMAGE * 2 + opponentModifier;
+        return damageDealt <= 0 ? BASE_DAMAGE : damageDealt;
+    }
+
+    /**
+     * XP saturates rather than wrapping around to negative values.
+     */
+    static long addXP(long xp, long amount) {
+        long total = xp + amount;
+        return total < xp ? Long.MAX_VALUE : total;
+    }
+
+    static int levelFor(int level, long xp) {
+        long reachedLevel = xp / LEVEL_THRESHOLD_XP + 1;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(level, reachedLevel));
+    }
+}
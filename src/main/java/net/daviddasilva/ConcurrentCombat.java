@@ -0,0 +1,81 @@
+package net.daviddasilva;
+
+/**
+ * Lets several threads attack with and against the same heroes. Damage is applied with an atomic update of the
+ * defender's hit points, so many attackers can hit one defender without blocking each other. Experience and level
+ * ups of an attacker are guarded by one of a fixed set of striped locks, chosen from the attacker's identity.
+ * <p>
+ * All concurrent mutations of a hero should go through the same instance for the guarantees to hold. Listeners of
+ * the heroes, see {@link Hero#setListener(CombatListener, int)}, are called from every thread attacking, they should
+ * take calls from several threads at once, which a {@link CombatEventBus} does not. A death is told once, by the
+ * thread whose damage killed the hero.
+ */
+public final class ConcurrentCombat {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final Object[] locks;
+    private final int mask;
+
+    public ConcurrentCombat() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public ConcurrentCombat(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("There should be at least one lock stripe");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new Object();
+        }
+        this.mask = size - 1;
+    }
+
+    public boolean attemptAttack(Hero attacker, Hero opponent, int roll) {
+        synchronized (lockFor(attacker)) {
+            boolean criticalHit = attacker.isCriticalHit(roll);
+            if (!criticalHit && !attacker.hits(opponent, roll)) {
+                CombatMetrics.recordAttack(false, false, 0, 0);
+                return false;
+            }
+            int damage = criticalHit ? attacker.criticalHitDamageTo(opponent) : attacker.hitDamageTo(opponent);
+            int hitPointsBefore = opponent.subtractHitPointsAtomically(damage);
+            opponent.tookDamage(attacker.getListenerId(), damage, criticalHit, hitPointsBefore);
+            attacker.gainXP();
+            CombatMetrics.recordAttack(true, criticalHit, damage, hitPointsBefore);
+            return true;
+        }
+    }
+
+    public void takeHit(Hero hero, int opponentModifier) {
+        hero.takeDamageAtomically(CombatRules.hitDamage(opponentModifier), false);
+    }
+
+    public void takeCriticalHit(Hero hero, int opponentModifier) {
+        hero.takeDamageAtomically(CombatRules.criticalHitDamage(opponentModifier), true);
+    }
+
+    public void gainXP(Hero hero) {
+        synchronized (lockFor(hero)) {
+            hero.gainXP();
+        }
+    }
+
+    public int getHitPoints(Hero hero) {
+        return hero.getHitPointsAtomically();
+    }
+
+    public boolean isDead(Hero hero) {
+        return hero.getHitPointsAtomically() <= 0;
+    }
+
+    private Object lockFor(Hero hero) {
+        int hash = System.identityHashCode(hero);
+        return locks[(hash ^ (hash >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,42 @@
+package net.daviddasilva;
+
+/**
+ * Where the rolls of an attack come from.
+ */
+public interface Dice {
+
+    int D20 = 20;
+
+    int rollD20();
+
+    default void rollD20(int[] rolls) {
+        rollD20(rolls, 0, rolls.length);
+    }
+
+    default void rollD20(int[] rolls, int from, int to) {
+        for (int i = from; i < to; i++) {
+            rolls[i] = rollD20();
+        }
+    }
+
+    /**
+     * Random dice safe to share between threads, every thread rolls its own generator.
+     */
+    static Dice random() {
+        return RandomDice.INSTANCE;
+    }
+
+    /**
+     * Dice giving always the same rolls for the same seed, however the rolls are asked for. Not thread safe.
+     */
+    static Dice seeded(long seed) {
+        return new SeededDice(seed);
+    }
+
+    /**
+     * Dice rolling the given values in a loop. Not thread safe.
+     */
+    static Dice scripted(int... rolls) {
+        return new ScriptedDice(rolls);
+    }
+}
@@ -0,0 +1,27 @@
+package net.daviddasilva;
+
+import java.util.List;
+
+/**
+ * A party of heroes facing monsters. Every round each living party member attacks the first living monster, then
+ * each living monster attacks the first living party member, until one side is down.
+ * <p>
+ * An encounter owns its heroes while it runs, they must not be used anywhere else meanwhile.
+ */
+public record Encounter(List<Hero> party, List<Hero> monsters) {
+
+    public Encounter {
+        if (party.isEmpty() || monsters.isEmpty()) {
+            throw new IllegalArgumentException("An encounter needs both a party and monsters");
+        }
+        party = List.copyOf(party);
+        monsters = List.copyOf(monsters);
+    }
+
+    public enum Outcome {
+        PARTY_WON, MONSTERS_WON, DRAW, TIMED_OUT
+    }
+
+    public record Result(Outcome outcome, int rounds, long elapsedNanos) {
+    }
+}
@@ -0,0 +1,91 @@
+package net.daviddasilva;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The items a hero has equipped along with the sum of their bonuses. Sums are updated when an item comes or goes,
+ * so reading them never walks the inventory.
+ */
+final class Equipment {
+
+    private final List<Item> items = new ArrayList<>();
+    private final Item[] uniqueSlots = new Item[Item.Slot.values().length];
+    private final int[] abilityScoreBonuses = new int[Ability.values().length];
+    private int attackBonus;
+    private int damageBonus;
+    private int criticalMultiplierBonus;
+    private int armorClassBonus;
+
+    void add(Item item) {
+        int slot = item.slot().ordinal();
+        if (item.slot().isUnique()) {
+            if (uniqueSlots[slot] != null) {
+                throw new IllegalStateException("Cannot equip " + item.name() + ", " + uniqueSlots[slot].name() + " is already in the " + item.slot() + " slot");
+            }
+            uniqueSlots[slot] = item;
+        }
+        items.add(item);
+        apply(item, 1);
+    }
+
+    boolean remove(Item item) {
+        // equal items cannot be told apart, taking the last one spares shifting the others
+        int index = items.lastIndexOf(item);
+        if (index < 0) {
+            return false;
+        }
+        items.remove(index);
+        if (item.slot().isUnique()) {
+            uniqueSlots[item.slot().ordinal()] = null;
+        }
+        apply(item, -1);
+        return true;
+    }
+
+    void clear() {
+        items.clear();
+        Arrays.fill(uniqueSlots, null);
+        Arrays.fill(abilityScoreBonuses, 0);
+        attackBonus = 0;
+        damageBonus = 0;
+        criticalMultiplierBonus = 0;
+        armorClassBonus = 0;
+    }
+
+    private void apply(Item item, int sign) {
+        attackBonus += sign * item.attackBonus();
+        damageBonus += sign * item.damageBonus();
+        criticalMultiplierBonus += sign * item.criticalMultiplierBonus();
+        armorClassBonus += sign * item.armorClassBonus();
+        item.abilityScoreBonuses().forEach((ability, bonus) -> abilityScoreBonuses[ability.ordinal()] += sign * bonus);
+    }
+
+    List<Item> items() {
+        return Collections.unmodifiableList(items);
+    }
+
+    int abilityScoreBonus(Ability ability) {
+        return abilityScoreBonuses[ability.ordinal()];
+    }
+
+    int attackBonus() {
+        return attackBonus;
+    }
+
+    int damageBonus(int baseDamage) {
+        Item weapon = uniqueSlots[Item.Slot.WEAPON.ordinal()];
+        // the weapon replaces the base damage, which is folded into the damage modifier
+        return weapon == null ? damageBonus : damageBonus + weapon.damage() - baseDamage;
+    }
+
+    int criticalMultiplierBonus() {
+        return criticalMultiplierBonus;
+    }
+
+    int armorClassBonus() {
+        return armorClassBonus;
+    }
+}
@@ -0,0 +1,114 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+
+public record FightReport(long duels, long challengerWins, long opponentWins, long draws, long totalRounds,
+                          long totalChallengerDamage, long totalOpponentDamage,
+                          long[] challengerDamage, long[] opponentDamage) {
+
+    /**
+     * Damage histograms have one bucket per damage value dealt in a duel, the last one gathers everything above. The
+     * averages come from the totals, not from the histograms.
+     */
+    public static final int DAMAGE_BUCKETS = 256;
+
+    public double challengerWinRate() {
+        return duels == 0 ? 0 : (double) challengerWins / duels;
+    }
+
+    public double opponentWinRate() {
+        return duels == 0 ? 0 : (double) opponentWins / duels;
+    }
+
+    public double averageRounds() {
+        return duels == 0 ? 0 : (double) totalRounds / duels;
+    }
+
+    public double averageChallengerDamage() {
+        return duels == 0 ? 0 : (double) totalChallengerDamage / duels;
+    }
+
+    public double averageOpponentDamage() {
+        return duels == 0 ? 0 : (double) totalOpponentDamage / duels;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FightReport report
+                && duels == report.duels
+                && challengerWins == report.challengerWins
+                && opponentWins == report.opponentWins
+                && draws == report.draws
+                && totalRounds == report.totalRounds
+                && totalChallengerDamage == report.totalChallengerDamage
+                && totalOpponentDamage == report.totalOpponentDamage
+                && Arrays.equals(challengerDamage, report.challengerDamage)
+                && Arrays.equals(opponentDamage, report.opponentDamage);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(duels);
+        result = 31 * result + Long.hashCode(challengerWins);
+        result = 31 * result + Long.hashCode(opponentWins);
+        result = 31 * result + Long.hashCode(draws);
+        result = 31 * result + Long.hashCode(totalRounds);
+        result = 31 * result + Long.hashCode(totalChallengerDamage);
+        result = 31 * result + Long.hashCode(totalOpponentDamage);
+        result = 31 * result + Arrays.hashCode(challengerDamage);
+        return 31 * result + Arrays.hashCode(opponentDamage);
+    }
+
+    @Override
+    public String toString() {
+        return "FightReport[duels=%d, challengerWins=%d, opponentWins=%d, draws=%d, averageRounds=%.2f]"
+                .formatted(duels, challengerWins, opponentWins, draws, averageRounds());
+    }
+
+    static final class Tally {
+        private long duels;
+        private long challengerWins;
+        private long opponentWins;
+        private long draws;
+        private long totalRounds;
+        private long totalChallengerDamage;
+        private long totalOpponentDamage;
+        private final long[] challengerDamage = new long[DAMAGE_BUCKETS];
+        private final long[] opponentDamage = new long[DAMAGE_BUCKETS];
+
+        void record(boolean challengerWon, boolean opponentWon, int rounds, int damageByChallenger, int damageByOpponent) {
+            duels++;
+            if (challengerWon) {
+                challengerWins++;
+            } else if (opponentWon) {
+                opponentWins++;
+            } else {
+                draws++;
+            }
+            totalRounds += rounds;
+            totalChallengerDamage += damageByChallenger;
+            totalOpponentDamage += damageByOpponent;
+            challengerDamage[Math.min(damageByChallenger, DAMAGE_BUCKETS - 1)]++;
+            opponentDamage[Math.min(damageByOpponent, DAMAGE_BUCKETS - 1)]++;
+        }
+
+        void merge(Tally other) {
+            duels += other.duels;
+            challengerWins += other.challengerWins;
+            opponentWins += other.opponentWins;
+            draws += other.draws;
+            totalRounds += other.totalRounds;
+            totalChallengerDamage += other.totalChallengerDamage;
+            totalOpponentDamage += other.totalOpponentDamage;
+            for (int i = 0; i < DAMAGE_BUCKETS; i++) {
+                challengerDamage[i] += other.challengerDamage[i];
+                opponentDamage[i] += other.opponentDamage[i];
+            }
+        }
+
+        FightReport toReport() {
+            return new FightReport(duels, challengerWins, opponentWins, draws, totalRounds,
+                    totalChallengerDamage, totalOpponentDamage, challengerDamage.clone(), opponentDamage.clone());
+        }
+    }
+}
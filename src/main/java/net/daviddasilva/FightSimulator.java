@@ -0,0 +1,101 @@
+package net.daviddasilva;
+
+import java.io.Serial;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Runs many independent duels in parallel. Each duel builds two fresh heroes, the challenger strikes first and they
+ * take turns until one of them dies. Duels are split into fixed size chunks, each with its own random generator
+ * split from the seed, so a given seed always gives the same report whatever the number of threads.
+ */
+public final class FightSimulator {
+
+    static final int MAX_ROUNDS = 10_000;
+    static final int DUELS_PER_TASK = 1024;
+    private static final int D20 = 20;
+
+    private final ForkJoinPool pool;
+
+    public FightSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public FightSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public FightReport simulate(Supplier<Hero> challenger, Supplier<Hero> opponent, int duels, long seed) {
+        if (duels < 0) {
+            throw new IllegalArgumentException("Number of duels should not be negative");
+        }
+        var tally = pool.invoke(new DuelTask(challenger, opponent, 0, duels, new SplittableRandom(seed)));
+        return tally.toReport();
+    }
+
+    private static final class DuelTask extends RecursiveTask<FightReport.Tally> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Supplier<Hero> challenger;
+        private final Supplier<Hero> opponent;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private DuelTask(Supplier<Hero> challenger, Supplier<Hero> opponent, int from, int to, SplittableRandom random) {
+            this.challenger = challenger;
+            this.opponent = opponent;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected FightReport.Tally compute() {
+            if (to - from <= DUELS_PER_TASK) {
+                var tally = new FightReport.Tally();
+                for (int i = from; i < to; i++) {
+                    duel(tally);
+                }
+                return tally;
+            }
+            int middle = (from + to) >>> 1;
+            var left = new DuelTask(challenger, opponent, from, middle, random.split());
+            var right = new DuelTask(challenger, opponent, middle, to, random);
+            left.fork();
+            var tally = right.compute();
+            tally.merge(left.join());
+            return tally;
+        }
+
+        private void duel(FightReport.Tally tally) {
+            Hero first = challenger.get();
+            Hero second = opponent.get();
+            int firstHitPoints = first.getHitPoints();
+            int secondHitPoints = second.getHitPoints();
+            int rounds = 0;
+            while (rounds < MAX_ROUNDS) {
+                rounds++;
+                first.attemptAttack(second, roll());
+                if (second.isDead()) {
+                    break;
+                }
+                second.attemptAttack(first, roll());
+                if (first.isDead()) {
+                    break;
+                }
+            }
+            // damage is counted as net hit points lost, a level up during a long duel gives some back
+            tally.record(second.isDead(), first.isDead(), rounds,
+                    Math.max(0, secondHitPoints - second.getHitPoints()),
+                    Math.max(0, firstHitPoints - first.getHitPoints()));
+        }
+
+        private int roll() {
+            return random.nextInt(D20) + 1;
+        }
+    }
+}
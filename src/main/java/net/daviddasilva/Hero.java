@@ -1,8 +1,12 @@
 package net.daviddasilva;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 @Getter
@@ -11,73 +15,318 @@ public final class Hero {
     public static final int BASE_DAMAGE = 1;
     public static final int XP_FOR_ATTACK = 10;
     public static final int LEVEL_THRESHOLD_XP = 1000;
+    private static final Ability[] ABILITIES = Ability.values();
+    private static final VarHandle HIT_POINTS;
 
-    private final String name;
-    private final Alignment alignment;
-    private final int armorClass;
+    static {
+        try {
+            HIT_POINTS = MethodHandles.lookup().findVarHandle(Hero.class, "hitPoints", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // not final so that a pooled hero can be reset into another one, see HeroPool
+    private String name;
+    private Alignment alignment;
+    private CharacterClass characterClass;
+    private Race race;
+    @Getter(AccessLevel.NONE)
+    private int classId;
+    @Getter(AccessLevel.NONE)
+    private int raceId;
+    @Getter(AccessLevel.NONE)
+    private int criticalThreshold;
+    @Getter(AccessLevel.NONE)
+    private int alignmentIndex;
+    @Getter(AccessLevel.NONE)
+    private int baseArmorClass;
+    private int armorClass;
     private final EnumMap<Ability, AbilityScore> abilities;
+    @Getter(AccessLevel.NONE)
+    private Equipment equipment;
     private int hitPoints;
     private long xp;
     private int level;
     private int attackBonus;
-
+    private int strengthModifier;
+    private int dexterityModifier;
+    private int constitutionModifier;
+    private int wisdomModifier;
+    private int intelligenceModifier;
+    private int charismaModifier;
+    private int attackModifier;
+    private int damageModifier;
+    @Getter(AccessLevel.NONE)
+    private int criticalMultiplierBonus;
+    @Getter(AccessLevel.NONE)
+    private boolean pooled;
+    @Getter(AccessLevel.NONE)
+    private XpLeaderboard leaderboard;
+    @Getter(AccessLevel.NONE)
+    private XpLeaderboard.Entry leaderboardEntry;
+    @Getter(AccessLevel.NONE)
+    private CombatListener listener = CombatListener.NONE;
+    @Getter(AccessLevel.NONE)
+    private int listenerId;
+    @Getter(AccessLevel.NONE)
+    private HeroStore store;
+    @Getter(AccessLevel.NONE)
+    private int storeRow;
 
     public Hero(String name, Alignment alignment, int armorClass, int hitPoints, Map<Ability, AbilityScore> abilities, int level) {
+        this(name, alignment, CharacterClass.defaultClass(), Race.HUMAN, armorClass, hitPoints, abilities, level);
+    }
+
+    public Hero(String name, Alignment alignment, CharacterClass characterClass, Race race, int armorClass, int hitPoints, Map<Ability, AbilityScore> abilities, int level) {
+        this.abilities = new EnumMap<>(Ability.class);
+        reset(name, alignment, characterClass, race, armorClass, hitPoints, abilities, level);
+    }
+
+    void reset(String name, Alignment alignment, CharacterClass characterClass, Race race, int armorClass, int hitPoints, Map<Ability, AbilityScore> abilities, int level) {
+        if (!characterClass.allows(alignment)) {
+            throw new IllegalArgumentException("A " + characterClass + " cannot be " + (alignment == null ? "unaligned" : alignment));
+        }
+        if (!race.allows(alignment)) {
+            throw new IllegalArgumentException("A " + race + " cannot be " + alignment);
+        }
+        if (this.leaderboard != null) {
+            this.leaderboard.untrack(this);
+        }
+        this.listener = CombatListener.NONE;
+        this.listenerId = 0;
+        this.store = null;
         this.name = name;
         this.alignment = alignment;
-        this.armorClass = armorClass + abilities.get(Ability.DEXTERITY).getModifier();
-        this.hitPoints = hitPoints + abilities.get(Ability.CONSTITUTION).getModifier();
-        this.abilities = new EnumMap<>(abilities);
+        this.characterClass = characterClass;
+        this.race = race;
+        this.classId = characterClass.id();
+        this.raceId = race.ordinal();
+        this.criticalThreshold = Race.criticalThreshold(raceId);
+        this.alignmentIndex = ClassRules.alignmentIndex(alignment);
+        // copied in place, an EnumMap copies an EnumMap without allocating
+        this.abilities.clear();
+        this.abilities.putAll(abilities);
+        if (this.equipment != null) {
+            this.equipment.clear();
+        }
+        this.criticalMultiplierBonus = 0;
+        this.xp = 0;
+        this.attackBonus = 0;
+        this.baseArmorClass = armorClass + race.getArmorClassBonus();
+        // race deltas are folded into the cached modifiers here, once
+        refreshDerivedStats();
+        this.hitPoints = hitPoints + this.constitutionModifier;
 
         if (level > 1) {
             this.level = 1;
-            for (int i = 1; i < level; i++) {
-                levelUp();
-            }
+            levelUpTo(level);
         } else {
             this.level = level;
         }
     }
 
+    private Hero(String name, Alignment alignment, CharacterClass characterClass, Race race, int armorClass, int hitPoints, EnumMap<Ability, AbilityScore> abilities, long xp, int level, int attackBonus) {
+        this.name = name;
+        this.alignment = alignment;
+        this.characterClass = characterClass;
+        this.race = race;
+        this.classId = characterClass.id();
+        this.raceId = race.ordinal();
+        this.criticalThreshold = Race.criticalThreshold(raceId);
+        this.alignmentIndex = ClassRules.alignmentIndex(alignment);
+        this.hitPoints = hitPoints;
+        this.abilities = abilities;
+        this.xp = xp;
+        this.level = level;
+        this.attackBonus = attackBonus;
+        // the restored armor class has the ability modifiers applied, they are taken back out of the base
+        this.baseArmorClass = armorClass - abilityArmorClass(false);
+        refreshDerivedStats();
+    }
+
+    static Hero restore(String name, Alignment alignment, CharacterClass characterClass, Race race, int armorClass, int hitPoints, Map<Ability, AbilityScore> abilities, long xp, int level, int attackBonus) {
+        return new Hero(name, alignment, characterClass, race, armorClass, hitPoints, new EnumMap<>(abilities), xp, level, attackBonus);
+    }
+
+    /**
+     * Restores a hero that keeps the map of abilities, which the caller should not touch afterwards.
+     */
+    static Hero restoreOwning(String name, Alignment alignment, CharacterClass characterClass, Race race, int armorClass, int hitPoints, EnumMap<Ability, AbilityScore> abilities, long xp, int level, int attackBonus) {
+        return new Hero(name, alignment, characterClass, race, armorClass, hitPoints, abilities, xp, level, attackBonus);
+    }
+
+    boolean isPooled() {
+        return this.pooled;
+    }
+
+    void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    XpLeaderboard getLeaderboard() {
+        return this.leaderboard;
+    }
+
+    XpLeaderboard.Entry getLeaderboardEntry() {
+        return this.leaderboardEntry;
+    }
+
+    void setLeaderboard(XpLeaderboard leaderboard, XpLeaderboard.Entry entry) {
+        this.leaderboard = leaderboard;
+        this.leaderboardEntry = entry;
+    }
+
+    HeroStore getStore() {
+        return this.store;
+    }
+
+    void setStore(HeroStore store, int row) {
+        this.store = store;
+        this.storeRow = row;
+    }
+
+    /**
+     * Calls the listener back, with this hero given by the id, on the hits it takes, its death and its level ups. The
+     * listener is called on the thread fighting, a {@link CombatEventBus} should only listen to heroes fought on one
+     * thread at a time.
+     */
+    public void setListener(CombatListener listener, int id) {
+        this.listener = listener == null ? CombatListener.NONE : listener;
+        this.listenerId = id;
+    }
+
     public static CharacterBuilder builder() {
         return new CharacterBuilder();
     }
 
 
     public boolean attemptAttack(Hero opponent, int roll) {
-        boolean attackSuccessful = this.attack(opponent, roll);
-        if (attackSuccessful) {
-            gainXP();
+        boolean criticalHit = isCriticalHit(roll);
+        if (!criticalHit && !hits(opponent, roll)) {
+            CombatMetrics.recordAttack(false, false, 0, 0);
+            return false;
         }
-        return attackSuccessful;
+        int damage = criticalHit ? criticalHitDamageTo(opponent) : hitDamageTo(opponent);
+        int hitPointsBefore = opponent.hitPoints;
+        // recorded with the attack below, in one go
+        opponent.hitPoints = hitPointsBefore - damage;
+        opponent.tookDamage(this.listenerId, damage, criticalHit, hitPointsBefore);
+        gainXP();
+        CombatMetrics.recordAttack(true, criticalHit, damage, hitPointsBefore);
+        return true;
+    }
+
+    public boolean attemptAttack(Hero opponent, Dice dice) {
+        return attemptAttack(opponent, dice.rollD20());
+    }
+
+    boolean isCriticalHit(int roll) {
+        return CombatRules.isCriticalHit(roll, this.criticalThreshold);
+    }
+
+    int getCriticalThreshold() {
+        return this.criticalThreshold;
+    }
+
+    boolean hits(Hero opponent, int roll) {
+        return CombatRules.isHit(roll, attackModifierAgainst(opponent), opponent.armorClassAgainst(this));
     }
 
-    private boolean attack(Hero opponent, int roll) {
-        if (roll == NAT_20) {
-            opponent.takeCriticalHit(getStrengthModifier() * 2);
-            return true;
+    int attackModifierAgainst(Hero opponent) {
+        return this.attackModifier + ClassRules.bonusVersus(this.classId, opponent.alignmentIndex)
+                + Race.attackBonusVersus(this.raceId, opponent.raceId);
+    }
+
+    int armorClassAgainst(Hero attacker) {
+        return ClassRules.armorClassAgainst(attacker.classId, this.armorClass, this.dexterityModifier)
+                + Race.armorBonusAgainst(this.raceId, attacker.raceId);
+    }
+
+    int hitDamageTo(Hero opponent) {
+        return ClassRules.hitDamage(this.classId, opponent.alignmentIndex, this.damageModifier + Race.damageBonusVersus(this.raceId, opponent.raceId));
+    }
+
+    int criticalHitDamageTo(Hero opponent) {
+        return ClassRules.criticalHitDamage(this.classId, opponent.alignmentIndex, this.damageModifier + Race.damageBonusVersus(this.raceId, opponent.raceId), this.criticalMultiplierBonus);
+    }
+
+    public void equip(Item item) {
+        if (this.equipment == null) {
+            this.equipment = new Equipment();
         }
-        boolean attackSuccessful = roll + getStrengthModifier() + this.attackBonus >= opponent.getArmorClass();
-        if (attackSuccessful) {
-            opponent.takeHit(getStrengthModifier());
+        this.equipment.add(item);
+        refreshDerivedStats();
+    }
+
+    public void unequip(Item item) {
+        if (this.equipment == null || !this.equipment.remove(item)) {
+            throw new IllegalArgumentException(item.name() + " is not equipped");
         }
-        return attackSuccessful;
+        refreshDerivedStats();
+    }
+
+    public List<Item> getEquipment() {
+        return this.equipment == null ? List.of() : this.equipment.items();
+    }
+
+    int getUnequippedArmorClass() {
+        return this.baseArmorClass + abilityArmorClass(false);
     }
 
     public void takeHit(int opponentModifier) {
-        int damageDealt = BASE_DAMAGE + opponentModifier;
-        if (damageDealt <= 0) {
-            damageDealt = BASE_DAMAGE;
-        }
-        this.hitPoints -= damageDealt;
+        takeDamage(CombatRules.hitDamage(opponentModifier), false);
     }
 
     public void takeCriticalHit(int opponentModifier) {
-        int damageDealt = BASE_DAMAGE * 2 + opponentModifier;
-        if (damageDealt <= 0) {
-            damageDealt = BASE_DAMAGE;
+        takeDamage(CombatRules.criticalHitDamage(opponentModifier), true);
+    }
+
+    private void takeDamage(int damage, boolean criticalHit) {
+        int hitPointsBefore = this.hitPoints;
+        CombatMetrics.recordDamage(damage, hitPointsBefore);
+        this.hitPoints = hitPointsBefore - damage;
+        tookDamage(CombatListener.NO_HERO, damage, criticalHit, hitPointsBefore);
+    }
+
+    /*
+     * Once the damage is dealt, writes the hero through to its store and tells the listener whoever dealt it and
+     * however.
+     */
+    void tookDamage(int attackerId, int damage, boolean criticalHit, int hitPointsBefore) {
+        if (this.store != null) {
+            this.store.writeThrough(this.storeRow, this);
+        }
+        if (criticalHit) {
+            this.listener.onCriticalHit(attackerId, this.listenerId, damage);
+        } else {
+            this.listener.onHit(attackerId, this.listenerId, damage);
+        }
+        if (hitPointsBefore > 0 && hitPointsBefore - damage <= 0) {
+            this.listener.onDeath(this.listenerId, attackerId);
         }
-        this.hitPoints -= damageDealt;
+    }
+
+    int getListenerId() {
+        return this.listenerId;
+    }
+
+    int takeDamageAtomically(int damage, boolean criticalHit) {
+        int hitPointsBefore = subtractHitPointsAtomically(damage);
+        CombatMetrics.recordDamage(damage, hitPointsBefore);
+        tookDamage(CombatListener.NO_HERO, damage, criticalHit, hitPointsBefore);
+        return hitPointsBefore - damage;
+    }
+
+    /**
+     * Takes the damage without recording it, returns the hit points before.
+     */
+    int subtractHitPointsAtomically(int damage) {
+        return (int) HIT_POINTS.getAndAdd(this, -damage);
+    }
+
+    int getHitPointsAtomically() {
+        return (int) HIT_POINTS.getVolatile(this);
     }
 
     public boolean isDead() {
@@ -85,22 +334,22 @@ public final class Hero {
     }
 
     public int getStrengthModifier() {
-        return this.abilities.get(Ability.STRENGTH).getModifier();
+        return this.strengthModifier;
     }
     public int getDexterityModifier() {
-        return this.abilities.get(Ability.DEXTERITY).getModifier();
+        return this.dexterityModifier;
     }
     public int getConstitutionModifier() {
-        return this.abilities.get(Ability.CONSTITUTION).getModifier();
+        return this.constitutionModifier;
     }
     public int getWisdomModifier() {
-        return this.abilities.get(Ability.WISDOM).getModifier();
+        return this.wisdomModifier;
     }
     public int getIntelligenceModifier() {
-        return this.abilities.get(Ability.INTELLIGENCE).getModifier();
+        return this.intelligenceModifier;
     }
     public int getCharismaModifier() {
-        return this.abilities.get(Ability.CHARISMA).getModifier();
+        return this.charismaModifier;
     }
 
     public long getCurrentXP() {
@@ -108,25 +357,74 @@ public final class Hero {
     }
 
     public void gainXP() {
+        grantXP(XP_FOR_ATTACK);
+    }
+
+    public void grantXP(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("XP granted should not be negative");
+        }
         long previousXp = this.xp;
-        this.xp += XP_FOR_ATTACK;
-        if (hasReachedNextLevelThreshold(previousXp)) {
-            this.levelUp();
+        this.xp = CombatRules.addXP(previousXp, amount);
+        if (this.leaderboard != null && amount > 0) {
+            this.leaderboard.update(this);
+        }
+        int reachedLevel = CombatRules.levelFor(this.level, this.xp);
+        if (reachedLevel > this.level) {
+            // counted here rather than in levelUpTo, which also builds heroes at their starting level
+            CombatMetrics.recordLevelUps(reachedLevel - this.level);
+            levelUpTo(reachedLevel);
+            this.listener.onLevelUp(this.listenerId, reachedLevel);
+        }
+        if (this.store != null && amount > 0) {
+            this.store.writeThrough(this.storeRow, this);
+        }
+    }
+
+    private void levelUpTo(int reachedLevel) {
+        // atomic so that it cannot be lost against concurrent damage, see ConcurrentCombat
+        HIT_POINTS.getAndAdd(this, ClassRules.hitPointsGained(this.classId, this.level, reachedLevel, this.race.hitPointsModifier(this.constitutionModifier)));
+        this.attackBonus += ClassRules.attackBonusGained(this.classId, this.level, reachedLevel);
+        this.level = reachedLevel;
+        refreshDerivedStats();
+    }
+
+    private void refreshDerivedStats() {
+        this.strengthModifier = modifierOf(Ability.STRENGTH);
+        this.dexterityModifier = modifierOf(Ability.DEXTERITY);
+        this.constitutionModifier = modifierOf(Ability.CONSTITUTION);
+        this.wisdomModifier = modifierOf(Ability.WISDOM);
+        this.intelligenceModifier = modifierOf(Ability.INTELLIGENCE);
+        this.charismaModifier = modifierOf(Ability.CHARISMA);
+        this.attackModifier = modifierOf(ABILITIES[ClassRules.attackAbility(this.classId)]) + this.attackBonus;
+        this.damageModifier = this.strengthModifier;
+        this.armorClass = this.baseArmorClass + abilityArmorClass(true);
+        if (this.equipment != null) {
+            this.attackModifier += this.equipment.attackBonus();
+            this.damageModifier += this.equipment.damageBonus(ClassRules.baseDamage(this.classId));
+            this.armorClass += this.equipment.armorClassBonus();
+            this.criticalMultiplierBonus = this.equipment.criticalMultiplierBonus();
         }
     }
 
-    private boolean hasReachedNextLevelThreshold(long previousXP) {
-        int nextLevelThreshold = this.level * LEVEL_THRESHOLD_XP;
-        return (previousXP / nextLevelThreshold < 1) && (this.xp / nextLevelThreshold >= 1);
+    private int abilityArmorClass(boolean equipped) {
+        int armorAbility = ClassRules.armorAbility(this.classId);
+        int armorAbilityBonus = armorAbility == ClassRules.NO_ABILITY ? 0 : Math.max(0, modifierOf(ABILITIES[armorAbility], equipped));
+        return modifierOf(Ability.DEXTERITY, equipped) + armorAbilityBonus;
     }
 
-    private void levelUp() {
-        this.level += 1;
-        this.hitPoints += 5 + getConstitutionModifier();
-        if (level % 2 == 0) {
-            this.attackBonus++;
+    private int modifierOf(Ability ability) {
+        return modifierOf(ability, true);
+    }
+
+    private int modifierOf(Ability ability, boolean equipped) {
+        int score = abilities.get(ability).score();
+        if (equipped && this.equipment != null) {
+            score = Math.max(AbilityScore.MIN_SCORE, Math.min(AbilityScore.MAX_SCORE, score + this.equipment.abilityScoreBonus(ability)));
         }
+        return AbilityScore.modifierOf(score) + race.getModifierDelta(ability);
     }
+
     public int getLevel() {
         return level;
     }
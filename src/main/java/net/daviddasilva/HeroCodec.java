@@ -0,0 +1,183 @@
+package net.daviddasilva;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+
+/**
+ * Binary format of a hero snapshot : a fixed size body followed by the name.
+ * <pre>
+ * body (34 bytes)  version:1 alignment:1 class:1 race:1 armorClass:4 hitPoints:4 abilityScores:6 level:4 attackBonus:4 xp:8
+ * name             length:2 (-1 when there is no name) then the UTF-8 bytes
+ * </pre>
+ * Version 1 had neither class nor race byte, version 2 had no race byte. Heroes written by them are read back with
+ * the default class and as humans.
+ * Armor class and hit points are stored as they are, with modifiers, damage and levels already applied, so decoding
+ * gives back exactly the encoded hero. Equipment is not part of the snapshot, the hero is written as if it had
+ * nothing equipped.
+ */
+public final class HeroCodec {
+
+    public static final byte VERSION = 3;
+    public static final int BODY_SIZE = 34;
+    private static final byte VERSION_WITHOUT_CLASS = 1;
+    private static final byte VERSION_WITHOUT_RACE = 2;
+    private static final Race[] RACES = Race.values();
+    public static final int MAX_NAME_LENGTH = Short.MAX_VALUE;
+    private static final int NAME_LENGTH_SIZE = Short.BYTES;
+    private static final byte NO_ALIGNMENT = -1;
+    private static final short NO_NAME = -1;
+    private static final Alignment[] ALIGNMENTS = Alignment.values();
+    private static final Ability[] ABILITIES = Ability.values();
+
+    private HeroCodec() {
+    }
+
+    public static int encodedSize(Hero hero) {
+        return BODY_SIZE + NAME_LENGTH_SIZE + (hero.getName() == null ? 0 : utf8Length(hero.getName()));
+    }
+
+    public static void write(Hero hero, ByteBuffer out) {
+        writeBody(hero, out);
+        writeName(hero.getName(), out);
+    }
+
+    public static Hero read(ByteBuffer in) {
+        int body = in.position();
+        in.position(body + bodySize(in.get(body)));
+        String name = readName(in);
+        int end = in.position();
+        in.position(body);
+        Hero hero = readBody(in, name);
+        in.position(end);
+        return hero;
+    }
+
+    static void writeBody(Hero hero, ByteBuffer out) {
+        out.put(VERSION);
+        out.put(hero.getAlignment() == null ? NO_ALIGNMENT : (byte) hero.getAlignment().ordinal());
+        out.put(hero.getCharacterClass().id());
+        out.put((byte) hero.getRace().ordinal());
+        out.putInt(hero.getUnequippedArmorClass());
+        out.putInt(hero.getHitPoints());
+        for (Ability ability : ABILITIES) {
+            out.put((byte) hero.getAbilities().get(ability).score());
+        }
+        out.putInt(hero.getLevel());
+        out.putInt(hero.getAttackBonus());
+        out.putLong(hero.getXp());
+    }
+
+    static Hero readBody(ByteBuffer in, String name) {
+        byte version = in.get();
+        bodySize(version);
+        byte alignment = in.get();
+        var characterClass = version == VERSION_WITHOUT_CLASS ? CharacterClass.defaultClass() : CharacterClass.byId(in.get());
+        var race = version < VERSION ? Race.HUMAN : raceOf(in.get());
+        int armorClass = in.getInt();
+        int hitPoints = in.getInt();
+        var abilities = new EnumMap<Ability, AbilityScore>(Ability.class);
+        for (Ability ability : ABILITIES) {
+            abilities.put(ability, AbilityScore.of(in.get()));
+        }
+        int level = in.getInt();
+        int attackBonus = in.getInt();
+        long xp = in.getLong();
+        return Hero.restoreOwning(name, alignment == NO_ALIGNMENT ? null : ALIGNMENTS[alignment], characterClass, race, armorClass, hitPoints, abilities, xp, level, attackBonus);
+    }
+
+    static boolean isSupported(byte version) {
+        return version == VERSION || version == VERSION_WITHOUT_RACE || version == VERSION_WITHOUT_CLASS;
+    }
+
+    static int bodySize(byte version) {
+        if (version == VERSION) {
+            return BODY_SIZE;
+        }
+        if (version == VERSION_WITHOUT_RACE) {
+            return BODY_SIZE - 1;
+        }
+        if (version == VERSION_WITHOUT_CLASS) {
+            return BODY_SIZE - 2;
+        }
+        throw new IllegalArgumentException("Unsupported hero format version " + version);
+    }
+
+    private static Race raceOf(byte race) {
+        if (race < 0 || race >= RACES.length) {
+            throw new IllegalArgumentException("Unknown race " + race);
+        }
+        return RACES[race];
+    }
+
+    static void writeName(String name, ByteBuffer out) {
+        if (name == null) {
+            out.putShort(NO_NAME);
+            return;
+        }
+        int length = utf8Length(name);
+        if (length > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Hero name is too long to be encoded");
+        }
+        out.putShort((short) length);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, name.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    static String readName(ByteBuffer in) {
+        short length = in.getShort();
+        if (length == NO_NAME) {
+            return null;
+        }
+        String name;
+        if (in.hasArray()) {
+            name = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return name;
+    }
+
+    static int nameSize(ByteBuffer in, int position) {
+        short length = in.getShort(position);
+        return NAME_LENGTH_SIZE + (length == NO_NAME ? 0 : length);
+    }
+
+    private static int utf8Length(String name) {
+        int length = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
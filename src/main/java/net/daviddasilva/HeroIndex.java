@@ -0,0 +1,207 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+
+/**
+ * Bitmaps of the rows of a {@link HeroTable} by alignment, by level and by status, so that finding heroes is a matter
+ * of intersecting bitmaps, 64 rows at a time, instead of scanning the table. The index listens to the table to follow
+ * deaths and level ups, see {@link CombatListener#andThen(CombatListener)} to keep another listener. Rows added to the
+ * table are indexed on the next callback or query, changes made behind the listener are picked up by
+ * {@link #refresh(int)}.
+ * <p>
+ * Levels from 1 to {@link #MAX_BUCKET_LEVEL} - 1 have their own bitmap, allocated once a hero reaches them. Levels
+ * below and above share the first and the last one, whose rows are checked one by one when a query only partly
+ * covers them. Like the table, an index is meant to be used by the combat thread.
+ */
+public final class HeroIndex implements CombatListener {
+
+    static final int MAX_BUCKET_LEVEL = 64;
+
+    private final HeroTable table;
+    private final RowBitmap[] alignments = new RowBitmap[ClassRules.ALIGNMENT_SLOTS];
+    private final RowBitmap[] levels = new RowBitmap[MAX_BUCKET_LEVEL + 1];
+    private final RowBitmap alive = new RowBitmap();
+    private final RowBitmap[] selectedLevels = new RowBitmap[MAX_BUCKET_LEVEL + 1];
+    private final RowBitmap[] checkedLevels = new RowBitmap[2];
+    private byte[] buckets = new byte[0];
+    private long[] matches = new long[0];
+    private int size;
+
+    public HeroIndex(HeroTable table) {
+        this.table = table;
+        for (int alignment = 0; alignment < alignments.length; alignment++) {
+            alignments[alignment] = new RowBitmap();
+        }
+        catchUp();
+    }
+
+    @Override
+    public void onDeath(int hero, int killer) {
+        catchUp();
+        alive.clear(hero);
+    }
+
+    @Override
+    public void onLevelUp(int hero, int level) {
+        catchUp();
+        moveToLevel(hero, level);
+        // the hit points gained may bring a dead hero back
+        updateStatus(hero);
+    }
+
+    public void refresh(int row) {
+        catchUp();
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("No hero at row " + row);
+        }
+        moveToLevel(row, table.getLevel(row));
+        updateStatus(row);
+    }
+
+    public int count(Alignment alignment, int minLevel, int maxLevel, boolean alive) {
+        return select(alignments[ClassRules.alignmentIndex(alignment)], minLevel, maxLevel, alive);
+    }
+
+    public int count(int minLevel, int maxLevel, boolean alive) {
+        return select(null, minLevel, maxLevel, alive);
+    }
+
+    public int[] find(Alignment alignment, int minLevel, int maxLevel, boolean alive) {
+        return rowsOf(select(alignments[ClassRules.alignmentIndex(alignment)], minLevel, maxLevel, alive));
+    }
+
+    public int[] find(int minLevel, int maxLevel, boolean alive) {
+        return rowsOf(select(null, minLevel, maxLevel, alive));
+    }
+
+    private int[] rowsOf(int count) {
+        var rows = new int[count];
+        int row = 0;
+        for (int word = 0; row < count; word++) {
+            for (long bits = matches[word]; bits != 0; bits &= bits - 1) {
+                rows[row++] = word << 6 | Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return rows;
+    }
+
+    /*
+     * Leaves the selected rows in matches and returns how many there are.
+     */
+    private int select(RowBitmap alignment, int minLevel, int maxLevel, boolean alive) {
+        catchUp();
+        int selected = 0;
+        int checked = 0;
+        for (int bucket = bucketOf(minLevel); bucket <= bucketOf(maxLevel); bucket++) {
+            if (levels[bucket] == null) {
+                continue;
+            }
+            if (isCovered(bucket, minLevel, maxLevel)) {
+                selectedLevels[selected++] = levels[bucket];
+            } else {
+                // only the first and the last bucket can be partly in range, they are checked row by row
+                checkedLevels[checked++] = levels[bucket];
+            }
+        }
+        int count = 0;
+        int words = (size + Long.SIZE - 1) >>> 6;
+        if (matches.length < words) {
+            matches = new long[words];
+        }
+        for (int word = 0; word < words; word++) {
+            long filter = alive ? this.alive.word(word) : ~this.alive.word(word) & rowsIn(word);
+            if (alignment != null) {
+                filter &= alignment.word(word);
+            }
+            long levelBits = 0;
+            for (int level = 0; level < selected; level++) {
+                levelBits |= selectedLevels[level].word(word);
+            }
+            long bits = levelBits & filter;
+            for (int level = 0; level < checked; level++) {
+                bits |= levelsIn(checkedLevels[level].word(word) & filter, word, minLevel, maxLevel);
+            }
+            matches[word] = bits;
+            count += Long.bitCount(bits);
+        }
+        Arrays.fill(selectedLevels, 0, selected, null);
+        Arrays.fill(checkedLevels, 0, checked, null);
+        return count;
+    }
+
+    private static boolean isCovered(int bucket, int minLevel, int maxLevel) {
+        if (bucket == 0) {
+            return minLevel == Integer.MIN_VALUE && maxLevel >= 0;
+        }
+        if (bucket == MAX_BUCKET_LEVEL) {
+            return maxLevel == Integer.MAX_VALUE && minLevel <= MAX_BUCKET_LEVEL;
+        }
+        return true;
+    }
+
+    private long levelsIn(long bits, int word, int minLevel, int maxLevel) {
+        long inRange = 0;
+        for (long remaining = bits; remaining != 0; remaining &= remaining - 1) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            int level = table.getLevel(word << 6 | bit);
+            if (level >= minLevel && level <= maxLevel) {
+                inRange |= 1L << bit;
+            }
+        }
+        return inRange;
+    }
+
+    private long rowsIn(int word) {
+        int rows = size - (word << 6);
+        return rows >= Long.SIZE ? -1L : (1L << rows) - 1;
+    }
+
+    private void catchUp() {
+        int tableSize = table.size();
+        if (size == tableSize) {
+            return;
+        }
+        if (buckets.length < tableSize) {
+            buckets = Arrays.copyOf(buckets, Math.max(tableSize, buckets.length * 2));
+        }
+        for (int row = size; row < tableSize; row++) {
+            var alignment = table.getAlignment(row);
+            alignments[ClassRules.alignmentIndex(alignment)].set(row);
+            int bucket = bucketOf(table.getLevel(row));
+            levelBitmap(bucket).set(row);
+            buckets[row] = (byte) bucket;
+            if (!table.isDead(row)) {
+                alive.set(row);
+            }
+        }
+        size = tableSize;
+    }
+
+    private void moveToLevel(int row, int level) {
+        int bucket = bucketOf(level);
+        if (bucket != buckets[row]) {
+            levels[buckets[row]].clear(row);
+            levelBitmap(bucket).set(row);
+            buckets[row] = (byte) bucket;
+        }
+    }
+
+    private void updateStatus(int row) {
+        if (table.isDead(row)) {
+            alive.clear(row);
+        } else {
+            alive.set(row);
+        }
+    }
+
+    private RowBitmap levelBitmap(int bucket) {
+        if (levels[bucket] == null) {
+            levels[bucket] = new RowBitmap();
+        }
+        return levels[bucket];
+    }
+
+    private static int bucketOf(int level) {
+        return Math.max(0, Math.min(MAX_BUCKET_LEVEL, level));
+    }
+}
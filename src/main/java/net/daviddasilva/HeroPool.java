@@ -0,0 +1,64 @@
+package net.daviddasilva;
+
+/**
+ * Released heroes kept for reuse, so that spawning waves of short-lived heroes such as monsters stops allocating once
+ * the pool is warm. An acquired hero is a released one reset by {@link CharacterBuilder#buildInto(Hero)}, so a hero
+ * must not be used anymore after its release. Together with a builder reused through {@link CharacterBuilder#reset()},
+ * spawning from a warm pool does not allocate at all. A released hero leaves its {@link XpLeaderboard} at once, whether
+ * the pool keeps it or, being full, drops it.
+ * <p>
+ * A pool is meant to be used by a single thread.
+ */
+public final class HeroPool {
+
+    private final Hero[] free;
+    private int available;
+
+    public HeroPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A hero pool should keep at least one hero");
+        }
+        this.free = new Hero[capacity];
+    }
+
+    public HeroPool prefill() {
+        while (available < free.length) {
+            Hero hero = Hero.builder().build();
+            hero.setPooled(true);
+            free[available++] = hero;
+        }
+        return this;
+    }
+
+    public Hero acquire(CharacterBuilder builder) {
+        if (available == 0) {
+            return builder.build();
+        }
+        // a hero the builder cannot build into is left untouched and stays in the pool
+        Hero hero = builder.buildInto(free[available - 1]);
+        free[--available] = null;
+        hero.setPooled(false);
+        return hero;
+    }
+
+    public void release(Hero hero) {
+        if (hero.isPooled()) {
+            throw new IllegalStateException((hero.getName() == null ? "This hero" : hero.getName()) + " is already released");
+        }
+        if (hero.getLeaderboard() != null) {
+            hero.getLeaderboard().untrack(hero);
+        }
+        if (available < free.length) {
+            hero.setPooled(true);
+            free[available++] = hero;
+        }
+    }
+
+    public int available() {
+        return available;
+    }
+
+    public int capacity() {
+        return free.length;
+    }
+}
@@ -0,0 +1,410 @@
+package net.daviddasilva;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Heroes kept in a memory-mapped file, so a restarted node maps the file and goes instead of rebuilding its world.
+ * <p>
+ * Every hero has a fixed size row made of two slots holding its {@link HeroCodec} body, a sequence number and a
+ * checksum. A save always overwrites the older slot, so a write torn by a crash leaves the previous version intact
+ * in the other one, and opening the store picks the valid slot with the highest sequence. Names never change and
+ * are appended once to a separate file, forced to disk before a row refers to them. The checksum of a slot covers
+ * the checksum of its name, checked on open too, so a row whose name was lost is reported as corrupted.
+ * <p>
+ * Rows are mapped in segments of {@link #SEGMENT_ROWS} rows, so that the file can grow past the 2 GB of a single
+ * mapping, and growing maps new segments without remapping the others. A store holds at most {@link #MAX_CAPACITY}
+ * heroes.
+ * <p>
+ * By default a hit or XP change the hero in memory, and {@link #save(int, Hero)} writes its new version, so a caller
+ * saving once per tick or per fight pays the slot write and its checksum once. A hero attached to its row with
+ * {@link #attach(int, Hero)} is written through instead, on every hit it takes and every XP gain, each one a save of
+ * around 65 ns against 2 ns for a hit alone, see HeroStoreBenchmark.
+ * <p>
+ * A store is meant to be used by a single thread, attached heroes included : they should not be fought through
+ * {@link ConcurrentCombat}.
+ */
+public final class HeroStore implements Closeable {
+
+    static final String RECORDS_FILE = "heroes.dat";
+    static final String NAMES_FILE = "names.dat";
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_SIZE = 64;
+    static final int ROW_SIZE = 2 * SLOT_SIZE;
+    private static final int MAGIC = 0x45564853; // "EVHS"
+    private static final int FORMAT_VERSION = 4;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int SIZE_OFFSET = 8;
+    private static final int CHECKSUM_OFFSET = 0;
+    private static final int SEQUENCE_OFFSET = 4;
+    private static final int NAME_OFFSET = 12;
+    private static final int BODY_OFFSET = 20;
+    private static final int NAME_CHECKSUM_OFFSET = BODY_OFFSET + HeroCodec.BODY_SIZE;
+    private static final int SLOT_END = NAME_CHECKSUM_OFFSET + Integer.BYTES;
+    private static final int NO_SLOT = -1;
+    static final int SEGMENT_ROWS = 1 << 16;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private final FileChannel records;
+    private final FileChannel names;
+    private final CRC32C checksum = new CRC32C();
+    private final ByteBuffer nameBuffer = ByteBuffer.allocate(HeroCodec.MAX_NAME_LENGTH + Short.BYTES);
+    private final List<Integer> corruptedRows = new ArrayList<>();
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private ByteBuffer[] views = new ByteBuffer[0];
+    private int capacity;
+    private int size;
+    private boolean closed;
+    private long[] sequences;
+    private byte[] activeSlots;
+
+    private HeroStore(FileChannel records, FileChannel names) {
+        this.records = records;
+        this.names = names;
+    }
+
+    public static HeroStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        var store = new HeroStore(
+                FileChannel.open(directory.resolve(RECORDS_FILE), CREATE, READ, WRITE),
+                FileChannel.open(directory.resolve(NAMES_FILE), CREATE, READ, WRITE));
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void load() throws IOException {
+        if (records.size() == 0) {
+            map(DEFAULT_CAPACITY);
+            header.putInt(0, MAGIC);
+            header.putInt(4, FORMAT_VERSION);
+            sequences = new long[capacity];
+            activeSlots = new byte[capacity];
+            return;
+        }
+        // checked before mapping, which would grow a file that is not a store
+        var head = ByteBuffer.allocate(SIZE_OFFSET + Integer.BYTES);
+        while (head.hasRemaining()) {
+            if (records.read(head, head.position()) < 0) {
+                throw new IOException("Not a hero store");
+            }
+        }
+        if (head.getInt(0) != MAGIC || head.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a hero store");
+        }
+        long rows = (records.size() - HEADER_SIZE) / ROW_SIZE;
+        if (rows > MAX_CAPACITY) {
+            throw new IOException("Hero store of " + rows + " rows is larger than " + MAX_CAPACITY);
+        }
+        size = head.getInt(SIZE_OFFSET);
+        if (size < 0 || size > rows) {
+            throw new IOException("Hero store of " + rows + " rows cannot hold " + size + " heroes");
+        }
+        map((int) rows);
+        sequences = new long[capacity];
+        activeSlots = new byte[capacity];
+        // names are checked through a mapping of their file, read hero by hero only past the 2 GB of one mapping
+        long namesSize = names.size();
+        ByteBuffer mappedNames = namesSize <= Integer.MAX_VALUE ? names.map(FileChannel.MapMode.READ_ONLY, 0, namesSize) : null;
+        for (int row = 0; row < size; row++) {
+            recover(row, mappedNames);
+        }
+    }
+
+    private void recover(int row, ByteBuffer mappedNames) throws IOException {
+        activeSlots[row] = NO_SLOT;
+        var segment = segmentOf(row);
+        for (int slot = 0; slot < 2; slot++) {
+            int offset = slotOffset(row, slot);
+            long sequence = segment.getLong(offset + SEQUENCE_OFFSET);
+            if (segment.getInt(offset + CHECKSUM_OFFSET) == checksumOf(segment, offset)
+                    && (activeSlots[row] == NO_SLOT || sequence > sequences[row])
+                    && nameChecksumAt(segment.getLong(offset + NAME_OFFSET), mappedNames) == Integer.toUnsignedLong(segment.getInt(offset + NAME_CHECKSUM_OFFSET))) {
+                activeSlots[row] = (byte) slot;
+                sequences[row] = sequence;
+            }
+        }
+        if (activeSlots[row] == NO_SLOT) {
+            corruptedRows.add(row);
+        }
+    }
+
+    public int append(Hero hero) throws IOException {
+        if (size == MAX_CAPACITY) {
+            throw new IllegalStateException("Hero store is full, it holds at most " + MAX_CAPACITY + " heroes");
+        }
+        long nameOffset = names.size();
+        int nameChecksum = appendName(hero.getName(), nameOffset);
+        if (size == capacity) {
+            map(Math.min(MAX_CAPACITY, capacity < SEGMENT_ROWS ? Math.min(SEGMENT_ROWS, 2 * capacity) : capacity + SEGMENT_ROWS));
+            sequences = Arrays.copyOf(sequences, capacity);
+            activeSlots = Arrays.copyOf(activeSlots, capacity);
+        }
+        int row = size;
+        activeSlots[row] = 1;
+        sequences[row] = 0;
+        writeSlot(row, hero, nameOffset, nameChecksum);
+        size++;
+        // the row only exists once the size covers it, a crash before leaves at most an orphan name behind
+        header.putInt(SIZE_OFFSET, size);
+        return row;
+    }
+
+    /**
+     * Writes a new version of the hero at the row. A corrupted row, which has lost its name along with its versions,
+     * is repaired by saving a hero over it, its name being appended again.
+     */
+    public void save(int row, Hero hero) throws IOException {
+        checkRow(row);
+        if (activeSlots[row] == NO_SLOT) {
+            long nameOffset = names.size();
+            int nameChecksum = appendName(hero.getName(), nameOffset);
+            // neither slot is valid, whatever sequence the new version gets wins
+            activeSlots[row] = 1;
+            sequences[row] = 0;
+            writeSlot(row, hero, nameOffset, nameChecksum);
+            corruptedRows.remove(Integer.valueOf(row));
+            return;
+        }
+        rewrite(row, hero);
+    }
+
+    /**
+     * Writes the hero at the row now, then again on every hit it takes and every XP it gains, until it is detached or
+     * reset by a {@link HeroPool}.
+     */
+    public void attach(int row, Hero hero) {
+        checkReadable(row);
+        if (hero.getStore() != null) {
+            throw new IllegalStateException((hero.getName() == null ? "This hero" : hero.getName()) + " is already attached to a store");
+        }
+        rewrite(row, hero);
+        hero.setStore(this, row);
+    }
+
+    public void detach(Hero hero) {
+        if (hero.getStore() != this) {
+            throw new IllegalArgumentException((hero.getName() == null ? "This hero" : hero.getName()) + " is not attached to this store");
+        }
+        hero.setStore(null, 0);
+    }
+
+    void writeThrough(int row, Hero hero) {
+        if (closed) {
+            throw new IllegalStateException("Hero store is closed");
+        }
+        rewrite(row, hero);
+    }
+
+    public Hero load(int row) throws IOException {
+        checkReadable(row);
+        var view = viewOf(row);
+        int offset = slotOffset(row, activeSlots[row]);
+        String name = readName(view.getLong(offset + NAME_OFFSET));
+        view.position(offset + BODY_OFFSET);
+        return HeroCodec.readBody(view, name);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<Integer> corruptedRows() {
+        return List.copyOf(corruptedRows);
+    }
+
+    public void force() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+        names.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try (records; names) {
+            if (header != null) {
+                force();
+            }
+        }
+    }
+
+    /*
+     * Appends the name and forces it to disk, so that no row can refer to it before it is there, returns its checksum.
+     */
+    private int appendName(String name, long nameOffset) throws IOException {
+        nameBuffer.clear();
+        HeroCodec.writeName(name, nameBuffer);
+        nameBuffer.flip();
+        checksum.reset();
+        checksum.update(nameBuffer);
+        nameBuffer.rewind();
+        while (nameBuffer.hasRemaining()) {
+            names.write(nameBuffer, nameOffset + nameBuffer.position());
+        }
+        names.force(false);
+        return (int) checksum.getValue();
+    }
+
+    /*
+     * The checksum of the name at the offset, -1 when the file ends before the name does.
+     */
+    private long nameChecksumAt(long offset, ByteBuffer mappedNames) throws IOException {
+        ByteBuffer name;
+        if (mappedNames == null) {
+            if (!readNameRecord(offset)) {
+                return -1;
+            }
+            name = nameBuffer;
+        } else {
+            if (offset < 0 || offset + Short.BYTES > mappedNames.capacity()) {
+                return -1;
+            }
+            int nameSize = HeroCodec.nameSize(mappedNames, (int) offset);
+            if (nameSize < Short.BYTES || offset + nameSize > mappedNames.capacity()) {
+                return -1;
+            }
+            name = mappedNames.duplicate().limit((int) offset + nameSize).position((int) offset);
+        }
+        checksum.reset();
+        checksum.update(name);
+        return checksum.getValue();
+    }
+
+    private void rewrite(int row, Hero hero) {
+        var segment = segmentOf(row);
+        int offset = slotOffset(row, activeSlots[row]);
+        writeSlot(row, hero, segment.getLong(offset + NAME_OFFSET), segment.getInt(offset + NAME_CHECKSUM_OFFSET));
+    }
+
+    private void writeSlot(int row, Hero hero, long nameOffset, int nameChecksum) {
+        var segment = segmentOf(row);
+        var view = viewOf(row);
+        int slot = 1 - activeSlots[row];
+        int offset = slotOffset(row, slot);
+        long sequence = sequences[row] + 1;
+        segment.putLong(offset + SEQUENCE_OFFSET, sequence);
+        segment.putLong(offset + NAME_OFFSET, nameOffset);
+        view.position(offset + BODY_OFFSET);
+        HeroCodec.writeBody(hero, view);
+        segment.putInt(offset + NAME_CHECKSUM_OFFSET, nameChecksum);
+        // the checksum is written last, it is what makes the slot valid
+        segment.putInt(offset + CHECKSUM_OFFSET, checksumOf(view, offset));
+        activeSlots[row] = (byte) slot;
+        sequences[row] = sequence;
+    }
+
+    private int checksumOf(ByteBuffer view, int offset) {
+        checksum.reset();
+        view.limit(offset + SLOT_END).position(offset + SEQUENCE_OFFSET);
+        checksum.update(view);
+        view.clear();
+        return (int) checksum.getValue();
+    }
+
+    private String readName(long offset) throws IOException {
+        if (!readNameRecord(offset)) {
+            throw new IOException("Truncated hero name at " + offset);
+        }
+        return HeroCodec.readName(nameBuffer);
+    }
+
+    /*
+     * Reads the length and the bytes of the name at the offset, false when the file ends before they do.
+     */
+    private boolean readNameRecord(long offset) throws IOException {
+        nameBuffer.clear().limit(Short.BYTES);
+        if (!readFully(offset)) {
+            return false;
+        }
+        int nameSize = HeroCodec.nameSize(nameBuffer, 0);
+        if (nameSize < Short.BYTES) {
+            return false;
+        }
+        nameBuffer.limit(nameSize);
+        if (!readFully(offset)) {
+            return false;
+        }
+        nameBuffer.flip();
+        return true;
+    }
+
+    private boolean readFully(long offset) throws IOException {
+        while (nameBuffer.hasRemaining()) {
+            if (offset < 0 || names.read(nameBuffer, offset + nameBuffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Maps the segments covering the rows, keeping the ones already mapped at their size. Only the last segment is
+     * ever partial, it is remapped when the store grows.
+     */
+    private void map(int rows) throws IOException {
+        capacity = Math.max(rows, 1);
+        if (header == null) {
+            header = records.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        }
+        int count = (capacity + SEGMENT_ROWS - 1) / SEGMENT_ROWS;
+        segments = Arrays.copyOf(segments, count);
+        views = Arrays.copyOf(views, count);
+        for (int index = 0; index < count; index++) {
+            long segmentSize = (long) Math.min(SEGMENT_ROWS, capacity - index * SEGMENT_ROWS) * ROW_SIZE;
+            if (segments[index] == null || segments[index].capacity() != segmentSize) {
+                long position = HEADER_SIZE + (long) index * SEGMENT_ROWS * ROW_SIZE;
+                segments[index] = records.map(FileChannel.MapMode.READ_WRITE, position, segmentSize);
+                views[index] = segments[index].duplicate();
+            }
+        }
+    }
+
+    private MappedByteBuffer segmentOf(int row) {
+        return segments[row / SEGMENT_ROWS];
+    }
+
+    private ByteBuffer viewOf(int row) {
+        return views[row / SEGMENT_ROWS];
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("No hero at row " + row);
+        }
+    }
+
+    private void checkReadable(int row) {
+        checkRow(row);
+        if (activeSlots[row] == NO_SLOT) {
+            throw new IllegalStateException("Hero at row " + row + " is corrupted");
+        }
+    }
+
+    /*
+     * Offset of the slot within the segment of its row.
+     */
+    private static int slotOffset(int row, int slot) {
+        return (row % SEGMENT_ROWS) * ROW_SIZE + slot * SLOT_SIZE;
+    }
+}
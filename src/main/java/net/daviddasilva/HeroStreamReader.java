@@ -0,0 +1,71 @@
+package net.daviddasilva;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads back heroes written by a {@link HeroStreamWriter}, refilling one reusable buffer from the channel.
+ */
+public final class HeroStreamReader implements Closeable {
+
+    private static final int NAME_LENGTH_SIZE = Short.BYTES;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(HeroStreamWriter.BUFFER_SIZE);
+    private boolean endOfStream;
+    private long read;
+
+    public HeroStreamReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+        if (!fill(Integer.BYTES) || buffer.getInt() != HeroStreamWriter.MAGIC) {
+            throw new IOException("Not a hero stream");
+        }
+    }
+
+    public boolean hasNext() throws IOException {
+        return fill(1);
+    }
+
+    public Hero next() throws IOException {
+        if (!fill(1)) {
+            throw new NoSuchElementException();
+        }
+        int bodySize = HeroCodec.bodySize(buffer.get(buffer.position()));
+        if (!fill(bodySize + NAME_LENGTH_SIZE)) {
+            throw new IOException("Truncated hero stream");
+        }
+        int size = bodySize + HeroCodec.nameSize(buffer, buffer.position() + bodySize);
+        if (!fill(size)) {
+            throw new IOException("Truncated hero stream");
+        }
+        read++;
+        return HeroCodec.read(buffer);
+    }
+
+    public long read() {
+        return read;
+    }
+
+    private boolean fill(int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < needed && !endOfStream) {
+            if (channel.read(buffer) < 0) {
+                endOfStream = true;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= needed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
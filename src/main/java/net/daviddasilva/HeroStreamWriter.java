@@ -0,0 +1,51 @@
+package net.daviddasilva;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes heroes one after the other in the {@link HeroCodec} format, behind a small header, through one reusable
+ * buffer.
+ */
+public final class HeroStreamWriter implements Closeable {
+
+    static final int MAGIC = 0x45564852; // "EVHR"
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long written;
+
+    public HeroStreamWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        buffer.putInt(MAGIC);
+    }
+
+    public void write(Hero hero) throws IOException {
+        if (buffer.remaining() < HeroCodec.encodedSize(hero)) {
+            flush();
+        }
+        HeroCodec.write(hero, buffer);
+        written++;
+    }
+
+    public long written() {
+        return written;
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
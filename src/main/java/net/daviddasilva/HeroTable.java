@@ -0,0 +1,500 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+
+import static net.daviddasilva.Hero.XP_FOR_ATTACK;
+
+/**
+ * Column store for large numbers of heroes : every attribute lives in its own primitive array and a hero is
+ * only a row index. {@link HeroView} gives a {@link Hero}-like read access to a row without copying it.
+ * Equipment stays with the {@link Hero}, a row is made from the hero as if it had nothing equipped.
+ */
+public final class HeroTable {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int ABILITY_COUNT = Ability.values().length;
+    private static final Alignment[] ALIGNMENTS = Alignment.values();
+    private static final Race[] RACES = Race.values();
+    private static final Ability[] ABILITIES = Ability.values();
+    private static final byte NO_ALIGNMENT = -1;
+    private static final int STRENGTH = Ability.STRENGTH.ordinal();
+    private static final int DEXTERITY = Ability.DEXTERITY.ordinal();
+
+    private String[] names;
+    private byte[] alignments;
+    private byte[] classes;
+    private byte[] races;
+    private int[] armorClasses;
+    private int[] hitPoints;
+    private long[] xp;
+    private int[] levels;
+    private int[] attackBonuses;
+    private byte[] abilityScores;
+    private int[] attackModifiers;
+    private int[] damageModifiers;
+    private int[] dexterityModifiers;
+    private int size;
+    private CombatListener listener = CombatListener.NONE;
+
+    public HeroTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HeroTable(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.names = new String[capacity];
+        this.alignments = new byte[capacity];
+        this.classes = new byte[capacity];
+        this.races = new byte[capacity];
+        this.armorClasses = new int[capacity];
+        this.hitPoints = new int[capacity];
+        this.xp = new long[capacity];
+        this.levels = new int[capacity];
+        this.attackBonuses = new int[capacity];
+        this.abilityScores = new byte[capacity * ABILITY_COUNT];
+        this.attackModifiers = new int[capacity];
+        this.damageModifiers = new int[capacity];
+        this.dexterityModifiers = new int[capacity];
+    }
+
+    public int add(Hero hero) {
+        int row = size;
+        ensureCapacity(row + 1);
+        names[row] = hero.getName();
+        alignments[row] = hero.getAlignment() == null ? NO_ALIGNMENT : (byte) hero.getAlignment().ordinal();
+        classes[row] = hero.getCharacterClass().id();
+        races[row] = (byte) hero.getRace().ordinal();
+        armorClasses[row] = hero.getUnequippedArmorClass();
+        hitPoints[row] = hero.getHitPoints();
+        xp[row] = hero.getXp();
+        levels[row] = hero.getLevel();
+        attackBonuses[row] = hero.getAttackBonus();
+        for (Ability ability : ABILITIES) {
+            abilityScores[row * ABILITY_COUNT + ability.ordinal()] = (byte) hero.getAbilities().get(ability).score();
+        }
+        refreshDerivedStats(row);
+        size++;
+        return row;
+    }
+
+    public Hero toHero(int row) {
+        checkRow(row);
+        var abilities = new EnumMap<Ability, AbilityScore>(Ability.class);
+        for (Ability ability : ABILITIES) {
+            abilities.put(ability, AbilityScore.of(getAbilityScore(row, ability)));
+        }
+        return Hero.restoreOwning(names[row], getAlignment(row), getCharacterClass(row), getRace(row), armorClasses[row], hitPoints[row], abilities, xp[row], levels[row], attackBonuses[row]);
+    }
+
+    public HeroView view(int row) {
+        checkRow(row);
+        return new HeroView(row);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void setListener(CombatListener listener) {
+        this.listener = listener == null ? CombatListener.NONE : listener;
+    }
+
+    public boolean attemptAttack(int attacker, int defender, int roll) {
+        checkRow(attacker);
+        checkRow(defender);
+        long result = resolveAttack(attacker, defender, roll);
+        byte outcome = outcomeOf(result);
+        if (CombatMetrics.isEnabled()) {
+            CombatMetrics.recordAttacks(1, outcome & CombatBatch.HIT, (outcome & CombatBatch.CRITICAL_HIT) >> 1,
+                    damageOf(result), (outcome & CombatBatch.KILLED) >> 2, (outcome & CombatBatch.LEVEL_UP) >> 3);
+        }
+        return (outcome & CombatBatch.HIT) != 0;
+    }
+
+    public void gainXP(int row) {
+        checkRow(row);
+        gainXPUnchecked(row);
+    }
+
+    public void grantXP(int row, long amount) {
+        checkRow(row);
+        if (amount < 0) {
+            throw new IllegalArgumentException("XP granted should not be negative");
+        }
+        int level = levels[row];
+        grantXPUnchecked(row, amount);
+        CombatMetrics.recordLevelUps(levels[row] - level);
+    }
+
+    private boolean gainXPUnchecked(int row) {
+        return grantXPUnchecked(row, XP_FOR_ATTACK);
+    }
+
+    private boolean grantXPUnchecked(int row, long amount) {
+        xp[row] = CombatRules.addXP(xp[row], amount);
+        int reachedLevel = CombatRules.levelFor(levels[row], xp[row]);
+        return reachedLevel != levels[row] && levelUp(row, reachedLevel);
+    }
+
+    private boolean levelUp(int row, int reachedLevel) {
+        int level = levels[row];
+        hitPoints[row] += ClassRules.hitPointsGained(classes[row], level, reachedLevel, getRace(row).hitPointsModifier(getConstitutionModifier(row)));
+        attackBonuses[row] += ClassRules.attackBonusGained(classes[row], level, reachedLevel);
+        refreshDerivedStats(row);
+        levels[row] = reachedLevel;
+        listener.onLevelUp(row, reachedLevel);
+        return true;
+    }
+
+    /*
+     * Damage already resolved, see CombatReplay : only the death it causes is told to the listener, like land does.
+     */
+    void applyDamage(int attacker, int defender, int damage) {
+        checkRow(defender);
+        boolean wasAlive = hitPoints[defender] > 0;
+        hitPoints[defender] -= damage;
+        if (wasAlive && hitPoints[defender] <= 0) {
+            listener.onDeath(defender, attacker);
+        }
+    }
+
+    /*
+     * Experience already counted when it was earned, see CombatReplay : the level-ups are not recorded again.
+     */
+    void applyXP(int row, long amount) {
+        checkRow(row);
+        grantXPUnchecked(row, amount);
+    }
+
+    int resolveAttacks(int[] attackers, int[] defenders, int[] rolls, int count, byte[] outcomes, int[] damages, int[] attackerLevels) {
+        for (int i = 0; i < count; i++) {
+            checkRow(attackers[i]);
+            checkRow(defenders[i]);
+        }
+        // metrics are tallied locally and published once for the whole batch
+        int hits = 0;
+        int criticalHits = 0;
+        long totalDamage = 0;
+        int deaths = 0;
+        int levelUps = 0;
+        for (int i = 0; i < count; i++) {
+            long result = resolveAttack(attackers[i], defenders[i], rolls[i]);
+            byte outcome = outcomeOf(result);
+            int damage = damageOf(result);
+            outcomes[i] = outcome;
+            damages[i] = damage;
+            attackerLevels[i] = levels[attackers[i]];
+            hits += outcome & CombatBatch.HIT;
+            criticalHits += (outcome & CombatBatch.CRITICAL_HIT) >> 1;
+            deaths += (outcome & CombatBatch.KILLED) >> 2;
+            levelUps += (outcome & CombatBatch.LEVEL_UP) >> 3;
+            totalDamage += damage;
+        }
+        if (CombatMetrics.isEnabled()) {
+            CombatMetrics.recordAttacks(count, hits, criticalHits, totalDamage, deaths, levelUps);
+        }
+        return hits;
+    }
+
+    void loadLanes(int[] attackers, int[] defenders, int[] rolls, int count, CombatLanes lanes) {
+        for (int i = 0; i < count; i++) {
+            int attacker = attackers[i];
+            int defender = defenders[i];
+            checkRow(attacker);
+            checkRow(defender);
+            int attackerClass = classes[attacker];
+            int attackerRace = races[attacker];
+            int defenderRace = races[defender];
+            int defenderAlignment = alignmentIndexOf(defender);
+            lanes.rolls[i] = rolls[i];
+            lanes.attackModifiers[i] = attackModifiers[attacker] + ClassRules.bonusVersus(attackerClass, defenderAlignment)
+                    + Race.attackBonusVersus(attackerRace, defenderRace);
+            lanes.armorClasses[i] = ClassRules.armorClassAgainst(attackerClass, armorClasses[defender], dexterityModifiers[defender])
+                    + Race.armorBonusAgainst(defenderRace, attackerRace);
+            lanes.damages[i] = ClassRules.damage(attackerClass, defenderAlignment, damageModifiers[attacker] + Race.damageBonusVersus(attackerRace, defenderRace));
+            lanes.criticalMultipliers[i] = ClassRules.criticalMultiplier(attackerClass, defenderAlignment);
+            lanes.criticalThresholds[i] = Race.criticalThreshold(attackerRace);
+        }
+    }
+
+    /*
+     * Returns the damage dealt shifted left by one byte, with the outcome flags of CombatBatch in the low byte, in a
+     * long so that any int damage fits. Kept small, along with the methods it calls, so that it is inlined into the
+     * loop of a batch.
+     */
+    private long resolveAttack(int attacker, int defender, int roll) {
+        int attackerClass = classes[attacker];
+        int attackerRace = races[attacker];
+        int defenderRace = races[defender];
+        int defenderAlignment = alignmentIndexOf(defender);
+        int damageModifier = damageModifiers[attacker] + Race.damageBonusVersus(attackerRace, defenderRace);
+        byte outcome;
+        int damage;
+        if (CombatRules.isCriticalHit(roll, Race.criticalThreshold(attackerRace))) {
+            outcome = CombatBatch.HIT | CombatBatch.CRITICAL_HIT;
+            damage = ClassRules.criticalHitDamage(attackerClass, defenderAlignment, damageModifier);
+            listener.onCriticalHit(attacker, defender, damage);
+        } else if (hits(attackModifiers[attacker], attackerClass, attackerRace, defender, defenderRace, defenderAlignment, roll)) {
+            outcome = CombatBatch.HIT;
+            damage = ClassRules.hitDamage(attackerClass, defenderAlignment, damageModifier);
+            listener.onHit(attacker, defender, damage);
+        } else {
+            return CombatBatch.MISS;
+        }
+        return land(attacker, defender, damage, outcome);
+    }
+
+    /*
+     * A strike is an attack by a hero of another shard, see ShardWorker : it comes with the class, the race and the
+     * modifiers of its attacker, the damage is dealt here and the attacker gains its XP on its own shard.
+     */
+    byte resolveStrike(int attackerClass, int attackerRace, int attackModifier, int damageModifier, int defender, int roll) {
+        checkRow(defender);
+        int defenderRace = races[defender];
+        int defenderAlignment = alignmentIndexOf(defender);
+        int damageModifierVersus = damageModifier + Race.damageBonusVersus(attackerRace, defenderRace);
+        byte outcome;
+        int damage;
+        if (CombatRules.isCriticalHit(roll, Race.criticalThreshold(attackerRace))) {
+            outcome = CombatBatch.HIT | CombatBatch.CRITICAL_HIT;
+            damage = ClassRules.criticalHitDamage(attackerClass, defenderAlignment, damageModifierVersus);
+            listener.onCriticalHit(CombatListener.REMOTE_HERO, defender, damage);
+        } else if (hits(attackModifier, attackerClass, attackerRace, defender, defenderRace, defenderAlignment, roll)) {
+            outcome = CombatBatch.HIT;
+            damage = ClassRules.hitDamage(attackerClass, defenderAlignment, damageModifierVersus);
+            listener.onHit(CombatListener.REMOTE_HERO, defender, damage);
+        } else {
+            return CombatBatch.MISS;
+        }
+        boolean wasAlive = hitPoints[defender] > 0;
+        hitPoints[defender] -= damage;
+        if (wasAlive && hitPoints[defender] <= 0) {
+            outcome |= CombatBatch.KILLED;
+            listener.onDeath(defender, CombatListener.REMOTE_HERO);
+        }
+        if (CombatMetrics.isEnabled()) {
+            CombatMetrics.recordAttacks(1, 1, (outcome & CombatBatch.CRITICAL_HIT) >> 1, damage, (outcome & CombatBatch.KILLED) >> 2, 0);
+        }
+        return outcome;
+    }
+
+    private boolean hits(int attackerModifier, int attackerClass, int attackerRace, int defender, int defenderRace, int defenderAlignment, int roll) {
+        int attackModifier = attackerModifier + ClassRules.bonusVersus(attackerClass, defenderAlignment)
+                + Race.attackBonusVersus(attackerRace, defenderRace);
+        int armorClass = ClassRules.armorClassAgainst(attackerClass, armorClasses[defender], dexterityModifiers[defender])
+                + Race.armorBonusAgainst(defenderRace, attackerRace);
+        return CombatRules.isHit(roll, attackModifier, armorClass);
+    }
+
+    private long land(int attacker, int defender, int damage, byte outcome) {
+        boolean wasAlive = hitPoints[defender] > 0;
+        hitPoints[defender] -= damage;
+        if (wasAlive && hitPoints[defender] <= 0) {
+            outcome |= CombatBatch.KILLED;
+            listener.onDeath(defender, attacker);
+        }
+        if (gainXPUnchecked(attacker)) {
+            outcome |= CombatBatch.LEVEL_UP;
+        }
+        return (long) damage << Byte.SIZE | outcome;
+    }
+
+    /*
+     * Modifiers read by every attack are kept in their own columns, like the cached stats of a Hero.
+     */
+    private void refreshDerivedStats(int row) {
+        attackModifiers[row] = modifierOf(row, ClassRules.attackAbility(classes[row])) + attackBonuses[row];
+        damageModifiers[row] = modifierOf(row, STRENGTH);
+        dexterityModifiers[row] = modifierOf(row, DEXTERITY);
+    }
+
+    private int modifierOf(int row, int ability) {
+        return AbilityScore.modifierOf(abilityScores[row * ABILITY_COUNT + ability]) + Race.modifierDelta(races[row], ability);
+    }
+
+    private int alignmentIndexOf(int row) {
+        byte alignment = alignments[row];
+        return alignment == NO_ALIGNMENT ? ClassRules.NO_ALIGNMENT : alignment;
+    }
+
+    private static byte outcomeOf(long result) {
+        return (byte) result;
+    }
+
+    private static int damageOf(long result) {
+        return (int) (result >> Byte.SIZE);
+    }
+
+    public String getName(int row) {
+        return names[row];
+    }
+
+    public Alignment getAlignment(int row) {
+        byte alignment = alignments[row];
+        return alignment == NO_ALIGNMENT ? null : ALIGNMENTS[alignment];
+    }
+
+    public CharacterClass getCharacterClass(int row) {
+        return CharacterClass.byId(classes[row]);
+    }
+
+    public Race getRace(int row) {
+        return RACES[races[row]];
+    }
+
+    public int getArmorClass(int row) {
+        return armorClasses[row];
+    }
+
+    public int getHitPoints(int row) {
+        return hitPoints[row];
+    }
+
+    public long getXp(int row) {
+        return xp[row];
+    }
+
+    public int getLevel(int row) {
+        return levels[row];
+    }
+
+    public int getAttackBonus(int row) {
+        return attackBonuses[row];
+    }
+
+    byte getClassId(int row) {
+        return classes[row];
+    }
+
+    byte getRaceId(int row) {
+        return races[row];
+    }
+
+    int getAttackModifier(int row) {
+        return attackModifiers[row];
+    }
+
+    int getDamageModifier(int row) {
+        return damageModifiers[row];
+    }
+
+    public int getAbilityScore(int row, Ability ability) {
+        return abilityScores[row * ABILITY_COUNT + ability.ordinal()];
+    }
+
+    public int getModifier(int row, Ability ability) {
+        return modifierOf(row, ability.ordinal());
+    }
+
+    public int getStrengthModifier(int row) {
+        return getModifier(row, Ability.STRENGTH);
+    }
+
+    public int getConstitutionModifier(int row) {
+        return getModifier(row, Ability.CONSTITUTION);
+    }
+
+    public boolean isDead(int row) {
+        return hitPoints[row] <= 0;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("No hero at row " + row);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= names.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, names.length * 2);
+        names = Arrays.copyOf(names, newCapacity);
+        alignments = Arrays.copyOf(alignments, newCapacity);
+        classes = Arrays.copyOf(classes, newCapacity);
+        races = Arrays.copyOf(races, newCapacity);
+        armorClasses = Arrays.copyOf(armorClasses, newCapacity);
+        hitPoints = Arrays.copyOf(hitPoints, newCapacity);
+        xp = Arrays.copyOf(xp, newCapacity);
+        levels = Arrays.copyOf(levels, newCapacity);
+        attackBonuses = Arrays.copyOf(attackBonuses, newCapacity);
+        abilityScores = Arrays.copyOf(abilityScores, newCapacity * ABILITY_COUNT);
+        attackModifiers = Arrays.copyOf(attackModifiers, newCapacity);
+        damageModifiers = Arrays.copyOf(damageModifiers, newCapacity);
+        dexterityModifiers = Arrays.copyOf(dexterityModifiers, newCapacity);
+    }
+
+    public final class HeroView {
+        private int row;
+
+        private HeroView(int row) {
+            this.row = row;
+        }
+
+        public HeroView moveTo(int row) {
+            checkRow(row);
+            this.row = row;
+            return this;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getName() {
+            return HeroTable.this.getName(row);
+        }
+
+        public Alignment getAlignment() {
+            return HeroTable.this.getAlignment(row);
+        }
+
+        public CharacterClass getCharacterClass() {
+            return HeroTable.this.getCharacterClass(row);
+        }
+
+        public Race getRace() {
+            return HeroTable.this.getRace(row);
+        }
+
+        public int getArmorClass() {
+            return HeroTable.this.getArmorClass(row);
+        }
+
+        public int getHitPoints() {
+            return HeroTable.this.getHitPoints(row);
+        }
+
+        public long getXp() {
+            return HeroTable.this.getXp(row);
+        }
+
+        public int getLevel() {
+            return HeroTable.this.getLevel(row);
+        }
+
+        public int getAttackBonus() {
+            return HeroTable.this.getAttackBonus(row);
+        }
+
+        public int getModifier(Ability ability) {
+            return HeroTable.this.getModifier(row, ability);
+        }
+
+        public boolean isDead() {
+            return HeroTable.this.isDead(row);
+        }
+
+        private HeroTable table() {
+            return HeroTable.this;
+        }
+
+        public boolean attemptAttack(HeroView opponent, int roll) {
+            if (opponent.table() != HeroTable.this) {
+                throw new IllegalArgumentException("Both heroes should belong to the same table");
+            }
+            return HeroTable.this.attemptAttack(row, opponent.row, roll);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package net.daviddasilva;
+
+import java.util.Map;
+
+/**
+ * Something a hero can equip. A weapon's damage replaces the base damage of the class, the critical multiplier bonus
+ * is added to the one of the class, ability score bonuses raise the score (up to {@link AbilityScore#MAX_SCORE})
+ * before its modifier is looked up, and the other bonuses are added as they are.
+ * <p>
+ * A hero holds at most one item per slot, except for {@link Slot#ITEM} which holds any number of them.
+ */
+public record Item(String name, Slot slot, int damage, int attackBonus, int damageBonus, int criticalMultiplierBonus,
+                   int armorClassBonus, Map<Ability, Integer> abilityScoreBonuses) {
+
+    public enum Slot {
+        WEAPON, ARMOR, SHIELD, ITEM;
+
+        boolean isUnique() {
+            return this != ITEM;
+        }
+    }
+
+    public Item {
+        if (slot == null) {
+            throw new IllegalArgumentException("An item should have a slot");
+        }
+        if (damage < 0 || damage > 0 && slot != Slot.WEAPON) {
+            throw new IllegalArgumentException("Only weapons deal damage");
+        }
+        abilityScoreBonuses = Map.copyOf(abilityScoreBonuses);
+    }
+
+    public static Item weapon(String name, int damage, int bonus) {
+        return new Item(name, Slot.WEAPON, damage, bonus, bonus, 0, 0, Map.of());
+    }
+
+    public static Item armor(String name, int armorClassBonus) {
+        return new Item(name, Slot.ARMOR, 0, 0, 0, 0, armorClassBonus, Map.of());
+    }
+
+    public static Item longsword() {
+        return weapon("Longsword", 5, 0);
+    }
+
+    public static Item waraxe() {
+        return new Item("+2 Waraxe", Slot.WEAPON, 6, 2, 2, 1, 0, Map.of());
+    }
+
+    public static Item leatherArmor() {
+        return armor("Leather armor", 2);
+    }
+
+    public static Item plateArmor() {
+        return armor("Plate armor", 8);
+    }
+
+    public static Item shield() {
+        return new Item("Shield", Slot.SHIELD, 0, -4, 0, 0, 3, Map.of());
+    }
+
+    public static Item ringOfProtection() {
+        return new Item("Ring of protection", Slot.ITEM, 0, 0, 0, 0, 2, Map.of());
+    }
+
+    public static Item beltOfGiantStrength() {
+        return new Item("Belt of giant strength", Slot.ITEM, 0, 0, 0, 0, 0, Map.of(Ability.STRENGTH, 4));
+    }
+}
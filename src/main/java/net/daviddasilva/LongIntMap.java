@@ -0,0 +1,86 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+
+/**
+ * Non-negative ints by long key, in open addressing over primitive arrays : a lookup neither boxes its key nor
+ * follows a pointer. Keys are never removed, a free slot is one holding {@link #MISSING}.
+ */
+final class LongIntMap {
+
+    static final int MISSING = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long FIBONACCI = 0x9e3779b97f4a7c15L;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] values = newValues(INITIAL_CAPACITY);
+    private int shift = Long.SIZE - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+    private int size;
+
+    /**
+     * The value of the key, or {@link #MISSING}.
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            int value = values[slot];
+            if (value == MISSING || keys[slot] == key) {
+                return value;
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value should not be negative, got " + value);
+        }
+        // kept at most half full, so that probes stay short
+        if (2 * (size + 1) > keys.length) {
+            grow();
+        }
+        if (insert(key, value)) {
+            size++;
+        }
+    }
+
+    private boolean insert(long key, int value) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        return true;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[2 * oldKeys.length];
+        values = newValues(keys.length);
+        shift--;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] != MISSING) {
+                insert(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    /*
+     * Fibonacci hashing spreads the consecutive ids of a shard over the whole table.
+     */
+    private int slotOf(long key) {
+        return (int) ((key * FIBONACCI) >>> shift);
+    }
+
+    private static int[] newValues(int capacity) {
+        int[] values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        return values;
+    }
+}
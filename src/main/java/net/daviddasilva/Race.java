@@ -0,0 +1,90 @@
+package net.daviddasilva;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Races change ability modifiers and armor class once, when a hero is built, and give situational bonuses against
+ * other races. Those are kept in dense race by race tables indexed by ordinal, so an attack reads one int per bonus.
+ */
+public enum Race {
+    HUMAN(new int[]{0, 0, 0, 0, 0, 0}, 0, 0, false, EnumSet.noneOf(Alignment.class)),
+    ORC(new int[]{2, 0, 0, -1, -1, -1}, 2, 0, false, EnumSet.noneOf(Alignment.class)),
+    DWARF(new int[]{0, 0, 1, 0, 0, -1}, 0, 0, true, EnumSet.noneOf(Alignment.class)),
+    ELF(new int[]{0, 1, -1, 0, 0, 0}, 0, 1, false, EnumSet.noneOf(Alignment.class)),
+    HALFLING(new int[]{-1, 1, 0, 0, 0, 0}, 0, 0, false, EnumSet.of(Alignment.EVIL));
+
+    private static final Race[] RACES_BY_ORDINAL = values();
+    private static final int RACES = RACES_BY_ORDINAL.length;
+    private static final int VERSUS_BONUS = 2;
+    private static final int[] ATTACK_BONUSES_VERSUS = new int[RACES * RACES];
+    private static final int[] DAMAGE_BONUSES_VERSUS = new int[RACES * RACES];
+    private static final int[] ARMOR_BONUSES_AGAINST = new int[RACES * RACES];
+    private static final int[] CRITICAL_THRESHOLDS = new int[RACES];
+
+    static {
+        // attacker * RACES + defender
+        ATTACK_BONUSES_VERSUS[DWARF.ordinal() * RACES + ORC.ordinal()] = VERSUS_BONUS;
+        DAMAGE_BONUSES_VERSUS[DWARF.ordinal() * RACES + ORC.ordinal()] = VERSUS_BONUS;
+        // defender * RACES + attacker
+        ARMOR_BONUSES_AGAINST[ELF.ordinal() * RACES + ORC.ordinal()] = VERSUS_BONUS;
+        for (Race attacker : values()) {
+            if (attacker != HALFLING) {
+                ARMOR_BONUSES_AGAINST[HALFLING.ordinal() * RACES + attacker.ordinal()] = VERSUS_BONUS;
+            }
+        }
+        for (Race race : values()) {
+            CRITICAL_THRESHOLDS[race.ordinal()] = Hero.NAT_20 - race.criticalRange;
+        }
+    }
+
+    private final int[] modifierDeltas;
+    private final int armorClassBonus;
+    private final int criticalRange;
+    private final boolean doublesConstitutionForHitPoints;
+    private final Set<Alignment> forbiddenAlignments;
+
+    Race(int[] modifierDeltas, int armorClassBonus, int criticalRange, boolean doublesConstitutionForHitPoints, Set<Alignment> forbiddenAlignments) {
+        this.modifierDeltas = modifierDeltas;
+        this.armorClassBonus = armorClassBonus;
+        this.criticalRange = criticalRange;
+        this.doublesConstitutionForHitPoints = doublesConstitutionForHitPoints;
+        this.forbiddenAlignments = forbiddenAlignments;
+    }
+
+    public int getModifierDelta(Ability ability) {
+        return modifierDeltas[ability.ordinal()];
+    }
+
+    public int getArmorClassBonus() {
+        return armorClassBonus;
+    }
+
+    public boolean allows(Alignment alignment) {
+        return !forbiddenAlignments.contains(alignment);
+    }
+
+    int hitPointsModifier(int constitutionModifier) {
+        return doublesConstitutionForHitPoints && constitutionModifier > 0 ? constitutionModifier * 2 : constitutionModifier;
+    }
+
+    static int modifierDelta(int race, int ability) {
+        return RACES_BY_ORDINAL[race].modifierDeltas[ability];
+    }
+
+    static int attackBonusVersus(int attacker, int defender) {
+        return ATTACK_BONUSES_VERSUS[attacker * RACES + defender];
+    }
+
+    static int damageBonusVersus(int attacker, int defender) {
+        return DAMAGE_BONUSES_VERSUS[attacker * RACES + defender];
+    }
+
+    static int armorBonusAgainst(int defender, int attacker) {
+        return ARMOR_BONUSES_AGAINST[defender * RACES + attacker];
+    }
+
+    static int criticalThreshold(int race) {
+        return CRITICAL_THRESHOLDS[race];
+    }
+}
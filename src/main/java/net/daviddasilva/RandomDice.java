@@ -0,0 +1,23 @@
+package net.daviddasilva;
+
+import java.util.SplittableRandom;
+
+final class RandomDice implements Dice {
+
+    static final RandomDice INSTANCE = new RandomDice();
+
+    private static final ThreadLocal<SeededDice> DICE = ThreadLocal.withInitial(() -> new SeededDice(new SplittableRandom().nextLong()));
+
+    private RandomDice() {
+    }
+
+    @Override
+    public int rollD20() {
+        return DICE.get().rollD20();
+    }
+
+    @Override
+    public void rollD20(int[] rolls, int from, int to) {
+        DICE.get().rollD20(rolls, from, to);
+    }
+}
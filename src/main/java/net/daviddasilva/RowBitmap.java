@@ -0,0 +1,35 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+
+/**
+ * One bit per row of a {@link HeroTable}, in words growing with the rows set.
+ */
+final class RowBitmap {
+
+    private long[] words = new long[0];
+
+    void set(int row) {
+        int word = row >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        words[word] |= 1L << row;
+    }
+
+    void clear(int row) {
+        int word = row >>> 6;
+        if (word < words.length) {
+            words[word] &= ~(1L << row);
+        }
+    }
+
+    boolean get(int row) {
+        int word = row >>> 6;
+        return word < words.length && (words[word] & 1L << row) != 0;
+    }
+
+    long word(int word) {
+        return word < words.length ? words[word] : 0;
+    }
+}
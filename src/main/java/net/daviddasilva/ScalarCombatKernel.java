@@ -0,0 +1,27 @@
+package net.daviddasilva;
+
+import static net.daviddasilva.Hero.BASE_DAMAGE;
+
+final class ScalarCombatKernel implements CombatKernel {
+
+    static final ScalarCombatKernel INSTANCE = new ScalarCombatKernel();
+
+    private ScalarCombatKernel() {
+    }
+
+    @Override
+    public void resolve(CombatLanes lanes) {
+        resolve(lanes, 0, lanes.size);
+    }
+
+    static void resolve(CombatLanes lanes, int from, int to) {
+        for (int lane = from; lane < to; lane++) {
+            int roll = lanes.rolls[lane];
+            boolean criticalHit = roll >= lanes.criticalThresholds[lane];
+            boolean hit = criticalHit || roll + lanes.attackModifiers[lane] >= lanes.armorClasses[lane];
+            int damage = criticalHit ? lanes.criticalMultipliers[lane] * lanes.damages[lane] : lanes.damages[lane];
+            lanes.damagesDealt[lane] = hit ? (damage <= 0 ? BASE_DAMAGE : damage) : 0;
+            lanes.outcomes[lane] = criticalHit ? CombatBatch.HIT | CombatBatch.CRITICAL_HIT : hit ? CombatBatch.HIT : CombatBatch.MISS;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package net.daviddasilva;
+
+final class ScriptedDice implements Dice {
+
+    private final int[] rolls;
+    private int next;
+
+    ScriptedDice(int... rolls) {
+        if (rolls.length == 0) {
+            throw new IllegalArgumentException("Scripted dice need at least one roll");
+        }
+        for (int roll : rolls) {
+            if (roll < 1 || roll > D20) {
+                throw new IllegalArgumentException("A d20 cannot roll " + roll);
+            }
+        }
+        this.rolls = rolls.clone();
+    }
+
+    @Override
+    public int rollD20() {
+        int roll = rolls[next];
+        next = next + 1 == rolls.length ? 0 : next + 1;
+        return roll;
+    }
+}
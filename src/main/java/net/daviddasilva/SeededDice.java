@@ -0,0 +1,66 @@
+package net.daviddasilva;
+
+/**
+ * SplitMix64, the generator of {@link java.util.SplittableRandom}, written out so bulk rolls can compute the
+ * generator outputs independently of each other. Every 64 bits output gives two rolls, the low half first, and a
+ * roll is made from 32 bits by multiply-shift, whose bias of at most 20 in 2^32 does not matter for a game. When the
+ * JVM runs with the vector module, see {@link CombatKernel#isVectorAvailable()}, bulk rolls compute whole vectors of
+ * outputs at once and leave the pairs past the last vector to the plain loop.
+ */
+final class SeededDice implements Dice {
+
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    static final long MIX_MULTIPLIER_1 = 0xbf58476d1ce4e5b9L;
+    static final long MIX_MULTIPLIER_2 = 0x94d049bb133111ebL;
+    private static final boolean VECTOR = CombatKernel.isVectorAvailable();
+
+    private long seed;
+    private long pendingBits;
+    private boolean pending;
+
+    SeededDice(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public int rollD20() {
+        if (pending) {
+            pending = false;
+            return toD20(pendingBits >>> Integer.SIZE);
+        }
+        pendingBits = mix64(seed += GOLDEN_GAMMA);
+        pending = true;
+        return toD20(pendingBits);
+    }
+
+    @Override
+    public void rollD20(int[] rolls, int from, int to) {
+        int i = from;
+        if (pending && i < to) {
+            rolls[i++] = rollD20();
+        }
+        int pairs = (to - i) >>> 1;
+        long base = seed;
+        int pair = VECTOR ? VectorDice.rollPairs(base, rolls, i, pairs) : 0;
+        for (; pair < pairs; pair++) {
+            long bits = mix64(base + (pair + 1) * GOLDEN_GAMMA);
+            rolls[i + 2 * pair] = toD20(bits);
+            rolls[i + 2 * pair + 1] = toD20(bits >>> Integer.SIZE);
+        }
+        seed = base + pairs * GOLDEN_GAMMA;
+        i += 2 * pairs;
+        if (i < to) {
+            rolls[i] = rollD20();
+        }
+    }
+
+    private static int toD20(long bits) {
+        return (int) (((bits & 0xFFFF_FFFFL) * D20) >>> Integer.SIZE) + 1;
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * MIX_MULTIPLIER_1;
+        z = (z ^ (z >>> 27)) * MIX_MULTIPLIER_2;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,141 @@
+package net.daviddasilva;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Binary messages between a {@link ShardedWorld} and one of its {@link ShardWorker}s. Every message is a frame of
+ * its length, its type and its payload, and every request gets one reply, big endian all along.
+ * <pre>
+ * frame     length:4 (of what follows) type:1 payload
+ * SPAWN     count:4 then per hero  id:8 and its HeroCodec snapshot                   replied by DONE
+ * ATTACK    count:4 then per attack  attacker:8 defender:8 roll:1                    replied by STRIKES
+ * STRIKES   hits:4 count:4 then per strike  attacker:8 defender:8 roll:1 class:1 race:1 attackModifier:4 damageModifier:4
+ * STRIKE    count:4 then strikes as in STRIKES                                       replied by OUTCOMES
+ * OUTCOMES  count:4 then per strike  outcome:1 made of the flags of CombatBatch
+ * GAIN_XP   count:4 then per hero  id:8                                              replied by DONE
+ * GET       id:8                                                                     replied by HERO
+ * HERO      the HeroCodec snapshot of the hero
+ * STOP      no payload and no reply
+ * ERROR     message, written as a HeroCodec name, replacing the reply of a request that failed
+ * </pre>
+ * A connection is used by one thread at a time. The frame being written and the last frame received are kept in
+ * buffers reused from one message to the next.
+ */
+final class ShardConnection implements Closeable {
+
+    static final byte SPAWN = 1;
+    static final byte ATTACK = 2;
+    static final byte STRIKES = 3;
+    static final byte STRIKE = 4;
+    static final byte OUTCOMES = 5;
+    static final byte GAIN_XP = 6;
+    static final byte GET = 7;
+    static final byte HERO = 8;
+    static final byte DONE = 9;
+    static final byte STOP = 10;
+    static final byte ERROR = 11;
+    static final int ATTACK_SIZE = 2 * Long.BYTES + 1;
+    static final int STRIKE_SIZE = 2 * Long.BYTES + 3 + 2 * Integer.BYTES;
+    static final int COUNT_SIZE = Integer.BYTES;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final SocketChannel channel;
+    private ByteBuffer out = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private ByteBuffer in = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+
+    ShardConnection(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        if (channel.getLocalAddress() instanceof InetSocketAddress) {
+            // a request waits for its reply, there is nothing to gain in waiting for more bytes to send
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+    }
+
+    /**
+     * Starts a frame with room for the given payload, to be filled in the returned buffer then sent.
+     */
+    ByteBuffer begin(byte type, int payloadSize) {
+        int frameSize = LENGTH_SIZE + 1 + payloadSize;
+        if (out.capacity() < frameSize) {
+            out = ByteBuffer.allocateDirect(Math.max(frameSize, 2 * out.capacity()));
+        }
+        out.clear();
+        out.position(LENGTH_SIZE);
+        out.put(type);
+        return out;
+    }
+
+    void send() throws IOException {
+        out.flip();
+        out.putInt(0, out.limit() - LENGTH_SIZE);
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+    }
+
+    void send(byte type) throws IOException {
+        begin(type, 0);
+        send();
+    }
+
+    void sendError(String message) throws IOException {
+        String truncated = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+        HeroCodec.writeName(truncated, begin(ERROR, Short.BYTES + 3 * truncated.length()));
+        send();
+    }
+
+    /**
+     * Reads the next frame and returns its type, its payload being left in {@link #in()}.
+     */
+    byte receive() throws IOException {
+        in.clear().limit(LENGTH_SIZE);
+        readFully();
+        int length = in.getInt(0);
+        if (in.capacity() < length) {
+            in = ByteBuffer.allocateDirect(Math.max(length, 2 * in.capacity()));
+        }
+        in.clear().limit(length);
+        readFully();
+        in.flip();
+        return in.get();
+    }
+
+    /**
+     * Reads the reply to a request, failing with the message of the worker when the request failed.
+     */
+    ByteBuffer expect(byte type, int shard) throws IOException {
+        byte received = receive();
+        if (received == ERROR) {
+            throw new IllegalStateException("Shard " + shard + " failed: " + HeroCodec.readName(in));
+        }
+        if (received != type) {
+            throw new IllegalStateException("Shard " + shard + " replied " + received + " instead of " + type);
+        }
+        return in;
+    }
+
+    ByteBuffer in() {
+        return in;
+    }
+
+    private void readFully() throws IOException {
+        while (in.hasRemaining()) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Shard connection closed");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,50 @@
+package net.daviddasilva;
+
+import java.util.Arrays;
+
+/**
+ * Consistent hashing of hero ids to shards. Every shard owns {@link #POINTS_PER_SHARD} points on a ring of 64-bit
+ * hashes and a hero belongs to the shard of the first point at or after the hash of its id, so heroes spread evenly
+ * and a ring with one more shard only moves to it about a share of the heroes, the others staying where they were.
+ */
+public final class ShardRing {
+
+    static final int POINTS_PER_SHARD = 128;
+    private static final long POINT_SALT = 0x632be59bd9b4e019L;
+
+    private final int shards;
+    private final long[] points;
+    private final int[] owners;
+
+    public ShardRing(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("A ring should have at least one shard");
+        }
+        this.shards = shards;
+        long[] keyed = new long[shards * POINTS_PER_SHARD];
+        Integer[] sorted = new Integer[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            keyed[i] = SeededDice.mix64(i ^ POINT_SALT);
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (first, second) -> Long.compare(keyed[first], keyed[second]));
+        this.points = new long[keyed.length];
+        this.owners = new int[keyed.length];
+        for (int i = 0; i < sorted.length; i++) {
+            points[i] = keyed[sorted[i]];
+            owners[i] = sorted[i] / POINTS_PER_SHARD;
+        }
+    }
+
+    public int shardOf(long heroId) {
+        int point = Arrays.binarySearch(points, SeededDice.mix64(heroId));
+        if (point < 0) {
+            point = -point - 1;
+        }
+        return owners[point == points.length ? 0 : point];
+    }
+
+    public int shards() {
+        return shards;
+    }
+}
@@ -0,0 +1,49 @@
+package net.daviddasilva;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * How the shards of a {@link ShardedWorld} are reached. A worker binds a server channel and tells its address as a
+ * line of text, which the world resolves to connect to it.
+ */
+public interface ShardTransport {
+
+    ServerSocketChannel bind(int shard) throws IOException;
+
+    String describe(SocketAddress address);
+
+    SocketAddress resolve(String description);
+
+    /**
+     * The command line arguments of a worker process binding this way, read back by {@link #of(String...)}.
+     */
+    List<String> arguments();
+
+    /**
+     * TCP on the loopback interface, each shard on a port picked by the system.
+     */
+    static ShardTransport loopback() {
+        return TcpShardTransport.INSTANCE;
+    }
+
+    /**
+     * Unix domain sockets, one file per shard in the given directory.
+     */
+    static ShardTransport unixDomain(Path directory) {
+        return new UnixDomainShardTransport(directory);
+    }
+
+    static ShardTransport of(String... arguments) {
+        if (arguments.length == 1 && arguments[0].equals(TcpShardTransport.NAME)) {
+            return loopback();
+        }
+        if (arguments.length == 2 && arguments[0].equals(UnixDomainShardTransport.NAME)) {
+            return unixDomain(Path.of(arguments[1]));
+        }
+        throw new IllegalArgumentException("Unknown shard transport " + List.of(arguments));
+    }
+}
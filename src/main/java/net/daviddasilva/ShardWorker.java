@@ -0,0 +1,171 @@
+package net.daviddasilva;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * One shard of a {@link ShardedWorld} : owns its heroes in a {@link HeroTable} and serves the requests of the world,
+ * see {@link ShardConnection} for the messages, until it is told to stop. Runs in its own process, started by
+ * {@link ShardedWorld#launch(int, ShardTransport)}, or on a thread of the world.
+ * <pre>
+ * java net.daviddasilva.ShardWorker shard tcp
+ * java net.daviddasilva.ShardWorker shard unix directory
+ * </pre>
+ * Prints the address it listens on as its first line, then serves the first connection it accepts.
+ */
+public final class ShardWorker implements Runnable {
+
+    private final ServerSocketChannel server;
+    private final HeroTable table = new HeroTable();
+    private final LongIntMap rows = new LongIntMap();
+
+    ShardWorker(ServerSocketChannel server) {
+        this.server = server;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ShardWorker shard (tcp | unix directory)");
+            System.exit(2);
+        }
+        var transport = ShardTransport.of(Arrays.copyOfRange(args, 1, args.length));
+        var server = transport.bind(Integer.parseInt(args[0]));
+        System.out.println(transport.describe(server.getLocalAddress()));
+        System.out.flush();
+        new ShardWorker(server).run();
+    }
+
+    @Override
+    public void run() {
+        try {
+            var address = server.getLocalAddress();
+            try (server; var connection = new ShardConnection(server.accept())) {
+                serve(connection);
+            } finally {
+                // the file of a unix domain socket outlives its channel
+                if (address instanceof UnixDomainSocketAddress socket) {
+                    Files.deleteIfExists(socket.getPath());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void serve(ShardConnection connection) throws IOException {
+        while (true) {
+            byte type;
+            try {
+                type = connection.receive();
+            } catch (EOFException e) {
+                return;
+            }
+            if (type == ShardConnection.STOP) {
+                return;
+            }
+            try {
+                handle(type, connection.in(), connection);
+            } catch (RuntimeException e) {
+                connection.sendError(String.valueOf(e.getMessage()));
+            }
+        }
+    }
+
+    private void handle(byte type, ByteBuffer in, ShardConnection connection) throws IOException {
+        switch (type) {
+            case ShardConnection.SPAWN -> spawn(in, connection);
+            case ShardConnection.ATTACK -> attack(in, connection);
+            case ShardConnection.STRIKE -> strike(in, connection);
+            case ShardConnection.GAIN_XP -> gainXP(in, connection);
+            case ShardConnection.GET -> get(in, connection);
+            default -> throw new IllegalArgumentException("Unknown request " + type);
+        }
+    }
+
+    private void spawn(ByteBuffer in, ShardConnection connection) throws IOException {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            long id = in.getLong();
+            rows.put(id, table.add(HeroCodec.read(in)));
+        }
+        connection.send(ShardConnection.DONE);
+    }
+
+    /*
+     * Attacks between two heroes of this shard are resolved here, in order. The others become strikes, carrying what
+     * the defender shard needs of the attacker as it is at its turn.
+     */
+    private void attack(ByteBuffer in, ShardConnection connection) throws IOException {
+        int count = in.getInt();
+        var out = connection.begin(ShardConnection.STRIKES, 2 * ShardConnection.COUNT_SIZE + count * ShardConnection.STRIKE_SIZE);
+        int header = out.position();
+        out.position(header + 2 * ShardConnection.COUNT_SIZE);
+        int hits = 0;
+        int strikes = 0;
+        for (int i = 0; i < count; i++) {
+            long attackerId = in.getLong();
+            long defenderId = in.getLong();
+            byte roll = in.get();
+            int attacker = rowOf(attackerId);
+            int defender = rows.get(defenderId);
+            if (defender != LongIntMap.MISSING) {
+                if (table.attemptAttack(attacker, defender, roll)) {
+                    hits++;
+                }
+                continue;
+            }
+            out.putLong(attackerId).putLong(defenderId).put(roll)
+               .put(table.getClassId(attacker)).put(table.getRaceId(attacker))
+               .putInt(table.getAttackModifier(attacker)).putInt(table.getDamageModifier(attacker));
+            strikes++;
+        }
+        out.putInt(header, hits);
+        out.putInt(header + ShardConnection.COUNT_SIZE, strikes);
+        connection.send();
+    }
+
+    private void strike(ByteBuffer in, ShardConnection connection) throws IOException {
+        int count = in.getInt();
+        var out = connection.begin(ShardConnection.OUTCOMES, ShardConnection.COUNT_SIZE + count);
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            in.getLong();
+            int defender = rowOf(in.getLong());
+            byte roll = in.get();
+            byte attackerClass = in.get();
+            byte attackerRace = in.get();
+            int attackModifier = in.getInt();
+            int damageModifier = in.getInt();
+            out.put(table.resolveStrike(attackerClass, attackerRace, attackModifier, damageModifier, defender, roll));
+        }
+        connection.send();
+    }
+
+    private void gainXP(ByteBuffer in, ShardConnection connection) throws IOException {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            table.gainXP(rowOf(in.getLong()));
+        }
+        connection.send(ShardConnection.DONE);
+    }
+
+    private void get(ByteBuffer in, ShardConnection connection) throws IOException {
+        var hero = table.toHero(rowOf(in.getLong()));
+        HeroCodec.write(hero, connection.begin(ShardConnection.HERO, HeroCodec.encodedSize(hero)));
+        connection.send();
+    }
+
+    private int rowOf(long id) {
+        int row = rows.get(id);
+        if (row == LongIntMap.MISSING) {
+            throw new IllegalArgumentException("No hero with id " + id + " on this shard");
+        }
+        return row;
+    }
+}
@@ -0,0 +1,465 @@
+package net.daviddasilva;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A world of heroes too large for one JVM, split across shards. {@link ShardRing} gives every hero id its shard,
+ * which runs as a {@link ShardWorker} in its own process, or on a thread for tests, and is reached through a
+ * {@link ShardTransport}.
+ * <p>
+ * Heroes are spawned and attacks queued, then {@link #tick()} resolves the queued attacks in three batched round trips,
+ * all shards working at the same time : every shard resolves in order the attacks between two of its own heroes and
+ * turns the others into strikes carrying their attacker, the shards of the defenders resolve the strikes and deal
+ * their damage, then the shards of the attackers that hit grant them their XP. An attack across shards therefore
+ * sees its attacker as it was at its turn, its defender once the attacks within the defender shard are over, and its
+ * XP is gained at the end of the tick.
+ * <p>
+ * When a shard fails a request, the replies of the other shards are still read, so that every connection is ready for
+ * the next request, and what was queued is dropped before the first failure is thrown. The attacks resolved by then
+ * stay resolved : a failed tick can be partly applied.
+ * <p>
+ * A world is used by one thread.
+ */
+public final class ShardedWorld implements Closeable {
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ShardRing ring;
+    private final Shard[] shards;
+    private long size;
+    private Exception failure;
+
+    private ShardedWorld(Shard[] shards) {
+        this.ring = new ShardRing(shards.length);
+        this.shards = shards;
+    }
+
+    /**
+     * Starts every shard in a worker process of its own, running the same Java and class path as this one.
+     */
+    public static ShardedWorld launch(int shards, ShardTransport transport) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        return open(shards, index -> {
+            List<String> command = new ArrayList<>(List.of(java, "-cp", classPath, ShardWorker.class.getName(), Integer.toString(index)));
+            command.addAll(transport.arguments());
+            var process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            try {
+                var output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+                String address = output.readLine();
+                if (address == null) {
+                    throw new IOException("Shard worker " + index + " exited before listening");
+                }
+                return new Shard(index, new ShardConnection(SocketChannel.open(transport.resolve(address))), process, null);
+            } catch (IOException | RuntimeException e) {
+                process.destroyForcibly();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Starts every shard on a thread of this JVM, still talking to it through the transport.
+     */
+    public static ShardedWorld start(int shards, ShardTransport transport) throws IOException {
+        return start(shards, transport, (index, server) -> new ShardWorker(server));
+    }
+
+    /**
+     * Starts every shard on a thread running the worker made for it, which serves the server socket it is given.
+     */
+    static ShardedWorld start(int shards, ShardTransport transport, Workers workers) throws IOException {
+        return open(shards, index -> {
+            var server = transport.bind(index);
+            var worker = new Thread(workers.of(index, server), "shard-worker-" + index);
+            worker.setDaemon(true);
+            worker.start();
+            return new Shard(index, new ShardConnection(SocketChannel.open(server.getLocalAddress())), null, worker);
+        });
+    }
+
+    private static ShardedWorld open(int count, Starter starter) throws IOException {
+        if (count < 1) {
+            throw new IllegalArgumentException("A world should have at least one shard");
+        }
+        var shards = new Shard[count];
+        try {
+            for (int index = 0; index < count; index++) {
+                shards[index] = starter.start(index);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Shard shard : shards) {
+                if (shard != null) {
+                    try {
+                        shard.stop();
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+            }
+            throw e;
+        }
+        return new ShardedWorld(shards);
+    }
+
+    /**
+     * Gives the hero its id and queues it for its shard, which gets it before the next request.
+     */
+    public long spawn(Hero hero) {
+        long id = size++;
+        shards[ring.shardOf(id)].queueSpawn(id, hero);
+        return id;
+    }
+
+    public void attack(long attacker, long defender, int roll) {
+        checkHero(attacker);
+        checkHero(defender);
+        shards[ring.shardOf(attacker)].queueAttack(attacker, defender, roll);
+    }
+
+    /**
+     * Resolves the attacks queued since the last tick and returns how many of them hit.
+     */
+    public int tick() throws IOException {
+        flushSpawns();
+        int hits = 0;
+        for (Shard shard : shards) {
+            if (shard.attacks > 0) {
+                send(shard, Shard::sendAttacks);
+            }
+        }
+        for (Shard shard : shards) {
+            var in = receive(shard, ShardConnection.STRIKES);
+            if (in != null) {
+                hits += in.getInt();
+                int count = in.getInt();
+                for (int strike = 0; strike < count; strike++) {
+                    shards[ring.shardOf(in.getLong(in.position() + strike * ShardConnection.STRIKE_SIZE + Long.BYTES))].strikes++;
+                }
+            }
+        }
+        checkRoundTrip();
+        for (Shard shard : shards) {
+            if (shard.strikes > 0) {
+                shard.beginStrikes();
+            }
+        }
+        for (Shard shard : shards) {
+            if (shard.attacks > 0) {
+                routeStrikes(shard.connection.in());
+                shard.attacks = 0;
+            }
+        }
+        for (Shard shard : shards) {
+            if (shard.strikes > 0) {
+                send(shard, Shard::sendStrikes);
+            }
+        }
+        for (Shard shard : shards) {
+            var in = receive(shard, ShardConnection.OUTCOMES);
+            if (in != null) {
+                int count = in.getInt();
+                for (int strike = 0; strike < count; strike++) {
+                    if ((in.get() & CombatBatch.HIT) != 0) {
+                        long attacker = shard.strikeAttackers[strike];
+                        shards[ring.shardOf(attacker)].queueGain(attacker);
+                        hits++;
+                    }
+                }
+            }
+            shard.strikes = 0;
+        }
+        checkRoundTrip();
+        for (Shard shard : shards) {
+            if (shard.gains > 0) {
+                send(shard, Shard::sendGains);
+            }
+        }
+        for (Shard shard : shards) {
+            receive(shard, ShardConnection.DONE);
+            shard.gains = 0;
+        }
+        checkRoundTrip();
+        return hits;
+    }
+
+    /**
+     * A copy of the hero as of the last tick.
+     */
+    public Hero hero(long id) throws IOException {
+        checkHero(id);
+        flushSpawns();
+        var shard = shards[ring.shardOf(id)];
+        shard.connection.begin(ShardConnection.GET, Long.BYTES).putLong(id);
+        shard.connection.send();
+        return HeroCodec.read(shard.connection.expect(ShardConnection.HERO, shard.index));
+    }
+
+    public int shardOf(long id) {
+        return ring.shardOf(id);
+    }
+
+    public int shards() {
+        return shards.length;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Shard shard : shards) {
+            try {
+                shard.stop();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void flushSpawns() throws IOException {
+        for (Shard shard : shards) {
+            if (!shard.spawns.isEmpty()) {
+                send(shard, Shard::sendSpawns);
+            }
+        }
+        for (Shard shard : shards) {
+            receive(shard, ShardConnection.DONE);
+            shard.spawns.clear();
+        }
+        checkRoundTrip();
+    }
+
+    private void send(Shard shard, Request request) {
+        try {
+            request.send(shard);
+            shard.awaitingReply = true;
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /*
+     * The reply of a shard that was sent a request, null when it was not sent one or when it failed.
+     */
+    private ByteBuffer receive(Shard shard, byte type) {
+        if (!shard.awaitingReply) {
+            return null;
+        }
+        shard.awaitingReply = false;
+        try {
+            return shard.connection.expect(type, shard.index);
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+            return null;
+        }
+    }
+
+    private void fail(Exception e) {
+        if (failure == null) {
+            failure = e;
+        } else {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /*
+     * Once every reply of a round trip is read, drops what was queued for the next ones if a shard failed and throws.
+     */
+    private void checkRoundTrip() throws IOException {
+        if (failure == null) {
+            return;
+        }
+        var thrown = failure;
+        failure = null;
+        for (Shard shard : shards) {
+            shard.spawns.clear();
+            shard.attacks = 0;
+            shard.strikes = 0;
+            shard.gains = 0;
+        }
+        if (thrown instanceof IOException e) {
+            throw e;
+        }
+        throw (RuntimeException) thrown;
+    }
+
+    /*
+     * Copies the strikes of a STRIKES reply into the frames of the shards of their defenders.
+     */
+    private void routeStrikes(ByteBuffer in) {
+        int count = in.getInt(1 + ShardConnection.COUNT_SIZE);
+        int position = 1 + 2 * ShardConnection.COUNT_SIZE;
+        for (int strike = 0; strike < count; strike++, position += ShardConnection.STRIKE_SIZE) {
+            var target = shards[ring.shardOf(in.getLong(position + Long.BYTES))];
+            target.strikeAttackers[target.strikes++] = in.getLong(position);
+            target.frame.put(target.frame.position(), in, position, ShardConnection.STRIKE_SIZE);
+            target.frame.position(target.frame.position() + ShardConnection.STRIKE_SIZE);
+        }
+    }
+
+    private void checkHero(long id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("No hero with id " + id);
+        }
+    }
+
+    private interface Starter {
+        Shard start(int index) throws IOException;
+    }
+
+    interface Workers {
+        Runnable of(int shard, ServerSocketChannel server);
+    }
+
+    private interface Request {
+        void send(Shard shard) throws IOException;
+    }
+
+    private static final class Shard {
+
+        private final int index;
+        private final ShardConnection connection;
+        private final Process process;
+        private final Thread thread;
+        private final List<Hero> spawns = new ArrayList<>();
+        private long[] spawnIds = new long[16];
+        private long[] attackers = new long[16];
+        private long[] defenders = new long[16];
+        private byte[] rolls = new byte[16];
+        private int attacks;
+        private ByteBuffer frame;
+        private long[] strikeAttackers = new long[16];
+        private int strikes;
+        private long[] gainers = new long[16];
+        private int gains;
+        private boolean awaitingReply;
+
+        private Shard(int index, ShardConnection connection, Process process, Thread thread) {
+            this.index = index;
+            this.connection = connection;
+            this.process = process;
+            this.thread = thread;
+        }
+
+        void queueSpawn(long id, Hero hero) {
+            if (spawns.size() == spawnIds.length) {
+                spawnIds = Arrays.copyOf(spawnIds, 2 * spawnIds.length);
+            }
+            spawnIds[spawns.size()] = id;
+            spawns.add(hero);
+        }
+
+        void sendSpawns() throws IOException {
+            int size = ShardConnection.COUNT_SIZE;
+            for (Hero hero : spawns) {
+                size += Long.BYTES + HeroCodec.encodedSize(hero);
+            }
+            var out = connection.begin(ShardConnection.SPAWN, size).putInt(spawns.size());
+            for (int i = 0; i < spawns.size(); i++) {
+                out.putLong(spawnIds[i]);
+                HeroCodec.write(spawns.get(i), out);
+            }
+            connection.send();
+        }
+
+        void queueAttack(long attacker, long defender, int roll) {
+            if (attacks == attackers.length) {
+                attackers = Arrays.copyOf(attackers, 2 * attacks);
+                defenders = Arrays.copyOf(defenders, 2 * attacks);
+                rolls = Arrays.copyOf(rolls, 2 * attacks);
+            }
+            attackers[attacks] = attacker;
+            defenders[attacks] = defender;
+            rolls[attacks] = (byte) roll;
+            attacks++;
+        }
+
+        void sendAttacks() throws IOException {
+            var out = connection.begin(ShardConnection.ATTACK, ShardConnection.COUNT_SIZE + attacks * ShardConnection.ATTACK_SIZE)
+                                .putInt(attacks);
+            for (int i = 0; i < attacks; i++) {
+                out.putLong(attackers[i]).putLong(defenders[i]).put(rolls[i]);
+            }
+            connection.send();
+        }
+
+        /*
+         * Strikes are counted first, so that the frame is sized once and they are copied straight into it.
+         */
+        void beginStrikes() {
+            frame = connection.begin(ShardConnection.STRIKE, ShardConnection.COUNT_SIZE + strikes * ShardConnection.STRIKE_SIZE)
+                              .putInt(strikes);
+            if (strikeAttackers.length < strikes) {
+                strikeAttackers = new long[Math.max(strikes, 2 * strikeAttackers.length)];
+            }
+            strikes = 0;
+        }
+
+        void sendStrikes() throws IOException {
+            connection.send();
+        }
+
+        void queueGain(long attacker) {
+            if (gains == gainers.length) {
+                gainers = Arrays.copyOf(gainers, 2 * gains);
+            }
+            gainers[gains++] = attacker;
+        }
+
+        void sendGains() throws IOException {
+            var out = connection.begin(ShardConnection.GAIN_XP, ShardConnection.COUNT_SIZE + gains * Long.BYTES).putInt(gains);
+            for (int i = 0; i < gains; i++) {
+                out.putLong(gainers[i]);
+            }
+            connection.send();
+        }
+
+        void stop() throws IOException {
+            try {
+                connection.send(ShardConnection.STOP);
+            } finally {
+                connection.close();
+                awaitExit();
+            }
+        }
+
+        private void awaitExit() {
+            try {
+                if (process != null && !process.waitFor(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+                if (thread != null) {
+                    thread.join(STOP_TIMEOUT.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (process != null) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package net.daviddasilva;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.List;
+
+final class TcpShardTransport implements ShardTransport {
+
+    static final String NAME = "tcp";
+    static final TcpShardTransport INSTANCE = new TcpShardTransport();
+
+    private TcpShardTransport() {
+    }
+
+    @Override
+    public ServerSocketChannel bind(int shard) throws IOException {
+        return ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @Override
+    public String describe(SocketAddress address) {
+        return Integer.toString(((InetSocketAddress) address).getPort());
+    }
+
+    @Override
+    public SocketAddress resolve(String description) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(description));
+    }
+
+    @Override
+    public List<String> arguments() {
+        return List.of(NAME);
+    }
+}
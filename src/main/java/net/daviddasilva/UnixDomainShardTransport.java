@@ -0,0 +1,44 @@
+package net.daviddasilva;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+final class UnixDomainShardTransport implements ShardTransport {
+
+    static final String NAME = "unix";
+
+    private final Path directory;
+
+    UnixDomainShardTransport(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public ServerSocketChannel bind(int shard) throws IOException {
+        Path socket = directory.resolve("shard-" + shard + ".sock");
+        // left behind by a worker that did not exit cleanly
+        Files.deleteIfExists(socket);
+        return ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(socket));
+    }
+
+    @Override
+    public String describe(SocketAddress address) {
+        return ((UnixDomainSocketAddress) address).getPath().toString();
+    }
+
+    @Override
+    public SocketAddress resolve(String description) {
+        return UnixDomainSocketAddress.of(description);
+    }
+
+    @Override
+    public List<String> arguments() {
+        return List.of(NAME, directory.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package net.daviddasilva;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static net.daviddasilva.Hero.BASE_DAMAGE;
+
+/*
+ * Only loaded once CombatKernel has checked that the incubator module is there. Lanes past the last full vector
+ * are left to the scalar kernel, int arithmetic wraps the same way in both so results are identical.
+ */
+final class VectorCombatKernel implements CombatKernel {
+
+    static final VectorCombatKernel INSTANCE = new VectorCombatKernel();
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorCombatKernel() {
+    }
+
+    @Override
+    public void resolve(CombatLanes lanes) {
+        IntVector miss = IntVector.zero(SPECIES);
+        IntVector hitOutcome = IntVector.broadcast(SPECIES, CombatBatch.HIT);
+        IntVector criticalHitOutcome = IntVector.broadcast(SPECIES, CombatBatch.HIT | CombatBatch.CRITICAL_HIT);
+        int bound = SPECIES.loopBound(lanes.size);
+        int lane = 0;
+        for (; lane < bound; lane += SPECIES.length()) {
+            IntVector rolls = IntVector.fromArray(SPECIES, lanes.rolls, lane);
+            VectorMask<Integer> criticalHit = rolls.compare(VectorOperators.GE, IntVector.fromArray(SPECIES, lanes.criticalThresholds, lane));
+            VectorMask<Integer> hit = rolls.add(IntVector.fromArray(SPECIES, lanes.attackModifiers, lane))
+                                           .compare(VectorOperators.GE, IntVector.fromArray(SPECIES, lanes.armorClasses, lane))
+                                           .or(criticalHit);
+            IntVector damages = IntVector.fromArray(SPECIES, lanes.damages, lane);
+            damages = damages.blend(damages.mul(IntVector.fromArray(SPECIES, lanes.criticalMultipliers, lane)), criticalHit);
+            miss.blend(damages.max(BASE_DAMAGE), hit).intoArray(lanes.damagesDealt, lane);
+            miss.blend(hitOutcome, hit).blend(criticalHitOutcome, criticalHit).intoArray(lanes.outcomes, lane);
+        }
+        ScalarCombatKernel.resolve(lanes, lane, lanes.size);
+    }
+}
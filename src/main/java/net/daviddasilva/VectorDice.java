@@ -0,0 +1,49 @@
+package net.daviddasilva;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.LSHR;
+import static jdk.incubator.vector.VectorOperators.XOR;
+import static net.daviddasilva.Dice.D20;
+import static net.daviddasilva.SeededDice.GOLDEN_GAMMA;
+import static net.daviddasilva.SeededDice.MIX_MULTIPLIER_1;
+import static net.daviddasilva.SeededDice.MIX_MULTIPLIER_2;
+
+/*
+ * Only loaded once CombatKernel has checked that the incubator module is there, like VectorCombatKernel. Each long
+ * lane is one SplitMix64 output, its two rolls are packed back in it low half first and the vector is reinterpreted
+ * as twice as many int lanes, which puts the rolls in the order SeededDice writes them.
+ */
+final class VectorDice {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final long LOW_HALF = 0xFFFF_FFFFL;
+
+    private VectorDice() {
+    }
+
+    /**
+     * Rolls the whole vectors of pairs that fit in the given pairs from rolls[from], the generator being at base, and
+     * returns how many pairs were rolled.
+     */
+    static int rollPairs(long base, int[] rolls, int from, int pairs) {
+        int bound = SPECIES.loopBound(pairs);
+        LongVector seeds = LongVector.zero(SPECIES).addIndex(1).add(1).mul(GOLDEN_GAMMA).add(base);
+        LongVector stride = LongVector.broadcast(SPECIES, SPECIES.length() * GOLDEN_GAMMA);
+        for (int pair = 0; pair < bound; pair += SPECIES.length()) {
+            LongVector bits = mix64(seeds);
+            LongVector low = bits.and(LOW_HALF).mul(D20).lanewise(LSHR, Integer.SIZE);
+            LongVector high = bits.lanewise(LSHR, Integer.SIZE).mul(D20).and(~LOW_HALF);
+            low.or(high).reinterpretAsInts().add(1).intoArray(rolls, from + 2 * pair);
+            seeds = seeds.add(stride);
+        }
+        return bound;
+    }
+
+    private static LongVector mix64(LongVector z) {
+        z = z.lanewise(XOR, z.lanewise(LSHR, 30)).mul(MIX_MULTIPLIER_1);
+        z = z.lanewise(XOR, z.lanewise(LSHR, 27)).mul(MIX_MULTIPLIER_2);
+        return z.lanewise(XOR, z.lanewise(LSHR, 31));
+    }
+}
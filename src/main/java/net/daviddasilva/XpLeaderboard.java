@@ -0,0 +1,389 @@
+package net.daviddasilva;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heroes ranked by experience, globally and within their alignment, kept up to date as tracked heroes gain XP.
+ * <p>
+ * Every board is split in stripes, a hero belonging to the stripe picked by the order it was tracked in. A stripe is a
+ * treap ordered by XP, then by tracking order, where every node knows the size of its subtree and every hero keeps its
+ * node. Gaining XP moves the node in O(log n), or only changes its XP when no other hero sits between its old and its
+ * new XP. The rank of a hero is the number of heroes ranked before it in every stripe, each counted in O(log n) by one
+ * walk down the treap, and the top heroes are merged from the top of every stripe, so nothing is ever sorted.
+ * <p>
+ * Each stripe has its own lock, so writers of heroes in different stripes do not wait for each other, and queries
+ * lock one stripe at a time. The leaderboard reads the XP of a hero under the lock of its stripe and never relies on
+ * a previous value, so it stays consistent whoever grants XP, but the XP of a hero is a plain field : it should be
+ * granted by one thread at a time, as {@link ConcurrentCombat} does, for no gain to be lost.
+ */
+public final class XpLeaderboard {
+
+    private static final int DEFAULT_STRIPES = 4;
+    private static final Comparator<Ranked> RANKING = Comparator.comparingLong(Ranked::xp).reversed().thenComparingLong(Ranked::id);
+
+    private final Board global;
+    private final Board[] alignments = new Board[ClassRules.ALIGNMENT_SLOTS];
+    private final AtomicLong ids = new AtomicLong();
+
+    public XpLeaderboard() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * More stripes let more writers through at once, but a rank or a top query visits every stripe.
+     */
+    public XpLeaderboard(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("There should be at least one stripe");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.global = new Board(size);
+        for (int alignment = 0; alignment < alignments.length; alignment++) {
+            alignments[alignment] = new Board(size);
+        }
+    }
+
+    public void track(Hero hero) {
+        if (hero.getLeaderboard() != null) {
+            throw new IllegalStateException((hero.getName() == null ? "This hero" : hero.getName()) + " is already on a leaderboard");
+        }
+        long id = ids.getAndIncrement();
+        var entry = new Entry(new Node(hero, id), new Node(hero, id));
+        hero.setLeaderboard(this, entry);
+        global.add(entry.global);
+        alignmentOf(hero).add(entry.aligned);
+    }
+
+    public void untrack(Hero hero) {
+        checkTracked(hero);
+        var entry = hero.getLeaderboardEntry();
+        global.remove(entry.global);
+        alignmentOf(hero).remove(entry.aligned);
+        hero.setLeaderboard(null, null);
+    }
+
+    void update(Hero hero) {
+        var entry = hero.getLeaderboardEntry();
+        if (entry != null) {
+            global.update(entry.global);
+            alignmentOf(hero).update(entry.aligned);
+        }
+    }
+
+    public List<Hero> top(int count) {
+        return global.top(count);
+    }
+
+    public List<Hero> top(Alignment alignment, int count) {
+        return alignments[ClassRules.alignmentIndex(alignment)].top(count);
+    }
+
+    /**
+     * The rank of a tracked hero among all of them, starting at 1.
+     */
+    public int rankOf(Hero hero) {
+        checkTracked(hero);
+        return global.rankOf(hero.getLeaderboardEntry().global);
+    }
+
+    /**
+     * The rank of a tracked hero among the ones of its alignment, starting at 1.
+     */
+    public int rankInAlignment(Hero hero) {
+        checkTracked(hero);
+        return alignmentOf(hero).rankOf(hero.getLeaderboardEntry().aligned);
+    }
+
+    public int size() {
+        return global.size();
+    }
+
+    private Board alignmentOf(Hero hero) {
+        return alignments[ClassRules.alignmentIndex(hero.getAlignment())];
+    }
+
+    private void checkTracked(Hero hero) {
+        if (hero.getLeaderboard() != this) {
+            throw new IllegalArgumentException((hero.getName() == null ? "This hero" : hero.getName()) + " is not on this leaderboard");
+        }
+    }
+
+    /**
+     * The nodes of a tracked hero, one on the global board and one on the board of its alignment.
+     */
+    static final class Entry {
+
+        private final Node global;
+        private final Node aligned;
+
+        private Entry(Node global, Node aligned) {
+            this.global = global;
+            this.aligned = aligned;
+        }
+    }
+
+    private record Ranked(long xp, long id, Hero hero) {
+    }
+
+    private static final class Board {
+
+        private final Stripe[] stripes;
+        private final int mask;
+
+        Board(int stripes) {
+            this.stripes = new Stripe[stripes];
+            for (int i = 0; i < stripes; i++) {
+                this.stripes[i] = new Stripe();
+            }
+            this.mask = stripes - 1;
+        }
+
+        void add(Node node) {
+            var stripe = stripeOf(node);
+            synchronized (stripe) {
+                node.xp = node.hero.getCurrentXP();
+                stripe.insert(node);
+                node.linked = true;
+            }
+        }
+
+        void remove(Node node) {
+            var stripe = stripeOf(node);
+            synchronized (stripe) {
+                if (node.linked) {
+                    stripe.remove(node);
+                    node.linked = false;
+                }
+            }
+        }
+
+        void update(Node node) {
+            var stripe = stripeOf(node);
+            synchronized (stripe) {
+                if (node.linked) {
+                    stripe.move(node, node.hero.getCurrentXP());
+                }
+            }
+        }
+
+        List<Hero> top(int count) {
+            List<Ranked> candidates = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.collectTop(count, candidates);
+                }
+            }
+            candidates.sort(RANKING);
+            List<Hero> top = new ArrayList<>(Math.min(count, candidates.size()));
+            for (int i = 0; i < count && i < candidates.size(); i++) {
+                top.add(candidates.get(i).hero());
+            }
+            return top;
+        }
+
+        int rankOf(Node node) {
+            long xp;
+            synchronized (stripeOf(node)) {
+                xp = node.xp;
+            }
+            int before = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    before += stripe.countBefore(xp, node.id);
+                }
+            }
+            return before + 1;
+        }
+
+        int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    size += Stripe.sizeOf(stripe.root);
+                }
+            }
+            return size;
+        }
+
+        private Stripe stripeOf(Node node) {
+            return stripes[(int) node.id & mask];
+        }
+    }
+
+    private static final class Node {
+
+        private final Hero hero;
+        private final long id;
+        // the treap is a heap of these, random enough to keep it balanced
+        private final int priority;
+        private long xp;
+        private Node left;
+        private Node right;
+        private int size;
+        private boolean linked;
+
+        private Node(Hero hero, long id) {
+            this.hero = hero;
+            this.id = id;
+            this.priority = (int) SeededDice.mix64(id);
+        }
+    }
+
+    /*
+     * A treap ordered by XP descending then id, with subtree sizes. Only ever touched under its own lock. Split leaves
+     * its two halves in the left and right fields, recursion is as deep as the treap, a few dozen levels.
+     */
+    private static final class Stripe {
+
+        private Node root;
+        private Node left;
+        private Node right;
+
+        void insert(Node node) {
+            node.left = null;
+            node.right = null;
+            node.size = 1;
+            split(root, node.xp, node.id);
+            Node before = left;
+            Node after = right;
+            root = merge(merge(before, node), after);
+        }
+
+        void remove(Node node) {
+            split(root, node.xp, node.id);
+            Node before = left;
+            // the node is the first one not ranked before its own key
+            root = merge(before, removeFirst(right));
+        }
+
+        /*
+         * XP only grows, the node keeps its place when nothing is ranked between its new XP and its old one.
+         */
+        void move(Node node, long xp) {
+            if (xp == node.xp) {
+                return;
+            }
+            if (xp > node.xp) {
+                Node previous = lastBefore(node.xp, node.id);
+                if (previous == null || isBefore(previous.xp, previous.id, xp, node.id)) {
+                    node.xp = xp;
+                    return;
+                }
+            }
+            remove(node);
+            node.xp = xp;
+            insert(node);
+        }
+
+        int countBefore(long xp, long id) {
+            int count = 0;
+            Node node = root;
+            while (node != null) {
+                if (isBefore(node.xp, node.id, xp, id)) {
+                    count += sizeOf(node.left) + 1;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return count;
+        }
+
+        void collectTop(int count, List<Ranked> into) {
+            Node[] path = new Node[16];
+            int depth = 0;
+            int collected = 0;
+            Node node = root;
+            while (collected < count && (node != null || depth > 0)) {
+                if (node != null) {
+                    if (depth == path.length) {
+                        path = Arrays.copyOf(path, 2 * depth);
+                    }
+                    path[depth++] = node;
+                    node = node.left;
+                } else {
+                    node = path[--depth];
+                    into.add(new Ranked(node.xp, node.id, node.hero));
+                    collected++;
+                    node = node.right;
+                }
+            }
+        }
+
+        private Node lastBefore(long xp, long id) {
+            Node last = null;
+            Node node = root;
+            while (node != null) {
+                if (isBefore(node.xp, node.id, xp, id)) {
+                    last = node;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return last;
+        }
+
+        private void split(Node node, long xp, long id) {
+            if (node == null) {
+                left = null;
+                right = null;
+            } else if (isBefore(node.xp, node.id, xp, id)) {
+                split(node.right, xp, id);
+                node.right = left;
+                resize(node);
+                left = node;
+            } else {
+                split(node.left, xp, id);
+                node.left = right;
+                resize(node);
+                right = node;
+            }
+        }
+
+        private static Node merge(Node before, Node after) {
+            if (before == null) {
+                return after;
+            }
+            if (after == null) {
+                return before;
+            }
+            if (before.priority > after.priority) {
+                before.right = merge(before.right, after);
+                resize(before);
+                return before;
+            }
+            after.left = merge(before, after.left);
+            resize(after);
+            return after;
+        }
+
+        private static Node removeFirst(Node node) {
+            if (node.left == null) {
+                return node.right;
+            }
+            node.left = removeFirst(node.left);
+            resize(node);
+            return node;
+        }
+
+        private static void resize(Node node) {
+            node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+        }
+
+        static int sizeOf(Node node) {
+            return node == null ? 0 : node.size;
+        }
+
+        private static boolean isBefore(long xp, long id, long otherXp, long otherId) {
+            return xp > otherXp || xp == otherXp && id < otherId;
+        }
+    }
+}
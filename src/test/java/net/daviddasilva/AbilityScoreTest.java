@@ -58,4 +58,25 @@ class AbilityScoreTest {
         // Then
         thenCode(code).isInstanceOf(IllegalArgumentException.class).hasMessage("Ability score should be between 1 and 20");
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest(name = "Ability score {0} is always the same instance")
+    @ValueSource(ints = {1, 10, 20})
+    void ability_scores_are_cached(int score) {
+        // When
+        AbilityScore abilityScore = AbilityScore.of(score);
+
+        // Then
+        then(abilityScore).isSameAs(AbilityScore.of(score))
+                          .isEqualTo(new AbilityScore(score));
+    }
+
+    @ParameterizedTest(name = "Cached ability cannot have a value outside range : {0}")
+    @ValueSource(ints = {0, 21})
+    void cached_abilities_score_between_1_and_20(int score) {
+        // Given
+        ThrowableAssert.ThrowingCallable code = () -> AbilityScore.of(score);
+
+        // Then
+        thenCode(code).isInstanceOf(IllegalArgumentException.class).hasMessage("Ability score should be between 1 and 20");
+    }
+}
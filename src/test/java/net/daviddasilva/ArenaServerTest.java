@@ -0,0 +1,157 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("The arena server")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ArenaServerTest {
+
+    private static final Duration ONE_MINUTE = Duration.ofMinutes(1);
+
+    private final Queue<Runnable> slices = new ArrayDeque<>();
+    private final Executor manual = slices::add;
+
+    @Test
+    void lets_the_party_win_when_it_always_rolls_a_natural_20(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        var server = new ArenaServer(ForkJoinPool.commonPool(), 10, ONE_MINUTE, () -> Dice.scripted(20));
+
+        // When
+        var result = server.submit(new Encounter(List.of(Hero.builder().build()), List.of(Hero.builder().hitPoints(2).build()))).join();
+
+        // Then
+        softly.then(result.outcome()).isEqualTo(Encounter.Outcome.PARTY_WON);
+        softly.then(result.rounds()).isEqualTo(1);
+    }
+
+    @Test
+    void lets_the_monsters_win_when_they_outlast_the_party() throws InterruptedException {
+        // Given
+        var server = new ArenaServer(ForkJoinPool.commonPool(), 10, ONE_MINUTE, () -> Dice.scripted(20));
+        var party = List.of(Hero.builder().hitPoints(1).build());
+        var monsters = List.of(Hero.builder().hitPoints(100).build(), Hero.builder().hitPoints(100).build());
+
+        // When
+        var result = server.submit(new Encounter(party, monsters)).join();
+
+        // Then
+        then(result.outcome()).isEqualTo(Encounter.Outcome.MONSTERS_WON);
+    }
+
+    @Test
+    void calls_a_draw_when_nobody_can_hit() throws InterruptedException {
+        // Given
+        var server = new ArenaServer(ForkJoinPool.commonPool(), 10, ONE_MINUTE, () -> Dice.scripted(1));
+
+        // When
+        var result = server.submit(new Encounter(List.of(Hero.builder().build()), List.of(Hero.builder().build()))).join();
+
+        // Then
+        then(result).extracting(Encounter.Result::outcome, Encounter.Result::rounds)
+                .containsExactly(Encounter.Outcome.DRAW, ArenaServer.MAX_ROUNDS);
+    }
+
+    @Test
+    void stops_an_encounter_after_its_timeout(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        var server = new ArenaServer(ForkJoinPool.commonPool(), 10, ONE_MINUTE, () -> Dice.scripted(1));
+
+        // When
+        var result = server.submit(new Encounter(List.of(Hero.builder().build()), List.of(Hero.builder().build())), Duration.ZERO).join();
+
+        // Then
+        softly.then(result.outcome()).isEqualTo(Encounter.Outcome.TIMED_OUT);
+        softly.then(result.rounds()).isEqualTo(ArenaServer.ROUNDS_PER_SLICE);
+    }
+
+    @Test
+    void blocks_admission_while_the_arena_is_full() throws InterruptedException {
+        // Given
+        var server = new ArenaServer(manual, 1, ONE_MINUTE, () -> Dice.scripted(20));
+        server.submit(duel());
+
+        // When
+        var refused = server.trySubmit(duel(), Duration.ZERO);
+        runAllSlices();
+        var admitted = server.trySubmit(duel(), Duration.ZERO);
+
+        // Then
+        then(refused).isEmpty();
+        then(admitted).isPresent();
+    }
+
+    @Test
+    void frees_the_place_of_a_cancelled_encounter(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        var server = new ArenaServer(manual, 1, ONE_MINUTE, () -> Dice.scripted(1));
+        var result = server.submit(duel());
+
+        // When
+        result.cancel(false);
+        runAllSlices();
+
+        // Then
+        softly.then(result).isCancelled();
+        softly.then(server.inFlight()).isZero();
+        softly.then(server.trySubmit(duel(), Duration.ZERO)).isPresent();
+    }
+
+    @Test
+    void cancels_the_encounters_still_running_when_closed(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        var server = new ArenaServer(manual, 10, ONE_MINUTE, () -> Dice.scripted(1));
+        var first = server.submit(duel());
+        var second = server.submit(duel());
+
+        // When
+        server.close();
+        runAllSlices();
+
+        // Then
+        softly.then(first).isCancelled();
+        softly.then(second).isCancelled();
+        softly.then(server.inFlight()).isZero();
+    }
+
+    @Test
+    void runs_thousands_of_encounters_at_once(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        try (var server = new ArenaServer(10_000, ONE_MINUTE)) {
+
+            // When
+            var report = ArenaLoadGenerator.run(server, 10_000);
+
+            // Then
+            softly.then(report.failed()).isZero();
+            softly.then(report.outcomes().values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(10_000);
+            softly.then(server.inFlight()).isZero();
+        }
+    }
+
+    private void runAllSlices() {
+        Runnable slice;
+        while ((slice = slices.poll()) != null) {
+            slice.run();
+        }
+    }
+
+    private static Encounter duel() {
+        return new Encounter(List.of(Hero.builder().build()), List.of(Hero.builder().build()));
+    }
+}
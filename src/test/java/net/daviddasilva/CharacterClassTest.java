@@ -0,0 +1,198 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("A character class")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CharacterClassTest {
+
+    private static final CharacterClass FIGHTER = CharacterClass.named("Fighter");
+    private static final CharacterClass ROGUE = CharacterClass.named("Rogue");
+    private static final CharacterClass MONK = CharacterClass.named("Monk");
+    private static final CharacterClass PALADIN = CharacterClass.named("Paladin");
+
+    @Test
+    void is_the_default_one_when_none_is_chosen() {
+        // When
+        var hero = Hero.builder().build();
+
+        // Then
+        then(hero.getCharacterClass()).isEqualTo(CharacterClass.defaultClass());
+    }
+
+    @Test
+    void is_loaded_from_its_definitions() {
+        then(CharacterClass.values()).extracting(CharacterClass::getName)
+                                     .containsExactly("Commoner", "Fighter", "Rogue", "Monk", "Paladin");
+    }
+
+    @ParameterizedTest
+    @CsvSource({"Commoner,3,1,15", "Fighter,3,2,25", "Monk,4,3,23", "Paladin,2,1,13"})
+    void sets_hit_points_and_attack_bonus_per_level(String name, int level, int expectedAttackBonus, int expectedHitPoints, BDDSoftAssertions softly) {
+        // When
+        var hero = Hero.builder().characterClass(CharacterClass.named(name)).alignment(Alignment.GOOD).level(level).build();
+
+        // Then
+        softly.then(hero.getAttackBonus()).isEqualTo(expectedAttackBonus);
+        softly.then(hero.getHitPoints()).isEqualTo(expectedHitPoints);
+    }
+
+    @Test
+    void monk_gains_attack_bonus_every_second_and_third_level() {
+        // When
+        var hero = Hero.builder().characterClass(MONK).level(9).build();
+
+        // Then
+        then(hero.getAttackBonus()).isEqualTo(6);
+    }
+
+    @Test
+    void monk_deals_3_damage_and_adds_a_positive_wisdom_modifier_to_armor_class(BDDSoftAssertions softly) {
+        // Given
+        var monk = Hero.builder().characterClass(MONK).wisdom(16).build();
+        var opponent = Hero.builder().armorClass(5).hitPoints(10).build();
+
+        // When
+        monk.attemptAttack(opponent, 10);
+
+        // Then
+        softly.then(opponent.getHitPoints()).isEqualTo(7);
+        softly.then(monk.getArmorClass()).isEqualTo(13);
+        softly.then(Hero.builder().characterClass(MONK).wisdom(6).build().getArmorClass()).isEqualTo(10);
+    }
+
+    @Test
+    void rogue_triples_critical_damage_and_attacks_with_dexterity(BDDSoftAssertions softly) {
+        // Given
+        var rogue = Hero.builder().characterClass(ROGUE).strength(12).dexterity(18).build();
+        var opponent = Hero.builder().armorClass(13).hitPoints(10).build();
+
+        // When
+        boolean hit = rogue.attemptAttack(opponent, 10);
+        rogue.attemptAttack(opponent, 20);
+
+        // Then
+        softly.then(hit).isTrue();
+        softly.then(opponent.getHitPoints()).isEqualTo(10 - 2 - 6);
+    }
+
+    @Test
+    void rogue_ignores_a_positive_dexterity_modifier_of_the_opponent() {
+        // Given
+        var rogue = Hero.builder().characterClass(ROGUE).build();
+        var nimble = Hero.builder().armorClass(10).dexterity(18).build();
+
+        // When
+        boolean hit = rogue.attemptAttack(nimble, 10);
+
+        // Then
+        then(hit).isTrue();
+    }
+
+    @Test
+    void paladin_smites_evil(BDDSoftAssertions softly) {
+        // Given
+        var paladin = Hero.builder().characterClass(PALADIN).alignment(Alignment.GOOD).build();
+        var evil = Hero.builder().alignment(Alignment.EVIL).armorClass(12).hitPoints(20).build();
+        var neutral = Hero.builder().alignment(Alignment.NEUTRAL).armorClass(12).hitPoints(20).build();
+
+        // When
+        boolean hitEvil = paladin.attemptAttack(evil, 10);
+        boolean hitNeutral = paladin.attemptAttack(neutral, 10);
+        paladin.attemptAttack(evil, 20);
+
+        // Then
+        softly.then(hitEvil).isTrue();
+        softly.then(hitNeutral).isFalse();
+        softly.then(evil.getHitPoints()).isEqualTo(20 - 3 - 9);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"Rogue,GOOD", "Paladin,EVIL", "Paladin,NEUTRAL"})
+    void limits_the_alignments(String name, Alignment alignment) {
+        // When
+        var thrown = catchThrowable(() -> Hero.builder().characterClass(CharacterClass.named(name)).alignment(alignment).build());
+
+        // Then
+        then(thrown).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("A " + name + " cannot be " + alignment);
+    }
+
+    @Test
+    void computes_the_attack_bonus_of_any_level_from_its_cycle(BDDSoftAssertions softly) {
+        for (CharacterClass characterClass : CharacterClass.values()) {
+            int[] attackEvery = characterClass.attackEvery();
+            int expected = 0;
+            for (int level = 2; level <= 1000; level++) {
+                for (int every : attackEvery) {
+                    if (level % every == 0) {
+                        expected++;
+                        break;
+                    }
+                }
+                softly.then(ClassRules.attackBonusAt(characterClass.id(), level)).as("%s level %d", characterClass, level).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void fights_the_same_in_a_hero_table_whatever_the_class_and_race(BDDSoftAssertions softly) {
+        // Given
+        var random = new SplittableRandom(3);
+        var alignments = new Alignment[]{null, Alignment.GOOD, Alignment.EVIL, Alignment.NEUTRAL};
+        List<Hero> heroes = new ArrayList<>();
+        var table = new HeroTable();
+        while (heroes.size() < 64) {
+            var characterClass = CharacterClass.values().get(random.nextInt(CharacterClass.values().size()));
+            var alignment = alignments[random.nextInt(alignments.length)];
+            var race = Race.values()[random.nextInt(Race.values().length)];
+            if (!characterClass.allows(alignment) || !race.allows(alignment)) {
+                continue;
+            }
+            var hero = Hero.builder().characterClass(characterClass).race(race).alignment(alignment)
+                           .strength(random.nextInt(20) + 1).dexterity(random.nextInt(20) + 1)
+                           .wisdom(random.nextInt(20) + 1).hitPoints(1000).level(random.nextInt(8) + 1).build();
+            heroes.add(hero);
+            table.add(hero);
+        }
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            int attacker = random.nextInt(heroes.size());
+            int defender = random.nextInt(heroes.size());
+            int roll = random.nextInt(20) + 1;
+            softly.then(table.attemptAttack(attacker, defender, roll)).isEqualTo(heroes.get(attacker).attemptAttack(heroes.get(defender), roll));
+        }
+
+        // Then
+        for (int row = 0; row < heroes.size(); row++) {
+            softly.then(table.toHero(row)).usingRecursiveComparison().isEqualTo(heroes.get(row));
+        }
+    }
+
+    @Test
+    void rejects_malformed_definitions() {
+        // When
+        var thrown = catchThrowable(() -> CharacterClass.parse(List.of("# comment", "Bard,6,2,CHARISMA,1,2")));
+
+        // Then
+        then(thrown).isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Invalid character class at line 2 of classes.csv");
+    }
+}
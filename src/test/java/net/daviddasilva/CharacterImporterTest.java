@@ -0,0 +1,229 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("A character importer")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CharacterImporterTest {
+
+    private static final String HEADER = "name,alignment,class,race,armorClass,hitPoints,strength,dexterity,constitution,wisdom,intelligence,charisma,level\n";
+
+    private final List<Hero> heroes = new ArrayList<>();
+    private final List<CharacterImporter.Rejection> rejections = new ArrayList<>();
+
+    @Test
+    void builds_csv_characters_as_the_builder_would(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var csv = HEADER
+                + "Krom,GOOD,Fighter,DWARF,12,10,16,10,14,10,10,10,3\n"
+                + ",,,,10,5,10,10,10,10,10,10,1";
+
+        // When
+        var report = new CharacterImporter().importCsv(channelOf(csv), heroes::add, rejections::add);
+
+        // Then
+        softly.then(report.imported()).isEqualTo(2);
+        softly.then(rejections).isEmpty();
+        softly.then(heroes.get(0)).usingRecursiveComparison().isEqualTo(
+                Hero.builder().name("Krom").alignment(Alignment.GOOD).characterClass(CharacterClass.named("Fighter"))
+                    .race(Race.DWARF).armorClass(12).hitPoints(10).strength(16).constitution(14).level(3).build());
+        softly.then(heroes.get(1)).usingRecursiveComparison().isEqualTo(Hero.builder().build());
+    }
+
+    @Test
+    void reads_quoted_fields_and_windows_line_endings(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var csv = HEADER + "\"Krom, \"\"the\"\" conqueror\",\"EVIL\",,,10,5,10,10,10,10,10,10,1\r\n";
+
+        // When
+        new CharacterImporter().importCsv(channelOf(csv), heroes::add, rejections::add);
+
+        // Then
+        softly.then(rejections).isEmpty();
+        softly.then(heroes).extracting(Hero::getName).containsExactly("Krom, \"the\" conqueror");
+        softly.then(heroes).extracting(Hero::getAlignment).containsExactly(Alignment.EVIL);
+    }
+
+    @Test
+    void rejects_invalid_rows_with_their_reason_and_goes_on(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var csv = HEADER
+                + "Giant,,,,10,5,25,10,10,10,10,10,1\n"
+                + "Ghost,,,,10,0,10,10,10,10,10,10,1\n"
+                + "Gnome,,,GNOME,10,5,10,10,10,10,10,10,1\n"
+                + "\n"
+                + "Short,,,,10,5\n"
+                + "Fallen,EVIL,Paladin,,10,5,10,10,10,10,10,10,1\n"
+                + "Krom,,,,10,5,10,10,10,10,10,10,1\n"
+                + "Rookie,,,,10,5,10,10,10,10,10,10,zero\n";
+
+        // When
+        var report = new CharacterImporter().importCsv(channelOf(csv), heroes::add, rejections::add);
+
+        // Then
+        softly.then(report.imported()).isEqualTo(1);
+        softly.then(report.rejected()).isEqualTo(6);
+        softly.then(heroes).extracting(Hero::getName).containsExactly("Krom");
+        softly.then(rejections).containsExactly(
+                new CharacterImporter.Rejection(2, "STRENGTH should be between 1 and 20"),
+                new CharacterImporter.Rejection(3, "Hit points should be positive"),
+                new CharacterImporter.Rejection(4, "Unknown race GNOME"),
+                new CharacterImporter.Rejection(6, "Expected 13 columns, got 6"),
+                new CharacterImporter.Rejection(7, "A Paladin cannot be EVIL"),
+                new CharacterImporter.Rejection(9, "Level should be positive"));
+    }
+
+    @Test
+    void keeps_the_order_of_the_file_across_many_chunks(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var csv = new StringBuilder(HEADER);
+        int rows = 50_000;
+        for (int row = 0; row < rows; row++) {
+            int strength = row % 1000 == 0 ? 21 : 10 + row % 5;
+            csv.append("Hero ").append(row).append(",,,,10,5,").append(strength).append(",10,10,10,10,10,1\n");
+        }
+        // longer than a chunk, which has to grow for it
+        csv.append("A").append("a".repeat(CharacterImporter.MIN_CHUNK_SIZE)).append(",,,,10,5,10,10,10,10,10,10,1\n");
+        var importer = new CharacterImporter(new ForkJoinPool(4), CharacterImporter.MIN_CHUNK_SIZE, 3);
+
+        // When
+        var report = importer.importCsv(channelOf(csv.toString()), heroes::add, rejections::add);
+
+        // Then
+        softly.then(report.imported()).isEqualTo(rows - rows / 1000 + 1);
+        softly.then(heroes.get(0).getName()).isEqualTo("Hero 1");
+        softly.then(heroes.get(rows - rows / 1000 - 1).getName()).isEqualTo("Hero " + (rows - 1));
+        softly.then(heroes.get(heroes.size() - 1).getName()).hasSize(CharacterImporter.MIN_CHUNK_SIZE + 1);
+        // the first line is the header
+        softly.then(rejections).extracting(CharacterImporter.Rejection::row)
+              .containsExactlyElementsOf(LongStream.range(0, rows / 1000).map(row -> row * 1000 + 2).boxed().toList());
+    }
+
+    @Test
+    void rejects_a_row_too_long_to_be_a_character_and_goes_on(BDDSoftAssertions softly) throws IOException {
+        // Given
+        int longest = CharacterImporter.MAX_ROW_CHUNKS * CharacterImporter.MIN_CHUNK_SIZE;
+        var csv = HEADER + "Krom,,,,10,5,10,10,10,10,10,10,1\n"
+                  + "a".repeat(2 * longest) + ",,,,10,5,10,10,10,10,10,10,1\n"
+                  + "Conan,,,,10,5,10,10,10,10,10,10,1";
+        var importer = new CharacterImporter(new ForkJoinPool(2), CharacterImporter.MIN_CHUNK_SIZE, 2);
+
+        // When
+        var report = importer.importCsv(channelOf(csv), heroes::add, rejections::add);
+
+        // Then
+        softly.then(report.imported()).isEqualTo(2);
+        softly.then(heroes).extracting(Hero::getName).containsExactly("Krom", "Conan");
+        softly.then(rejections).containsExactly(new CharacterImporter.Rejection(3, "Row longer than " + longest + " bytes"));
+    }
+
+    @Test
+    void imports_a_hero_stream(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var written = List.of(Hero.builder().name("Krom").alignment(Alignment.GOOD).level(4).build(),
+                Hero.builder().race(Race.ELF).dexterity(18).build());
+        var stream = streamOf(written);
+
+        // When
+        var report = new CharacterImporter().importStream(channelOf(stream), heroes::add, rejections::add);
+
+        // Then
+        softly.then(report.imported()).isEqualTo(2);
+        softly.then(rejections).isEmpty();
+        softly.then(heroes).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(readBack(stream));
+    }
+
+    @Test
+    void imports_dead_heroes_as_they_were_written(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var dead = Hero.builder().name("Boromir").hitPoints(1).build();
+        dead.takeCriticalHit(3);
+        var stream = streamOf(List.of(dead));
+
+        // When
+        var report = new CharacterImporter().importStream(channelOf(stream), heroes::add, rejections::add);
+
+        // Then
+        softly.then(report.imported()).isEqualTo(1);
+        softly.then(rejections).isEmpty();
+        softly.then(heroes).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(readBack(stream));
+        softly.then(heroes).singleElement().extracting(Hero::isDead).isEqualTo(true);
+    }
+
+    @Test
+    void rejects_invalid_records_of_a_hero_stream(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var stream = streamOf(List.of(Hero.builder().name("Giant").build(), Hero.builder().name("Krom").build()));
+        // the strength of the first hero, after the magic number and 12 bytes of its body
+        stream[Integer.BYTES + 12] = 25;
+        var truncated = new byte[stream.length - 1];
+        System.arraycopy(stream, 0, truncated, 0, truncated.length);
+
+        // When
+        var report = new CharacterImporter().importStream(channelOf(truncated), heroes::add, rejections::add);
+
+        // Then
+        softly.then(report.imported()).isZero();
+        softly.then(rejections).containsExactly(
+                new CharacterImporter.Rejection(1, "STRENGTH should be between 1 and 20"),
+                new CharacterImporter.Rejection(2, "Truncated record"));
+    }
+
+    @Test
+    void refuses_what_is_not_a_hero_stream() {
+        // When
+        var thrown = catchThrowable(() -> new CharacterImporter().importStream(channelOf(HEADER), heroes::add, rejections::add));
+
+        // Then
+        then(thrown).isInstanceOf(IOException.class);
+    }
+
+    private static byte[] streamOf(List<Hero> heroes) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new HeroStreamWriter(Channels.newChannel(bytes))) {
+            for (Hero hero : heroes) {
+                writer.write(hero);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Hero> readBack(byte[] stream) throws IOException {
+        List<Hero> read = new ArrayList<>();
+        try (var reader = new HeroStreamReader(channelOf(stream))) {
+            while (reader.hasNext()) {
+                read.add(reader.next());
+            }
+        }
+        return read;
+    }
+
+    private static ReadableByteChannel channelOf(String text) {
+        return channelOf(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReadableByteChannel channelOf(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,119 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.BDDAssertions.thenCode;
+
+@DisplayName("A combat batch")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CombatBatchTest {
+
+    @Test
+    void resolves_attacks_like_sequential_attempts(BDDSoftAssertions softly) {
+        // Given
+        var random = new SplittableRandom(42);
+        List<Hero> heroes = new ArrayList<>();
+        var table = new HeroTable();
+        for (int i = 0; i < 8; i++) {
+            var hero = Hero.builder()
+                           .strength(random.nextInt(1, 21))
+                           .constitution(random.nextInt(1, 21))
+                           .armorClass(random.nextInt(5, 20))
+                           .hitPoints(random.nextInt(1, 200))
+                           .level(random.nextInt(1, 5))
+                           .build();
+            heroes.add(hero);
+            table.add(hero);
+        }
+        int count = 5000;
+        int[] attackers = new int[count];
+        int[] defenders = new int[count];
+        int[] rolls = new int[count];
+        for (int i = 0; i < count; i++) {
+            attackers[i] = random.nextInt(8);
+            defenders[i] = (attackers[i] + random.nextInt(1, 8)) % 8;
+            rolls[i] = random.nextInt(1, 21);
+        }
+        var batch = new CombatBatch(table);
+
+        // When
+        batch.resolve(attackers, defenders, rolls);
+
+        // Then
+        for (int i = 0; i < count; i++) {
+            var defender = heroes.get(defenders[i]);
+            int hitPointsBefore = defender.getHitPoints();
+            boolean hit = heroes.get(attackers[i]).attemptAttack(defender, rolls[i]);
+            softly.then(batch.isHit(i)).isEqualTo(hit);
+            softly.then(batch.damage(i)).isEqualTo(hitPointsBefore - defender.getHitPoints());
+        }
+        for (int row = 0; row < heroes.size(); row++) {
+            softly.then(table.getHitPoints(row)).isEqualTo(heroes.get(row).getHitPoints());
+            softly.then(table.getXp(row)).isEqualTo(heroes.get(row).getXp());
+            softly.then(table.getLevel(row)).isEqualTo(heroes.get(row).getLevel());
+        }
+    }
+
+    @Test
+    void flags_critical_hits_kills_and_level_ups(BDDSoftAssertions softly) {
+        // Given
+        var table = new HeroTable();
+        int attacker = table.add(Hero.builder().build());
+        int defender = table.add(Hero.builder().hitPoints(2).build());
+        for (int i = 0; i < 99; i++) {
+            table.gainXP(attacker);
+        }
+        var batch = new CombatBatch(table);
+
+        // When
+        batch.resolve(new int[]{attacker}, new int[]{defender}, new int[]{20});
+
+        // Then
+        softly.then(batch.isCriticalHit(0)).isTrue();
+        softly.then(batch.hasKilled(0)).isTrue();
+        softly.then(batch.hasLeveledUp(0)).isTrue();
+        softly.then(batch.damage(0)).isEqualTo(2);
+    }
+
+    @Test
+    void rejects_unknown_heroes_before_resolving_anything() {
+        // Given
+        var table = new HeroTable();
+        int hero = table.add(Hero.builder().build());
+        var batch = new CombatBatch(table);
+
+        // When
+        thenCode(() -> batch.resolve(new int[]{hero, hero}, new int[]{hero, 3}, new int[]{15, 15}))
+                // Then
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        thenCode(() -> table.getXp(hero)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejects_a_count_beyond_its_arrays_before_resolving_anything(BDDSoftAssertions softly) {
+        // Given
+        var table = new HeroTable();
+        int hero = table.add(Hero.builder().build());
+        var batch = new CombatBatch(table);
+        int[] heroes = {hero, hero, hero};
+
+        // When
+        softly.thenCode(() -> batch.resolve(heroes, heroes, new int[]{15, 15}, 3))
+              // Then
+              .isInstanceOf(IllegalArgumentException.class);
+        softly.thenCode(() -> batch.resolve(heroes, heroes, new int[]{15, 15, 15}, -1))
+              .isInstanceOf(IllegalArgumentException.class);
+        softly.then(table.getXp(hero)).isZero();
+    }
+}
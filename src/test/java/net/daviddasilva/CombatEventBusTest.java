@@ -0,0 +1,129 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("The combat event bus")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CombatEventBusTest {
+
+    @Test
+    void delivers_every_combat_event_to_every_subscriber(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        var table = new HeroTable();
+        for (int i = 0; i < 20; i++) {
+            table.add(Hero.builder().hitPoints(30).build());
+        }
+        var bus = new CombatEventBus(64);
+        var achievements = new EnumMap<CombatEvent, Integer>(CombatEvent.class);
+        var analytics = new EnumMap<CombatEvent, Integer>(CombatEvent.class);
+        bus.subscribe("achievements", (event, source, target, value) -> achievements.merge(event, 1, Integer::sum));
+        bus.subscribe("analytics", (event, source, target, value) -> analytics.merge(event, 1, Integer::sum));
+        table.setListener(bus);
+        bus.start();
+        var expected = new EnumMap<CombatEvent, Integer>(CombatEvent.class);
+        var random = new SplittableRandom(5);
+        var batch = new CombatBatch(table);
+        int[] attackers = new int[1];
+        int[] defenders = new int[1];
+        int[] rolls = new int[1];
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            attackers[0] = random.nextInt(20);
+            defenders[0] = random.nextInt(20);
+            rolls[0] = random.nextInt(1, 21);
+            batch.resolve(attackers, defenders, rolls);
+            if (batch.isCriticalHit(0)) {
+                expected.merge(CombatEvent.CRITICAL_HIT, 1, Integer::sum);
+            } else if (batch.isHit(0)) {
+                expected.merge(CombatEvent.HIT, 1, Integer::sum);
+            }
+            if (batch.hasKilled(0)) {
+                expected.merge(CombatEvent.DEATH, 1, Integer::sum);
+            }
+            if (batch.hasLeveledUp(0)) {
+                expected.merge(CombatEvent.LEVEL_UP, 1, Integer::sum);
+            }
+        }
+        bus.close();
+
+        // Then
+        softly.then(achievements).isEqualTo(expected).containsKeys(CombatEvent.values());
+        softly.then(analytics).isEqualTo(expected);
+    }
+
+    @Test
+    void publishes_the_fights_of_heroes_it_listens_to(BDDSoftAssertions softly) {
+        // Given
+        var bus = new CombatEventBus(64);
+        List<String> received = new ArrayList<>();
+        bus.subscribe("quests", (event, source, target, value) -> received.add(event + " " + source + " " + target + " " + value));
+        var attacker = Hero.builder().strength(15).build(); // +2
+        var defender = Hero.builder().armorClass(10).hitPoints(5).build();
+        attacker.setListener(bus, 1);
+        defender.setListener(bus, 2);
+        attacker.grantXP(990);
+        bus.start();
+
+        // When
+        attacker.attemptAttack(defender, 15);
+        attacker.attemptAttack(defender, 20);
+        defender.takeHit(0);
+        bus.close();
+
+        // Then
+        softly.then(received).containsExactly("HIT 1 2 3", "LEVEL_UP 1 1 2", "CRITICAL_HIT 1 2 6", "DEATH 1 2 0", "HIT -2 2 1");
+    }
+
+    @Test
+    void waits_for_slow_subscribers_instead_of_losing_events() throws InterruptedException {
+        // Given
+        var bus = new CombatEventBus(4);
+        List<Integer> received = new ArrayList<>();
+        bus.subscribe("slow", (event, source, target, value) -> {
+            received.add(value);
+            Thread.yield();
+        });
+        bus.start();
+        List<Integer> published = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            bus.onHit(0, 1, i);
+            published.add(i);
+        }
+        bus.close();
+
+        // Then
+        then(received).isEqualTo(published);
+    }
+
+    @Test
+    void keeps_the_interrupt_of_a_thread_closing_it() {
+        // Given
+        var bus = new CombatEventBus(4);
+        bus.subscribe("idle", (event, source, target, value) -> { });
+        bus.start();
+
+        // When
+        Thread.currentThread().interrupt();
+        bus.close();
+
+        // Then
+        then(Thread.interrupted()).isTrue();
+    }
+}
@@ -0,0 +1,281 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("The combat journal")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CombatJournalTest {
+
+    private static final int HEROES = 50;
+    private static final int BATCH = 1000;
+
+    @TempDir
+    Path directory;
+
+    private final SplittableRandom random = new SplittableRandom(11);
+    private final int[] attackers = new int[BATCH];
+    private final int[] defenders = new int[BATCH];
+    private final int[] rolls = new int[BATCH];
+
+    @Test
+    void replays_events_on_top_of_the_last_snapshot(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var world = newWorld();
+        var batch = new CombatBatch(world);
+        Path journalFile = directory.resolve("combat.journal");
+        Path snapshotFile = directory.resolve("world.snapshot");
+        try (var journal = CombatJournal.open(journalFile)) {
+            fight(world, batch, journal, 5);
+            CombatReplay.snapshot(world, journal.events(), snapshotFile);
+            fight(world, batch, journal, 20);
+        }
+
+        // When
+        var replayed = CombatReplay.restore(snapshotFile, journalFile);
+
+        // Then
+        softly.then(replayed.size()).isEqualTo(world.size());
+        for (int row = 0; row < HEROES; row++) {
+            softly.then(replayed.toHero(row)).usingRecursiveComparison().isEqualTo(world.toHero(row));
+        }
+    }
+
+    @Test
+    void keeps_appending_after_a_restart_and_ignores_a_torn_event(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var world = newWorld();
+        var initial = newWorldCopy(world);
+        var batch = new CombatBatch(world);
+        Path journalFile = directory.resolve("combat.journal");
+        try (var journal = CombatJournal.open(journalFile)) {
+            fight(world, batch, journal, 2);
+        }
+        try (var channel = FileChannel.open(journalFile, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        }
+
+        // When
+        try (var journal = CombatJournal.open(journalFile)) {
+            softly.then(journal.events()).isEqualTo(2 * BATCH);
+            fight(world, batch, journal, 2);
+        }
+        long replayedEvents = CombatReplay.replay(journalFile, initial, 0);
+
+        // Then
+        softly.then(replayedEvents).isEqualTo(4 * BATCH);
+        for (int row = 0; row < HEROES; row++) {
+            softly.then(initial.getHitPoints(row)).isEqualTo(world.getHitPoints(row));
+            softly.then(initial.getXp(row)).isEqualTo(world.getXp(row));
+        }
+    }
+
+    @Test
+    void drops_whole_records_torn_at_the_end(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var world = newWorld();
+        var initial = newWorldCopy(world);
+        Path journalFile = directory.resolve("combat.journal");
+        try (var journal = CombatJournal.open(journalFile)) {
+            fight(world, new CombatBatch(world), journal, 2);
+        }
+        var garbage = new byte[3 * CombatJournal.EVENT_SIZE];
+        random.nextBytes(garbage);
+        try (var channel = FileChannel.open(journalFile, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(garbage));
+        }
+
+        // When
+        long replayedEvents = CombatReplay.replay(journalFile, initial, 0);
+
+        // Then
+        softly.then(replayedEvents).isEqualTo(2 * BATCH);
+        try (var journal = CombatJournal.open(journalFile)) {
+            softly.then(journal.events()).isEqualTo(2 * BATCH);
+        }
+    }
+
+    @Test
+    void recovers_the_records_before_one_torn_ahead_of_intact_ones(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var world = newWorld();
+        var initial = newWorldCopy(world);
+        Path journalFile = directory.resolve("combat.journal");
+        try (var journal = CombatJournal.open(journalFile)) {
+            fight(world, new CombatBatch(world), journal, 2);
+        }
+        try (var channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF, 0x7F}), CombatJournal.HEADER_SIZE + 10L * CombatJournal.EVENT_SIZE + 5);
+        }
+
+        // When
+        long replayedEvents = CombatReplay.replay(journalFile, newWorldCopy(initial), 0);
+        var replayed = newWorldCopy(initial);
+        try (var journal = CombatJournal.open(journalFile)) {
+            softly.then(journal.events()).isEqualTo(10);
+            fight(initial, new CombatBatch(initial), journal, 1);
+        }
+
+        // Then
+        softly.then(replayedEvents).isEqualTo(10);
+        softly.then(Files.size(journalFile)).isEqualTo(CombatJournal.HEADER_SIZE + (10L + BATCH) * CombatJournal.EVENT_SIZE);
+        softly.then(CombatReplay.replay(journalFile, replayed, 0)).isEqualTo(10 + BATCH);
+    }
+
+    @Test
+    void replaces_a_snapshot_whole(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var world = newWorld();
+        Path journalFile = directory.resolve("combat.journal");
+        Path snapshotFile = directory.resolve("world.snapshot");
+        try (var journal = CombatJournal.open(journalFile)) {
+            CombatReplay.snapshot(world, journal.events(), snapshotFile);
+            fight(world, new CombatBatch(world), journal, 3);
+
+            // When
+            CombatReplay.snapshot(world, journal.events(), snapshotFile);
+        }
+
+        // Then
+        var restored = CombatReplay.restore(snapshotFile, journalFile);
+        for (int row = 0; row < HEROES; row++) {
+            softly.then(restored.toHero(row)).usingRecursiveComparison().isEqualTo(world.toHero(row));
+        }
+        try (var files = Files.list(directory)) {
+            softly.then(files.map(file -> file.getFileName().toString())).containsExactlyInAnyOrder("combat.journal", "world.snapshot");
+        }
+    }
+
+    @Test
+    void replays_damage_beyond_a_short() throws IOException {
+        // Given a hit journaled then rewritten to deal more damage than a short holds
+        var world = new HeroTable();
+        world.add(Hero.builder().name("Slayer").build());
+        world.add(Hero.builder().name("Giant").hitPoints(1_000_000).build());
+        var initial = newWorldCopy(world);
+        Path journalFile = directory.resolve("combat.journal");
+        try (var journal = CombatJournal.open(journalFile)) {
+            var batch = new CombatBatch(world);
+            batch.resolve(new int[]{0}, new int[]{1}, new int[]{15});
+            journal.append(batch, new int[]{0}, new int[]{1}, new int[]{15});
+        }
+        try (var channel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var record = CombatJournal.read(channel, ByteBuffer.allocate(CombatJournal.EVENT_SIZE), CombatJournal.HEADER_SIZE);
+            record.putInt(10, 40_000);
+            var checksum = new CRC32C();
+            checksum.update(record.duplicate().limit(CombatJournal.EVENT_SIZE - Integer.BYTES));
+            record.putInt(CombatJournal.EVENT_SIZE - Integer.BYTES, (int) checksum.getValue());
+            channel.write(record, CombatJournal.HEADER_SIZE);
+        }
+
+        // When
+        CombatReplay.replay(journalFile, initial, 0);
+
+        // Then
+        then(initial.getHitPoints(1)).isEqualTo(1_000_000 - 40_000);
+    }
+
+    @Test
+    void tells_the_listener_of_the_deaths_it_replays() throws IOException {
+        // Given
+        var world = new HeroTable();
+        int slayer = world.add(Hero.builder().name("Slayer").build());
+        int victim = world.add(Hero.builder().name("Victim").hitPoints(3).build());
+        var replayed = newWorldCopy(world);
+        var deaths = new ArrayList<String>();
+        replayed.setListener(new CombatListener() {
+            @Override
+            public void onDeath(int hero, int killer) {
+                deaths.add(hero + " killed by " + killer);
+            }
+        });
+        Path journalFile = directory.resolve("combat.journal");
+        try (var journal = CombatJournal.open(journalFile)) {
+            var batch = new CombatBatch(world);
+            int[] attackers = {slayer, slayer, slayer, slayer};
+            int[] defenders = {victim, victim, victim, victim};
+            int[] hits = {15, 15, 15, 15};
+            batch.resolve(attackers, defenders, hits);
+            journal.append(batch, attackers, defenders, hits);
+        }
+
+        // When
+        CombatReplay.replay(journalFile, replayed, 0);
+
+        // Then
+        then(deaths).containsExactly(victim + " killed by " + slayer);
+    }
+
+    @Test
+    void refuses_to_replay_on_heroes_that_do_not_match() throws IOException {
+        // Given
+        var world = newWorld();
+        Path journalFile = directory.resolve("combat.journal");
+        try (var journal = CombatJournal.open(journalFile)) {
+            fight(world, new CombatBatch(world), journal, 30);
+        }
+        var stranger = new HeroTable();
+        for (int i = 0; i < HEROES; i++) {
+            stranger.add(Hero.builder().level(40).build());
+        }
+
+        // Then
+        then(catchThrowable(() -> CombatReplay.replay(journalFile, stranger, 0)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private HeroTable newWorld() {
+        var world = new HeroTable();
+        for (int i = 0; i < HEROES; i++) {
+            world.add(Hero.builder()
+                          .name("Hero " + i)
+                          .strength(random.nextInt(1, 21))
+                          .constitution(random.nextInt(1, 21))
+                          .armorClass(random.nextInt(5, 20))
+                          .hitPoints(1000)
+                          .build());
+        }
+        return world;
+    }
+
+    private static HeroTable newWorldCopy(HeroTable world) {
+        var copy = new HeroTable();
+        for (int row = 0; row < world.size(); row++) {
+            copy.add(world.toHero(row));
+        }
+        return copy;
+    }
+
+    private void fight(HeroTable world, CombatBatch batch, CombatJournal journal, int batches) throws IOException {
+        for (int b = 0; b < batches; b++) {
+            for (int i = 0; i < BATCH; i++) {
+                attackers[i] = random.nextInt(HEROES);
+                defenders[i] = random.nextInt(HEROES);
+                rolls[i] = random.nextInt(1, 21);
+            }
+            batch.resolve(attackers, defenders, rolls);
+            journal.append(batch, attackers, defenders, rolls);
+        }
+        journal.commit();
+    }
+}
@@ -0,0 +1,110 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("A combat kernel")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CombatKernelTest {
+
+    @Test
+    void resolves_hits_critical_hits_and_misses(BDDSoftAssertions softly) {
+        // Given
+        var lanes = new CombatLanes(4);
+        int miss = lanes.add(5, 2, 10, 3, 2, 20);
+        int hit = lanes.add(8, 2, 10, -4, 2, 20);
+        int naturalCritical = lanes.add(20, -10, 30, 3, 3, 20);
+        int elvenCritical = lanes.add(19, 0, 10, 3, 2, 19);
+
+        // When
+        CombatKernel.scalar().resolve(lanes);
+
+        // Then
+        softly.then(lanes.isHit(miss)).isFalse();
+        softly.then(lanes.damageDealt(miss)).isZero();
+        softly.then(lanes.outcome(hit)).isEqualTo(CombatBatch.HIT);
+        softly.then(lanes.damageDealt(hit)).isEqualTo(1);
+        softly.then(lanes.isCriticalHit(naturalCritical)).isTrue();
+        softly.then(lanes.damageDealt(naturalCritical)).isEqualTo(9);
+        softly.then(lanes.isCriticalHit(elvenCritical)).isTrue();
+        softly.then(lanes.damageDealt(elvenCritical)).isEqualTo(6);
+    }
+
+    @Test
+    void vector_gives_exactly_the_scalar_results() {
+        assumeTrue(CombatKernel.isVectorAvailable());
+        // Given
+        var random = new SplittableRandom(21);
+        // not a multiple of any vector length, so the scalar tail is used too
+        int count = 10_007;
+        var scalar = new CombatLanes(count);
+        var vector = new CombatLanes(count);
+        for (int i = 0; i < count; i++) {
+            boolean extreme = random.nextInt(16) == 0;
+            int roll = random.nextInt(1, 21);
+            int attackModifier = extreme ? random.nextInt() : random.nextInt(-5, 10);
+            int armorClass = extreme ? random.nextInt() : random.nextInt(5, 25);
+            int damage = extreme ? random.nextInt() : random.nextInt(-8, 12);
+            int criticalMultiplier = random.nextInt(2, 5);
+            int criticalThreshold = random.nextInt(18, 21);
+            scalar.add(roll, attackModifier, armorClass, damage, criticalMultiplier, criticalThreshold);
+            vector.add(roll, attackModifier, armorClass, damage, criticalMultiplier, criticalThreshold);
+        }
+
+        // When
+        CombatKernel.scalar().resolve(scalar);
+        CombatKernel.vector().resolve(vector);
+
+        // Then
+        then(vector.outcomes).isEqualTo(scalar.outcomes);
+        then(vector.damagesDealt).isEqualTo(scalar.damagesDealt);
+    }
+
+    @Test
+    void resolves_lanes_loaded_from_a_table_as_heroes_would(BDDSoftAssertions softly) {
+        // Given
+        var random = new SplittableRandom(5);
+        var alignments = new Alignment[]{null, Alignment.GOOD, Alignment.EVIL, Alignment.NEUTRAL};
+        var table = new HeroTable();
+        while (table.size() < 32) {
+            var characterClass = CharacterClass.values().get(random.nextInt(CharacterClass.values().size()));
+            var alignment = alignments[random.nextInt(alignments.length)];
+            var race = Race.values()[random.nextInt(Race.values().length)];
+            if (!characterClass.allows(alignment) || !race.allows(alignment)) {
+                continue;
+            }
+            table.add(Hero.builder().characterClass(characterClass).race(race).alignment(alignment)
+                          .strength(random.nextInt(20) + 1).dexterity(random.nextInt(20) + 1)
+                          .wisdom(random.nextInt(20) + 1).hitPoints(1000).level(random.nextInt(8) + 1).build());
+        }
+        int count = 1000;
+        var attackers = random.ints(count, 0, table.size()).toArray();
+        var defenders = random.ints(count, 0, table.size()).toArray();
+        var rolls = random.ints(count, 1, 21).toArray();
+        var lanes = new CombatLanes(count);
+
+        // When
+        lanes.load(table, attackers, defenders, rolls, count);
+        CombatKernel.best().resolve(lanes);
+
+        // Then
+        for (int i = 0; i < count; i++) {
+            var attacker = table.toHero(attackers[i]);
+            var defender = table.toHero(defenders[i]);
+            int hitPoints = defender.getHitPoints();
+            softly.then(lanes.isHit(i)).isEqualTo(attacker.attemptAttack(defender, rolls[i]));
+            softly.then(lanes.damageDealt(i)).isEqualTo(hitPoints - defender.getHitPoints());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("Combat metrics")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CombatMetricsTest {
+
+    @BeforeEach
+    void enable() {
+        CombatMetrics.reset();
+        CombatMetrics.enable();
+    }
+
+    @AfterEach
+    void disable() {
+        CombatMetrics.disable();
+        CombatMetrics.reset();
+    }
+
+    @Test
+    void count_attacks_hits_critical_hits_damage_and_deaths(BDDSoftAssertions softly) {
+        // Given
+        var player = Hero.builder().strength(14).build(); // +1
+        var opponent = Hero.builder().armorClass(12).hitPoints(6).build();
+
+        // When
+        player.attemptAttack(opponent, 2);
+        player.attemptAttack(opponent, 15);
+        player.attemptAttack(opponent, 20);
+
+        // Then
+        var snapshot = CombatMetrics.snapshot();
+        softly.then(snapshot.attacks()).isEqualTo(3);
+        softly.then(snapshot.hits()).isEqualTo(2);
+        softly.then(snapshot.criticalHits()).isEqualTo(1);
+        softly.then(snapshot.damage()).isEqualTo(2 + 4);
+        softly.then(snapshot.deaths()).isEqualTo(1);
+        softly.then(snapshot.hitRatio()).isEqualTo(2 / 3.0);
+    }
+
+    @Test
+    void count_level_ups_and_batches(BDDSoftAssertions softly) {
+        // Given
+        var table = new HeroTable();
+        int attacker = table.add(Hero.builder().build());
+        int defender = table.add(Hero.builder().hitPoints(10_000).build());
+        var batch = new CombatBatch(table);
+        int[] attackers = new int[100];
+        int[] defenders = new int[100];
+        int[] rolls = new int[100];
+        Arrays.fill(defenders, defender);
+        Arrays.fill(attackers, attacker);
+        Arrays.fill(rolls, 15);
+
+        // When
+        batch.resolve(attackers, defenders, rolls);
+        Hero.builder().build().grantXP(5000);
+
+        // Then
+        var snapshot = CombatMetrics.snapshot();
+        softly.then(snapshot.attacks()).isEqualTo(100);
+        softly.then(snapshot.levelUps()).isEqualTo(1 + 5);
+        softly.then(snapshot.batches()).isEqualTo(1);
+        softly.then(snapshot.batchLatencyMaxNanos()).isPositive();
+    }
+
+    @Test
+    void heroes_built_or_pooled_at_a_level_do_not_count_as_level_ups() {
+        // Given
+        var pool = new HeroPool(1).prefill();
+
+        // When
+        Hero.builder().level(5).build();
+        pool.release(pool.acquire(Hero.builder().level(7)));
+
+        // Then
+        then(CombatMetrics.snapshot().levelUps()).isZero();
+    }
+
+    @Test
+    void keeps_the_counts_of_ended_threads_without_keeping_their_counters(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        CombatMetrics.snapshot();
+        int registered = CombatMetrics.registeredThreads();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            var thread = new Thread(() -> Hero.builder().build().attemptAttack(Hero.builder().build(), 15));
+            thread.start();
+            thread.join();
+        }
+
+        // Then
+        softly.then(CombatMetrics.snapshot().attacks()).isEqualTo(100);
+        softly.then(CombatMetrics.registeredThreads()).isLessThanOrEqualTo(registered);
+    }
+
+    @Test
+    void records_nothing_when_disabled() {
+        // Given
+        CombatMetrics.disable();
+
+        // When
+        Hero.builder().build().attemptAttack(Hero.builder().build(), 20);
+
+        // Then
+        then(CombatMetrics.snapshot().attacks()).isZero();
+    }
+
+    @Test
+    void replayed_attacks_are_not_counted_again(@TempDir Path directory, BDDSoftAssertions softly) throws IOException {
+        // Given an attack journaled as it levelled its attacker up
+        var table = new HeroTable();
+        var veteran = Hero.builder().build();
+        veteran.grantXP(990);
+        int attacker = table.add(veteran);
+        int defender = table.add(Hero.builder().hitPoints(100).build());
+        var replayed = new HeroTable();
+        replayed.add(table.toHero(attacker));
+        replayed.add(table.toHero(defender));
+        Path journalFile = directory.resolve("combat.journal");
+        try (var journal = CombatJournal.open(journalFile)) {
+            var batch = new CombatBatch(table);
+            batch.resolve(new int[]{attacker}, new int[]{defender}, new int[]{15});
+            journal.append(batch, new int[]{attacker}, new int[]{defender}, new int[]{15});
+        }
+        CombatMetrics.reset();
+
+        // When
+        CombatReplay.replay(journalFile, replayed, 0);
+
+        // Then
+        softly.then(replayed.getLevel(attacker)).isEqualTo(2);
+        softly.then(CombatMetrics.snapshot().levelUps()).isZero();
+    }
+
+    @ParameterizedTest(name = "a latency of {0}ns is known within 12.5%")
+    @ValueSource(longs = {0, 7, 15, 16, 17, 100, 999, 123_456, 987_654_321, Long.MAX_VALUE})
+    void latency_histogram_buckets_are_precise_enough(long nanos) {
+        // When
+        long bucketValue = LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(nanos));
+
+        // Then
+        then(bucketValue).isGreaterThanOrEqualTo(nanos);
+        then((double) bucketValue).isLessThanOrEqualTo(nanos * 1.125 + 1);
+    }
+}
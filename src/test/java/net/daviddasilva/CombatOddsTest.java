@@ -0,0 +1,124 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("Combat odds")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CombatOddsTest {
+
+    @Test
+    void counts_the_faces_of_the_die_that_hit(BDDSoftAssertions softly) {
+        // Given
+        var attacker = Hero.builder().strength(15).build(); // +2
+        var defender = Hero.builder().armorClass(12).hitPoints(6).build();
+
+        // When
+        var odds = CombatOdds.between(attacker, defender);
+
+        // Then rolls 10 to 19 hit for 3 damage, a 20 is a critical hit for 6
+        softly.then(odds.hitChance()).isEqualTo(11 / 20.0);
+        softly.then(odds.criticalHitChance()).isEqualTo(1 / 20.0);
+        softly.then(odds.expectedDamagePerRound()).isEqualTo(10 / 20.0 * 3 + 1 / 20.0 * 6);
+    }
+
+    @Test
+    void a_natural_20_is_the_only_hit_against_an_impossible_armor_class(BDDSoftAssertions softly) {
+        // When
+        var odds = CombatOdds.of(0, 0, 100, 1);
+
+        // Then
+        softly.then(odds.hitChance()).isEqualTo(1 / 20.0);
+        softly.then(odds.expectedAttacksToKill()).isEqualTo(20.0);
+    }
+
+    @Test
+    void expected_attacks_to_kill_matches_rolled_fights() {
+        // Given
+        var odds = CombatOdds.of(1, 1, 14, 25);
+        var random = new SplittableRandom(3);
+        int fights = 50_000;
+        long attacks = 0;
+
+        // When
+        for (int i = 0; i < fights; i++) {
+            var attacker = Hero.builder().strength(12).build();
+            var defender = Hero.builder().armorClass(14).hitPoints(25).build();
+            while (!defender.isDead()) {
+                attacker.attemptAttack(defender, random.nextInt(20) + 1);
+                attacks++;
+            }
+        }
+
+        // Then
+        then((double) attacks / fights).isCloseTo(odds.expectedAttacksToKill(), within(0.1));
+    }
+
+    @Test
+    void same_matchups_give_the_same_odds() {
+        then(CombatOdds.of(3, 2, 15, 40)).isEqualTo(CombatOdds.of(3, 2, 15, 40));
+    }
+
+    @Test
+    void hit_points_do_not_grow_the_cache() {
+        // Given
+        CombatOdds.of(4, 1, 13, 1);
+        int cached = CombatOdds.cachedMatchups();
+
+        // When
+        for (int hitPoints = 2; hitPoints <= 10_000; hitPoints++) {
+            CombatOdds.of(4, 1, 13, hitPoints);
+        }
+
+        // Then
+        then(CombatOdds.cachedMatchups()).isEqualTo(cached);
+    }
+
+    @Test
+    void extrapolates_the_attacks_to_kill_beyond_the_memoized_hit_points(BDDSoftAssertions softly) {
+        for (int damageModifier : new int[]{0, 1, 3}) {
+            for (int hitPoints : new int[]{CombatOdds.EXACT_HIT_POINTS + 12_345, 3_000_000}) {
+                // When
+                var odds = CombatOdds.of(2, damageModifier, 15, hitPoints);
+
+                // Then
+                softly.then(odds.expectedAttacksToKill())
+                      .isCloseTo(attacksToKill(odds, CombatRules.hitDamage(damageModifier), CombatRules.criticalHitDamage(damageModifier * 2), hitPoints),
+                              withinPercentage(1e-7));
+            }
+        }
+    }
+
+    @Test
+    void answers_for_a_billion_hit_points_without_walking_them() {
+        // When
+        var odds = CombatOdds.of(2, 1, 15, 1_000_000_000);
+
+        // Then
+        then(odds.expectedAttacksToKill()).isCloseTo(1e9 / odds.expectedDamagePerRound(), withinPercentage(1e-6));
+    }
+
+    private static double attacksToKill(CombatOdds odds, int hitDamage, int criticalHitDamage, int hitPoints) {
+        double criticalHitChance = odds.criticalHitChance();
+        double normalHitChance = odds.hitChance() - criticalHitChance;
+        double[] expected = new double[hitPoints + 1];
+        for (int hp = 1; hp <= hitPoints; hp++) {
+            double afterHit = expected[Math.max(0, hp - hitDamage)];
+            double afterCriticalHit = expected[Math.max(0, hp - criticalHitDamage)];
+            expected[hp] = (1 + normalHitChance * afterHit + criticalHitChance * afterCriticalHit) / odds.hitChance();
+        }
+        return expected[hitPoints];
+    }
+}
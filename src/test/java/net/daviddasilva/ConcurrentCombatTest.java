@@ -0,0 +1,121 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+
+@DisplayName("Concurrent combat")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ConcurrentCombatTest {
+
+    private static final int THREADS = 40;
+    private static final int ATTACKS_PER_THREAD = 5_000;
+
+    private final ConcurrentCombat combat = new ConcurrentCombat(8);
+
+    @RepeatedTest(5)
+    void no_damage_is_lost_when_a_raid_hits_one_boss(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        var boss = Hero.builder().armorClass(10).hitPoints(10_000_000).build();
+        List<Hero> raid = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            raid.add(Hero.builder().strength(12).build());
+        }
+
+        // When
+        runConcurrently(thread -> {
+            var attacker = raid.get(thread);
+            for (int i = 0; i < ATTACKS_PER_THREAD; i++) {
+                combat.attemptAttack(attacker, boss, i % 2 == 0 ? 15 : 20);
+            }
+        });
+
+        // Then
+        int hits = THREADS * ATTACKS_PER_THREAD / 2;
+        int criticalHits = THREADS * ATTACKS_PER_THREAD / 2;
+        softly.then(combat.getHitPoints(boss)).isEqualTo(10_000_000 - hits * 2 - criticalHits * 4);
+    }
+
+    @RepeatedTest(5)
+    void a_hero_attacking_from_many_threads_levels_up_exactly_once_per_threshold(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        var champion = Hero.builder().constitution(14).hitPoints(10).build();
+        var reference = Hero.builder().constitution(14).hitPoints(10).build();
+        var dummy = Hero.builder().armorClass(1).hitPoints(Integer.MAX_VALUE).build();
+
+        // When
+        runConcurrently(thread -> {
+            for (int i = 0; i < ATTACKS_PER_THREAD; i++) {
+                combat.attemptAttack(champion, dummy, 15);
+            }
+        });
+        for (int i = 0; i < THREADS * ATTACKS_PER_THREAD; i++) {
+            reference.gainXP();
+        }
+
+        // Then
+        softly.then(champion.getXp()).isEqualTo(reference.getXp());
+        softly.then(champion.getLevel()).isEqualTo(reference.getLevel());
+        softly.then(champion.getAttackBonus()).isEqualTo(reference.getAttackBonus());
+        softly.then(combat.getHitPoints(champion)).isEqualTo(reference.getHitPoints());
+    }
+
+    @RepeatedTest(5)
+    void level_ups_are_not_lost_when_the_hero_is_attacked_at_the_same_time(BDDSoftAssertions softly) throws InterruptedException {
+        // Given
+        var champion = Hero.builder().hitPoints(1_000_000).build();
+        var reference = Hero.builder().hitPoints(1_000_000).build();
+        var dummy = Hero.builder().armorClass(1).hitPoints(Integer.MAX_VALUE).build();
+
+        // When
+        runConcurrently(thread -> {
+            for (int i = 0; i < ATTACKS_PER_THREAD; i++) {
+                if (thread % 2 == 0) {
+                    combat.attemptAttack(champion, dummy, 15);
+                } else {
+                    combat.takeHit(champion, 0);
+                }
+            }
+        });
+        for (int i = 0; i < THREADS / 2 * ATTACKS_PER_THREAD; i++) {
+            reference.gainXP();
+            reference.takeHit(0);
+        }
+
+        // Then
+        softly.then(champion.getLevel()).isEqualTo(reference.getLevel());
+        softly.then(combat.getHitPoints(champion)).isEqualTo(reference.getHitPoints());
+    }
+
+    private static void runConcurrently(IntConsumer task) throws InterruptedException {
+        var start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.accept(thread);
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
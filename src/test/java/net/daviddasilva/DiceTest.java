@@ -0,0 +1,122 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("Dice")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DiceTest {
+
+    @Test
+    void seeded_dice_follow_the_generator_of_splittable_random() {
+        // Given
+        var dice = Dice.seeded(42);
+        var random = new SplittableRandom(42);
+
+        // When
+        long bits = random.nextLong();
+
+        // Then
+        then(new int[]{dice.rollD20(), dice.rollD20()})
+                .containsExactly(toD20(bits & 0xFFFF_FFFFL), toD20(bits >>> Integer.SIZE));
+    }
+
+    @Test
+    void seeded_dice_give_the_same_rolls_one_by_one_or_in_bulk() {
+        // Given
+        var oneByOne = Dice.seeded(7);
+        var inBulk = Dice.seeded(7);
+        int[] expected = new int[1001];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = oneByOne.rollD20();
+        }
+
+        // When
+        int[] rolls = new int[1001];
+        rolls[0] = inBulk.rollD20();
+        inBulk.rollD20(rolls, 1, 500);
+        inBulk.rollD20(rolls, 500, 1001);
+
+        // Then
+        then(rolls).containsExactly(expected);
+    }
+
+    @Test
+    void rolls_every_face_about_as_often(BDDSoftAssertions softly) {
+        // Given
+        int[] rolls = new int[200_000];
+        int[] faces = new int[Dice.D20 + 1];
+
+        // When
+        Dice.seeded(1).rollD20(rolls);
+
+        // Then
+        for (int roll : rolls) {
+            faces[roll]++;
+        }
+        softly.then(faces[0]).isZero();
+        for (int face = 1; face <= Dice.D20; face++) {
+            softly.then(faces[face]).as("face %d", face).isBetween(9_500, 10_500);
+        }
+    }
+
+    @Test
+    void random_dice_can_be_shared_between_threads() {
+        // Given
+        var dice = Dice.random();
+        var pool = new ForkJoinPool(4);
+
+        // When
+        var tasks = IntStream.range(0, 8)
+                             .mapToObj(i -> pool.submit(() -> {
+                                 int[] rolls = new int[10_000];
+                                 dice.rollD20(rolls);
+                                 return IntStream.of(rolls).allMatch(roll -> roll >= 1 && roll <= Dice.D20);
+                             }))
+                             .toList();
+
+        // Then
+        then(tasks).extracting(ForkJoinTask::join).containsOnly(true);
+    }
+
+    @Test
+    void scripted_dice_roll_their_script_in_a_loop() {
+        // Given
+        var dice = Dice.scripted(20, 1, 12);
+
+        // When
+        int[] rolls = new int[5];
+        dice.rollD20(rolls);
+
+        // Then
+        then(rolls).containsExactly(20, 1, 12, 20, 1);
+    }
+
+    @Test
+    void scripted_dice_cannot_roll_outside_of_a_d20() {
+        // When
+        var thrown = catchThrowable(() -> Dice.scripted(10, 21));
+
+        // Then
+        then(thrown).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("A d20 cannot roll 21");
+    }
+
+    private static int toD20(long bits) {
+        return (int) ((bits * Dice.D20) >>> Integer.SIZE) + 1;
+    }
+}
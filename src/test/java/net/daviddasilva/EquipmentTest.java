@@ -0,0 +1,185 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("A hero's equipment")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EquipmentTest {
+
+    @Test
+    void longsword_does_5_points_of_damage(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().build();
+        var opponent = Hero.builder().hitPoints(20).build();
+        hero.equip(Item.longsword());
+
+        // When
+        hero.attemptAttack(opponent, 10);
+        int afterHit = opponent.getHitPoints();
+        hero.attemptAttack(opponent, Hero.NAT_20);
+
+        // Then
+        softly.then(afterHit).isEqualTo(15);
+        softly.then(opponent.getHitPoints()).isEqualTo(5);
+    }
+
+    @Test
+    void waraxe_adds_to_attack_and_damage_and_triples_critical_hits(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().build();
+        var opponent = Hero.builder().hitPoints(100).build();
+        hero.equip(Item.waraxe());
+
+        // When
+        boolean hit = hero.attemptAttack(opponent, 8);
+        int afterHit = opponent.getHitPoints();
+        hero.attemptAttack(opponent, Hero.NAT_20);
+
+        // Then
+        softly.then(hit).isTrue();
+        softly.then(afterHit).isEqualTo(100 - 8);
+        softly.then(opponent.getHitPoints()).isEqualTo(100 - 8 - 3 * 8);
+    }
+
+    @Test
+    void waraxe_quadruples_critical_hits_of_a_rogue() {
+        // Given
+        var rogue = Hero.builder().characterClass(CharacterClass.named("Rogue")).build();
+        var opponent = Hero.builder().hitPoints(100).build();
+        rogue.equip(Item.waraxe());
+
+        // When
+        rogue.attemptAttack(opponent, Hero.NAT_20);
+
+        // Then
+        then(opponent.getHitPoints()).isEqualTo(100 - 4 * 8);
+    }
+
+    @Test
+    void armor_shield_and_items_add_up_to_armor_class(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().build();
+
+        // When
+        hero.equip(Item.plateArmor());
+        hero.equip(Item.shield());
+        hero.equip(Item.ringOfProtection());
+
+        // Then
+        softly.then(hero.getArmorClass()).isEqualTo(10 + 8 + 3 + 2);
+        softly.then(hero.getAttackModifier()).isEqualTo(-4);
+    }
+
+    @Test
+    void ability_score_bonuses_change_modifiers_up_to_the_maximum_score(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().strength(12).build();
+        var strongest = Hero.builder().strength(18).build();
+        var gloves = new Item("Gloves of dexterity", Item.Slot.ITEM, 0, 0, 0, 0, 0, Map.of(Ability.DEXTERITY, 4));
+
+        // When
+        hero.equip(Item.beltOfGiantStrength());
+        hero.equip(gloves);
+        strongest.equip(Item.beltOfGiantStrength());
+
+        // Then
+        softly.then(hero.getStrengthModifier()).isEqualTo(3);
+        softly.then(hero.getAttackModifier()).isEqualTo(3);
+        softly.then(hero.getDamageModifier()).isEqualTo(3);
+        softly.then(hero.getArmorClass()).isEqualTo(11);
+        softly.then(hero.getAbilities().get(Ability.STRENGTH).score()).isEqualTo(12);
+        softly.then(strongest.getStrengthModifier()).isEqualTo(5);
+    }
+
+    @Test
+    void can_wield_only_one_weapon(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().build();
+        hero.equip(Item.longsword());
+
+        // When
+        var thrown = catchThrowable(() -> hero.equip(Item.waraxe()));
+
+        // Then
+        softly.then(thrown).isInstanceOf(IllegalStateException.class);
+        softly.then(hero.getEquipment()).containsExactly(Item.longsword());
+    }
+
+    @Test
+    void gives_back_every_bonus_when_unequipped(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().strength(14).dexterity(13).characterClass(CharacterClass.named("Monk")).wisdom(16).build();
+        int armorClass = hero.getArmorClass();
+        int attackModifier = hero.getAttackModifier();
+        int damageModifier = hero.getDamageModifier();
+        var items = new Item[]{Item.waraxe(), Item.plateArmor(), Item.shield(), Item.ringOfProtection(), Item.beltOfGiantStrength()};
+        for (Item item : items) {
+            hero.equip(item);
+        }
+
+        // When
+        for (Item item : items) {
+            hero.unequip(item);
+        }
+
+        // Then
+        softly.then(hero.getEquipment()).isEmpty();
+        softly.then(hero.getArmorClass()).isEqualTo(armorClass);
+        softly.then(hero.getAttackModifier()).isEqualTo(attackModifier);
+        softly.then(hero.getDamageModifier()).isEqualTo(damageModifier);
+    }
+
+    @Test
+    void cannot_unequip_what_is_not_equipped() {
+        // When
+        var thrown = catchThrowable(() -> Hero.builder().build().unequip(Item.longsword()));
+
+        // Then
+        then(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void can_carry_many_items(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().build();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            hero.equip(Item.ringOfProtection());
+        }
+        hero.unequip(Item.ringOfProtection());
+
+        // Then
+        softly.then(hero.getEquipment()).hasSize(19);
+        softly.then(hero.getArmorClass()).isEqualTo(10 + 19 * 2);
+    }
+
+    @Test
+    void is_left_behind_by_snapshots(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().name("Krom").dexterity(14).build();
+        hero.equip(Item.plateArmor());
+        var buffer = ByteBuffer.allocate(HeroCodec.encodedSize(hero));
+
+        // When
+        HeroCodec.write(hero, buffer);
+        var decoded = HeroCodec.read(buffer.flip());
+
+        // Then
+        softly.then(decoded.getArmorClass()).isEqualTo(11);
+        softly.then(decoded.getEquipment()).isEmpty();
+    }
+}
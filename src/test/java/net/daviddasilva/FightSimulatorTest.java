@@ -0,0 +1,77 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("The fight simulator")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FightSimulatorTest {
+
+    private static final Supplier<Hero> BRUTE = () -> Hero.builder().strength(18).level(5).build();
+    private static final Supplier<Hero> DUELIST = () -> Hero.builder().dexterity(16).level(6).build();
+
+    @Test
+    void gives_the_same_report_for_the_same_seed_whatever_the_parallelism() {
+        // Given
+        var sequential = new FightSimulator(new ForkJoinPool(1));
+        var parallel = new FightSimulator(new ForkJoinPool(4));
+
+        // When
+        var first = sequential.simulate(BRUTE, DUELIST, 10_000, 42);
+        var second = parallel.simulate(BRUTE, DUELIST, 10_000, 42);
+
+        // Then
+        then(first).isEqualTo(second);
+    }
+
+    @Test
+    void accounts_for_every_duel(BDDSoftAssertions softly) {
+        // When
+        var report = new FightSimulator().simulate(BRUTE, DUELIST, 5_000, 7);
+
+        // Then
+        softly.then(report.duels()).isEqualTo(5_000);
+        softly.then(report.challengerWins() + report.opponentWins() + report.draws()).isEqualTo(5_000);
+        softly.then(report.averageRounds()).isPositive();
+        softly.then(report.averageChallengerDamage()).isPositive();
+    }
+
+    @Test
+    void averages_damage_beyond_the_last_bucket_of_the_histogram(BDDSoftAssertions softly) {
+        // Given
+        Supplier<Hero> tank = () -> Hero.builder().strength(20).hitPoints(5_000).build();
+        Supplier<Hero> giant = () -> Hero.builder().strength(1).hitPoints(1_000).build();
+
+        // When
+        var report = new FightSimulator().simulate(tank, giant, 100, 3);
+
+        // Then
+        softly.then(report.challengerWins()).isEqualTo(100);
+        softly.then(report.averageChallengerDamage()).isGreaterThanOrEqualTo(1_000);
+        softly.then(report.challengerDamage()[FightReport.DAMAGE_BUCKETS - 1]).isEqualTo(100);
+    }
+
+    @Test
+    void the_stronger_hero_wins_most_duels() {
+        // Given
+        Supplier<Hero> weakling = () -> Hero.builder().strength(3).build();
+        Supplier<Hero> champion = () -> Hero.builder().strength(18).constitution(16).level(4).build();
+
+        // When
+        var report = new FightSimulator().simulate(weakling, champion, 2_000, 1);
+
+        // Then
+        then(report.opponentWinRate()).isGreaterThan(0.9);
+    }
+}
@@ -0,0 +1,143 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenCode;
+
+@DisplayName("The hero codec")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HeroCodecTest {
+
+    @Test
+    void round_trips_a_hero_exactly(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder()
+                       .name("Krom \u00e9\u4e2d\ud83d\udde1")
+                       .alignment(Alignment.NEUTRAL)
+                       .characterClass(CharacterClass.named("Monk"))
+                       .race(Race.DWARF)
+                       .armorClass(13)
+                       .hitPoints(12)
+                       .strength(18)
+                       .dexterity(3)
+                       .constitution(16)
+                       .wisdom(7)
+                       .intelligence(20)
+                       .charisma(1)
+                       .level(7)
+                       .build();
+        hero.grantXP(6420);
+        hero.takeHit(3);
+        var buffer = ByteBuffer.allocate(HeroCodec.encodedSize(hero));
+
+        // When
+        HeroCodec.write(hero, buffer);
+        buffer.flip();
+        var copy = HeroCodec.read(buffer);
+
+        // Then
+        softly.then(buffer.hasRemaining()).isFalse();
+        softly.then(copy).usingRecursiveComparison().isEqualTo(hero);
+    }
+
+    @Test
+    void has_a_fixed_size_body_followed_by_the_name() {
+        // Given
+        var hero = Hero.builder().name("Krom").build();
+
+        // Then
+        then(HeroCodec.encodedSize(hero)).isEqualTo(34 + 2 + 4);
+    }
+
+    @Test
+    void keeps_heroes_without_name_nor_alignment(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder().build();
+        var buffer = ByteBuffer.allocate(HeroCodec.encodedSize(hero));
+
+        // When
+        HeroCodec.write(hero, buffer);
+        var copy = HeroCodec.read(buffer.flip());
+
+        // Then
+        softly.then(copy.getName()).isNull();
+        softly.then(copy.getAlignment()).isNull();
+    }
+
+    @Test
+    void reads_heroes_written_before_classes_and_races_with_the_defaults(BDDSoftAssertions softly) {
+        // Given
+        var buffer = ByteBuffer.allocate(32 + 2)
+                               .put((byte) 1).put((byte) Alignment.EVIL.ordinal())
+                               .putInt(12).putInt(7)
+                               .put(new byte[]{18, 10, 10, 10, 10, 10})
+                               .putInt(3).putInt(1).putLong(2500)
+                               .putShort((short) -1)
+                               .flip();
+
+        // When
+        var hero = HeroCodec.read(buffer);
+
+        // Then
+        softly.then(buffer.hasRemaining()).isFalse();
+        softly.then(hero.getCharacterClass()).isEqualTo(CharacterClass.defaultClass());
+        softly.then(hero.getRace()).isEqualTo(Race.HUMAN);
+        softly.then(hero.getAlignment()).isEqualTo(Alignment.EVIL);
+        softly.then(hero.getStrengthModifier()).isEqualTo(4);
+        softly.then(hero.getLevel()).isEqualTo(3);
+        softly.then(hero.getXp()).isEqualTo(2500);
+    }
+
+    @Test
+    void rejects_unknown_versions() {
+        // Given
+        var buffer = ByteBuffer.allocate(HeroCodec.encodedSize(Hero.builder().build()));
+        HeroCodec.write(Hero.builder().build(), buffer);
+        buffer.put(0, (byte) 99).flip();
+
+        // Then
+        thenCode(() -> HeroCodec.read(buffer)).isInstanceOf(IllegalArgumentException.class)
+                                              .hasMessage("Unsupported hero format version 99");
+    }
+
+    @Test
+    void streams_many_heroes_through_a_file(@TempDir Path directory, BDDSoftAssertions softly) throws IOException {
+        // Given
+        Path file = directory.resolve("heroes.bin");
+        int count = 20_000;
+
+        // When
+        try (var writer = new HeroStreamWriter(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE))) {
+            for (int i = 0; i < count; i++) {
+                writer.write(Hero.builder().name("Hero " + i).strength(i % 20 + 1).level(i % 10 + 1).build());
+            }
+        }
+
+        // Then
+        try (var reader = new HeroStreamReader(FileChannel.open(file))) {
+            int i = 0;
+            while (reader.hasNext()) {
+                var hero = reader.next();
+                softly.then(hero.getName()).isEqualTo("Hero " + i);
+                softly.then(hero.getLevel()).isEqualTo(i % 10 + 1);
+                i++;
+            }
+            softly.then(i).isEqualTo(count);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("A hero index")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HeroIndexTest {
+
+    private static final Alignment[] ALIGNMENTS = {null, Alignment.GOOD, Alignment.EVIL, Alignment.NEUTRAL};
+
+    @Test
+    void finds_living_heroes_by_alignment_and_level(BDDSoftAssertions softly) {
+        // Given
+        var table = new HeroTable();
+        int goblin = table.add(Hero.builder().name("Goblin").alignment(Alignment.EVIL).level(3).build());
+        int orc = table.add(Hero.builder().name("Orc").alignment(Alignment.EVIL).level(6).build());
+        table.add(Hero.builder().name("Paladin").alignment(Alignment.GOOD).level(6).build());
+        int lich = table.add(Hero.builder().name("Lich").alignment(Alignment.EVIL).level(8).build());
+        var index = new HeroIndex(table);
+        table.setListener(index);
+
+        // When
+        while (!table.isDead(lich)) {
+            table.attemptAttack(goblin, lich, Hero.NAT_20);
+        }
+
+        // Then
+        softly.then(index.find(Alignment.EVIL, 5, 8, true)).containsExactly(orc);
+        softly.then(index.find(Alignment.EVIL, 5, 8, false)).containsExactly(lich);
+        softly.then(index.count(5, 8, true)).isEqualTo(2);
+    }
+
+    @Test
+    void follows_level_ups(BDDSoftAssertions softly) {
+        // Given
+        var table = new HeroTable();
+        int hero = table.add(Hero.builder().alignment(Alignment.NEUTRAL).build());
+        var index = new HeroIndex(table);
+        table.setListener(index);
+
+        // When
+        table.grantXP(hero, 4_000);
+
+        // Then
+        softly.then(index.find(Alignment.NEUTRAL, 1, 4, true)).isEmpty();
+        softly.then(index.find(Alignment.NEUTRAL, 5, 5, true)).containsExactly(hero);
+    }
+
+    @Test
+    void indexes_heroes_added_after_it() {
+        // Given
+        var table = new HeroTable();
+        var index = new HeroIndex(table);
+
+        // When
+        int hero = table.add(Hero.builder().level(2).build());
+
+        // Then
+        then(index.find(null, 2, 2, true)).containsExactly(hero);
+    }
+
+    @Test
+    void checks_levels_beyond_its_buckets_one_by_one(BDDSoftAssertions softly) {
+        // Given
+        var table = new HeroTable();
+        int veteran = table.add(Hero.builder().level(70).build());
+        int legend = table.add(Hero.builder().level(200).build());
+        var index = new HeroIndex(table);
+
+        // Then
+        softly.then(index.find(60, 100, true)).containsExactly(veteran);
+        softly.then(index.find(150, Integer.MAX_VALUE, true)).containsExactly(legend);
+        softly.then(index.find(1, Integer.MAX_VALUE, true)).containsExactly(veteran, legend);
+    }
+
+    @Test
+    void answers_as_a_full_scan_would_while_heroes_fight(BDDSoftAssertions softly) {
+        // Given
+        var random = new SplittableRandom(8);
+        var table = new HeroTable();
+        while (table.size() < 64) {
+            var alignment = ALIGNMENTS[random.nextInt(ALIGNMENTS.length)];
+            table.add(Hero.builder().alignment(alignment).hitPoints(random.nextInt(1, 30)).level(random.nextInt(1, 12)).build());
+        }
+        var index = new HeroIndex(table);
+        var levelUps = new ArrayList<Integer>();
+        table.setListener(index.andThen(new CombatListener() {
+            @Override
+            public void onLevelUp(int hero, int level) {
+                levelUps.add(hero);
+            }
+        }));
+        var batch = new CombatBatch(table);
+        int attacks = 50_000;
+
+        // When
+        batch.resolve(random.ints(attacks, 0, table.size()).toArray(), random.ints(attacks, 0, table.size()).toArray(),
+                random.ints(attacks, 1, 21).toArray());
+
+        // Then
+        softly.then(levelUps).isNotEmpty();
+        for (Alignment alignment : ALIGNMENTS) {
+            for (int minLevel = 0; minLevel < 14; minLevel += 3) {
+                int maxLevel = minLevel + 3;
+                for (boolean alive : new boolean[]{true, false}) {
+                    softly.then(index.find(alignment, minLevel, maxLevel, alive))
+                          .containsExactly(scan(table, alignment, minLevel, maxLevel, alive));
+                }
+            }
+        }
+    }
+
+    private static int[] scan(HeroTable table, Alignment alignment, int minLevel, int maxLevel, boolean alive) {
+        return IntStream.range(0, table.size())
+                        .filter(row -> table.getAlignment(row) == alignment && table.getLevel(row) >= minLevel
+                                && table.getLevel(row) <= maxLevel && table.isDead(row) != alive)
+                        .toArray();
+    }
+}
@@ -0,0 +1,130 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("A hero pool")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HeroPoolTest {
+
+    @Test
+    void builds_new_heroes_when_empty(BDDSoftAssertions softly) {
+        // Given
+        var pool = new HeroPool(4);
+
+        // When
+        var goblin = pool.acquire(Hero.builder().name("Goblin"));
+
+        // Then
+        softly.then(goblin.getName()).isEqualTo("Goblin");
+        softly.then(pool.available()).isZero();
+    }
+
+    @Test
+    void reuses_released_heroes(BDDSoftAssertions softly) {
+        // Given
+        var pool = new HeroPool(4);
+        var builder = Hero.builder();
+        var goblin = pool.acquire(builder.name("Goblin"));
+        pool.release(goblin);
+
+        // When
+        var orc = pool.acquire(builder.reset().name("Orc").race(Race.ORC));
+
+        // Then
+        softly.then(orc).isSameAs(goblin);
+        softly.then(orc.getName()).isEqualTo("Orc");
+        softly.then(orc.getRace()).isEqualTo(Race.ORC);
+        softly.then(pool.available()).isZero();
+    }
+
+    @Test
+    void resets_a_used_hero_into_the_one_a_builder_would_build() {
+        // Given
+        var pool = new HeroPool(1);
+        var veteran = pool.acquire(Hero.builder().name("Veteran").characterClass(CharacterClass.named("Fighter")).strength(18).level(3));
+        veteran.equip(Item.waraxe());
+        veteran.grantXP(5_000);
+        veteran.takeHit(3);
+        pool.release(veteran);
+        var builder = Hero.builder()
+                          .name("Kobold")
+                          .alignment(Alignment.EVIL)
+                          .race(Race.DWARF)
+                          .armorClass(12)
+                          .hitPoints(4)
+                          .dexterity(14)
+                          .constitution(16)
+                          .level(2);
+
+        // When
+        var kobold = pool.acquire(builder);
+
+        // Then
+        then(kobold).usingRecursiveComparison().ignoringFields("equipment").isEqualTo(builder.build());
+        then(kobold.getEquipment()).isEmpty();
+    }
+
+    @Test
+    void builder_reset_restores_the_defaults() {
+        // Given
+        var builder = Hero.builder().name("Krom").race(Race.ELF).strength(3).armorClass(2).hitPoints(1).level(4);
+
+        // When
+        var hero = builder.reset().build();
+
+        // Then
+        then(hero).usingRecursiveComparison().isEqualTo(Hero.builder().build());
+    }
+
+    @Test
+    void cannot_release_a_hero_twice() {
+        // Given
+        var pool = new HeroPool(4);
+        var goblin = pool.acquire(Hero.builder().name("Goblin"));
+        pool.release(goblin);
+
+        // When
+        var thrown = catchThrowable(() -> pool.release(goblin));
+
+        // Then
+        then(thrown).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void keeps_no_more_heroes_than_its_capacity(BDDSoftAssertions softly) {
+        // Given
+        var pool = new HeroPool(2).prefill();
+
+        // When
+        pool.release(Hero.builder().build());
+
+        // Then
+        softly.then(pool.available()).isEqualTo(2);
+        softly.then(pool.capacity()).isEqualTo(2);
+    }
+
+    @Test
+    void keeps_its_hero_when_the_builder_is_invalid(BDDSoftAssertions softly) {
+        // Given
+        var pool = new HeroPool(1).prefill();
+        var builder = Hero.builder().characterClass(CharacterClass.named("Paladin")).alignment(Alignment.EVIL);
+
+        // When
+        var thrown = catchThrowable(() -> pool.acquire(builder));
+
+        // Then
+        softly.then(thrown).isInstanceOf(IllegalArgumentException.class);
+        softly.then(pool.available()).isEqualTo(1);
+        softly.then(pool.acquire(Hero.builder().name("Goblin")).getName()).isEqualTo("Goblin");
+    }
+}
@@ -0,0 +1,217 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("The hero store")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HeroStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keeps_heroes_across_restarts(BDDSoftAssertions softly) throws IOException {
+        // Given
+        try (var store = HeroStore.open(directory)) {
+            for (int i = 0; i < 3000; i++) {
+                store.append(Hero.builder().name("Hero " + i).strength(i % 20 + 1).build());
+            }
+        }
+
+        // When
+        try (var store = HeroStore.open(directory)) {
+            // Then
+            softly.then(store.size()).isEqualTo(3000);
+            softly.then(store.load(2999).getName()).isEqualTo("Hero 2999");
+            softly.then(store.load(2999).getStrengthModifier()).isEqualTo(5);
+            softly.then(store.corruptedRows()).isEmpty();
+        }
+    }
+
+    @Test
+    void saves_mutations_in_place(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var hero = Hero.builder().name("Krom").hitPoints(10).build();
+        try (var store = HeroStore.open(directory)) {
+            int row = store.append(hero);
+
+            // When
+            hero.takeHit(3);
+            hero.grantXP(1500);
+            store.save(row, hero);
+        }
+
+        // Then
+        try (var store = HeroStore.open(directory)) {
+            softly.then(store.load(0)).usingRecursiveComparison().isEqualTo(hero);
+        }
+    }
+
+    @Test
+    void falls_back_to_the_previous_version_of_a_torn_record(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var hero = Hero.builder().name("Krom").hitPoints(10).build();
+        try (var store = HeroStore.open(directory)) {
+            store.append(hero);
+            hero.takeHit(4);
+            store.save(0, hero);
+        }
+
+        // When the last save is torn, it went to the second slot of the row
+        corrupt(HeroStore.HEADER_SIZE + HeroStore.SLOT_SIZE + 30);
+
+        // Then
+        try (var store = HeroStore.open(directory)) {
+            softly.then(store.corruptedRows()).isEmpty();
+            softly.then(store.load(0).getHitPoints()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    void reports_records_with_no_valid_version() throws IOException {
+        // Given
+        try (var store = HeroStore.open(directory)) {
+            store.append(Hero.builder().name("Krom").build());
+            store.append(Hero.builder().name("Conan").build());
+        }
+
+        // When
+        corrupt(HeroStore.HEADER_SIZE + HeroStore.ROW_SIZE + 30);
+
+        // Then
+        try (var store = HeroStore.open(directory)) {
+            then(store.corruptedRows()).containsExactly(1);
+        }
+    }
+
+    @Test
+    void reports_records_whose_name_was_lost(BDDSoftAssertions softly) throws IOException {
+        // Given
+        try (var store = HeroStore.open(directory)) {
+            store.append(Hero.builder().name("Krom").build());
+            store.append(Hero.builder().name("Conan").build());
+        }
+
+        // When the names file lost the end of the second name
+        try (var channel = FileChannel.open(directory.resolve(HeroStore.NAMES_FILE), StandardOpenOption.WRITE)) {
+            channel.truncate(10);
+        }
+
+        // Then
+        try (var store = HeroStore.open(directory)) {
+            softly.then(store.corruptedRows()).containsExactly(1);
+            softly.then(store.load(0).getName()).isEqualTo("Krom");
+        }
+    }
+
+    @Test
+    void refuses_a_file_that_is_not_a_store_without_touching_it(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var file = directory.resolve(HeroStore.RECORDS_FILE);
+        Files.writeString(file, "name,alignment\nKrom,GOOD\n");
+
+        // When
+        var thrown = catchThrowable(() -> HeroStore.open(directory));
+
+        // Then
+        softly.then(thrown).isInstanceOf(IOException.class).hasMessage("Not a hero store");
+        softly.then(Files.readString(file)).isEqualTo("name,alignment\nKrom,GOOD\n");
+    }
+
+    @Test
+    void writes_attached_heroes_through(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var hero = Hero.builder().name("Krom").hitPoints(10).build();
+        var opponent = Hero.builder().name("Conan").build();
+        try (var store = HeroStore.open(directory)) {
+            int row = store.append(hero);
+            store.attach(row, hero);
+
+            // When
+            hero.takeHit(3);
+            hero.grantXP(1500);
+            hero.attemptAttack(opponent, 20);
+        }
+
+        // Then
+        try (var store = HeroStore.open(directory)) {
+            softly.then(store.load(0)).usingRecursiveComparison().ignoringFields("store").isEqualTo(hero);
+        }
+        softly.thenThrownBy(() -> hero.takeHit(1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void repairs_a_corrupted_record_saved_over(BDDSoftAssertions softly) throws IOException {
+        // Given
+        try (var store = HeroStore.open(directory)) {
+            store.append(Hero.builder().name("Krom").build());
+            store.append(Hero.builder().name("Conan").build());
+        }
+        corrupt(HeroStore.HEADER_SIZE + HeroStore.ROW_SIZE + 30);
+
+        // When
+        var hero = Hero.builder().name("Thulsa").strength(16).build();
+        try (var store = HeroStore.open(directory)) {
+            store.save(1, hero);
+            softly.then(store.corruptedRows()).isEmpty();
+        }
+
+        // Then
+        try (var store = HeroStore.open(directory)) {
+            softly.then(store.corruptedRows()).isEmpty();
+            softly.then(store.load(1)).usingRecursiveComparison().isEqualTo(hero);
+            softly.then(store.load(0).getName()).isEqualTo("Krom");
+        }
+    }
+
+    @Test
+    void grows_over_several_mapped_segments(BDDSoftAssertions softly) throws IOException {
+        // Given
+        int heroes = HeroStore.SEGMENT_ROWS + 10;
+        var hero = Hero.builder().name("Krom").hitPoints(10).build();
+        try (var store = HeroStore.open(directory)) {
+            for (int i = 0; i < heroes; i++) {
+                store.append(hero);
+            }
+
+            // When
+            hero.takeHit(3);
+            store.save(HeroStore.SEGMENT_ROWS - 1, hero);
+            store.save(HeroStore.SEGMENT_ROWS, hero);
+        }
+
+        // Then
+        try (var store = HeroStore.open(directory)) {
+            softly.then(store.size()).isEqualTo(heroes);
+            softly.then(store.corruptedRows()).isEmpty();
+            softly.then(store.load(HeroStore.SEGMENT_ROWS - 2).getHitPoints()).isEqualTo(10);
+            softly.then(store.load(HeroStore.SEGMENT_ROWS - 1).getHitPoints()).isEqualTo(6);
+            softly.then(store.load(HeroStore.SEGMENT_ROWS).getHitPoints()).isEqualTo(6);
+            softly.then(store.load(heroes - 1).getName()).isEqualTo("Krom");
+        }
+    }
+
+    private void corrupt(long position) throws IOException {
+        try (var channel = FileChannel.open(directory.resolve(HeroStore.RECORDS_FILE), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF, 0x7F}), position);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("A Hero table")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HeroTableTest {
+
+    @Test
+    void stores_every_attribute_of_a_hero(BDDSoftAssertions softly) {
+        // Given
+        var hero = Hero.builder()
+                       .name("Krom")
+                       .alignment(Alignment.EVIL)
+                       .armorClass(12)
+                       .hitPoints(8)
+                       .strength(16)
+                       .dexterity(14)
+                       .constitution(3)
+                       .level(4)
+                       .build();
+        var table = new HeroTable(1);
+
+        // When
+        int row = table.add(hero);
+        Hero copy = table.toHero(row);
+
+        // Then
+        softly.then(copy.getName()).isEqualTo("Krom");
+        softly.then(copy.getAlignment()).isEqualTo(Alignment.EVIL);
+        softly.then(copy.getArmorClass()).isEqualTo(hero.getArmorClass());
+        softly.then(copy.getHitPoints()).isEqualTo(hero.getHitPoints());
+        softly.then(copy.getLevel()).isEqualTo(4);
+        softly.then(copy.getAttackBonus()).isEqualTo(hero.getAttackBonus());
+        softly.then(copy.getAbilities()).isEqualTo(hero.getAbilities());
+    }
+
+    @Test
+    void grows_when_adding_more_heroes_than_its_capacity() {
+        // Given
+        var table = new HeroTable(2);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            table.add(Hero.builder().name("Hero " + i).build());
+        }
+
+        // Then
+        then(table.view(9).getName()).isEqualTo("Hero 9");
+    }
+
+    @Test
+    void attacks_like_heroes_do(BDDSoftAssertions softly) {
+        // Given
+        var attacker = Hero.builder().strength(15).build();
+        var defender = Hero.builder().armorClass(14).hitPoints(9999).build();
+        var table = new HeroTable();
+        int attackerRow = table.add(attacker);
+        int defenderRow = table.add(defender);
+
+        // When
+        for (int i = 0; i < 3000; i++) {
+            int roll = i % 20 + 1;
+            softly.then(table.attemptAttack(attackerRow, defenderRow, roll))
+                  .isEqualTo(attacker.attemptAttack(defender, roll));
+        }
+
+        // Then
+        softly.then(table.getHitPoints(defenderRow)).isEqualTo(defender.getHitPoints());
+        softly.then(table.getXp(attackerRow)).isEqualTo(attacker.getXp());
+        softly.then(table.getLevel(attackerRow)).isEqualTo(attacker.getLevel());
+        softly.then(table.getAttackBonus(attackerRow)).isEqualTo(attacker.getAttackBonus());
+    }
+
+    @Test
+    void views_follow_the_row_they_point_to() {
+        // Given
+        var table = new HeroTable();
+        table.add(Hero.builder().name("First").build());
+        table.add(Hero.builder().name("Second").build());
+        var view = table.view(0);
+
+        // When
+        view.moveTo(1);
+
+        // Then
+        then(view.getName()).isEqualTo("Second");
+    }
+}
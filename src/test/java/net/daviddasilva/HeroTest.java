@@ -118,6 +118,20 @@ class HeroTest {
         then(succeeded).isTrue();
     }
 
+    @Test
+    void can_attack_with_dice(BDDSoftAssertions softly) {
+        // Given
+        var opponent = Hero.builder().armorClass(100).hitPoints(5).build();
+        var player = Hero.builder().build();
+
+        // When
+        boolean succeeded = player.attemptAttack(opponent, Dice.scripted(20));
+
+        // Then
+        softly.then(succeeded).isTrue();
+        softly.then(opponent.getHitPoints()).isEqualTo(3);
+    }
+
     @Test
     void successful_attack_deals_damage(BDDSoftAssertions softly) {
         // Given
@@ -354,6 +368,19 @@ class HeroTest {
         softly.then(player.getCurrentXP()).isZero();
     }
 
+    @Test
+    void should_cap_experience_instead_of_overflowing() {
+        // Given
+        var player = Hero.builder().build();
+        player.grantXP(Long.MAX_VALUE - 5);
+
+        // When
+        player.grantXP(10);
+
+        // Then
+        then(player.getCurrentXP()).isEqualTo(Long.MAX_VALUE);
+    }
+
     @Test
     void should_be_level_1_by_default() {
         // Given
@@ -437,5 +464,60 @@ class HeroTest {
 
     }
 
+    @Test
+    void attack_modifier_combines_strength_modifier_and_level_bonus(BDDSoftAssertions softly) {
+        // Given
+        var player = Hero.builder()
+                         .strength(16) // +3
+                         .level(4) // +2
+                         .build();
+
+        // Then
+        softly.then(player.getStrengthModifier()).isEqualTo(3);
+        softly.then(player.getAttackModifier()).isEqualTo(5);
+        softly.then(player.getDamageModifier()).isEqualTo(3);
+    }
+
+    @ParameterizedTest(name = "granting {0} xp at once gets to level {1}")
+    @CsvSource(textBlock = """
+            999, 1
+            1000, 2
+            4500, 5
+            250000, 251
+            """)
+    void can_gain_several_levels_at_once(long xp, int expectedLevel, BDDSoftAssertions softly) {
+        // Given
+        var player = Hero.builder()
+                         .hitPoints(10)
+                         .constitution(15) // +2
+                         .build();
+        var sameLevel = Hero.builder()
+                            .hitPoints(10)
+                            .constitution(15)
+                            .level(expectedLevel)
+                            .build();
+
+        // When
+        player.grantXP(xp);
+
+        // Then
+        softly.then(player.getLevel()).isEqualTo(expectedLevel);
+        softly.then(player.getHitPoints()).isEqualTo(sameLevel.getHitPoints());
+        softly.then(player.getAttackBonus()).isEqualTo(sameLevel.getAttackBonus());
+    }
+
+    @Test
+    void high_level_heroes_get_hit_points_and_attack_bonus_of_every_level(BDDSoftAssertions softly) {
+        // Given
+        var player = Hero.builder()
+                         .level(300)
+                         .hitPoints(10)
+                         .constitution(15) // +2
+                         .build();
+
+        // Then
+        softly.then(player.getHitPoints()).isEqualTo(12 + 299 * 7);
+        softly.then(player.getAttackBonus()).isEqualTo(150);
+    }
 
 }
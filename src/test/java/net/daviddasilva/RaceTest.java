@@ -0,0 +1,117 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("A race")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class RaceTest {
+
+    @Test
+    void is_human_by_default() {
+        then(Hero.builder().build().getRace()).isEqualTo(Race.HUMAN);
+    }
+
+    @Test
+    void orc_is_strong_crude_and_thick_skinned(BDDSoftAssertions softly) {
+        // When
+        var orc = Hero.builder().race(Race.ORC).build();
+
+        // Then
+        softly.then(orc.getStrengthModifier()).isEqualTo(2);
+        softly.then(orc.getIntelligenceModifier()).isEqualTo(-1);
+        softly.then(orc.getWisdomModifier()).isEqualTo(-1);
+        softly.then(orc.getCharismaModifier()).isEqualTo(-1);
+        softly.then(orc.getArmorClass()).isEqualTo(12);
+        softly.then(orc.getAttackModifier()).isEqualTo(2);
+    }
+
+    @Test
+    void dwarf_doubles_a_positive_constitution_modifier_when_leveling(BDDSoftAssertions softly) {
+        // When
+        var dwarf = Hero.builder().race(Race.DWARF).level(2).build();
+
+        // Then
+        softly.then(dwarf.getConstitutionModifier()).isEqualTo(1);
+        softly.then(dwarf.getCharismaModifier()).isEqualTo(-1);
+        softly.then(dwarf.getHitPoints()).isEqualTo(5 + 1 + 5 + 2);
+    }
+
+    @Test
+    void dwarf_hits_orcs_harder(BDDSoftAssertions softly) {
+        // Given
+        var dwarf = Hero.builder().race(Race.DWARF).build();
+        var orc = Hero.builder().race(Race.ORC).hitPoints(10).build();
+
+        // When
+        boolean hit = dwarf.attemptAttack(orc, 10);
+
+        // Then
+        softly.then(hit).isTrue();
+        softly.then(orc.getHitPoints()).isEqualTo(10 - 3);
+    }
+
+    @Test
+    void elf_lands_critical_hits_on_a_19(BDDSoftAssertions softly) {
+        // Given
+        var elf = Hero.builder().race(Race.ELF).build();
+        var human = Hero.builder().armorClass(100).hitPoints(10).build();
+
+        // When
+        boolean hit = elf.attemptAttack(human, 19);
+        boolean humanHit = Hero.builder().build().attemptAttack(Hero.builder().armorClass(100).build(), 19);
+
+        // Then
+        softly.then(hit).isTrue();
+        softly.then(human.getHitPoints()).isEqualTo(8);
+        softly.then(humanHit).isFalse();
+    }
+
+    @Test
+    void elf_is_harder_to_hit_for_orcs(BDDSoftAssertions softly) {
+        // Given
+        var elf = Hero.builder().race(Race.ELF).build();
+
+        // When
+        boolean orcHit = Hero.builder().race(Race.ORC).strength(10).build().attemptAttack(elf, 10);
+        boolean humanHit = Hero.builder().build().attemptAttack(elf, 11);
+
+        // Then
+        softly.then(orcHit).isFalse();
+        softly.then(humanHit).isTrue();
+    }
+
+    @Test
+    void halfling_is_harder_to_hit_for_anyone_but_halflings(BDDSoftAssertions softly) {
+        // Given
+        var halfling = Hero.builder().race(Race.HALFLING).strength(12).build();
+
+        // When
+        boolean humanHit = Hero.builder().build().attemptAttack(halfling, 12);
+        boolean halflingHit = Hero.builder().race(Race.HALFLING).strength(12).build().attemptAttack(halfling, 11);
+
+        // Then
+        softly.then(halfling.getArmorClass()).isEqualTo(11);
+        softly.then(humanHit).isFalse();
+        softly.then(halflingHit).isTrue();
+    }
+
+    @Test
+    void halfling_cannot_be_evil() {
+        // When
+        var thrown = catchThrowable(() -> Hero.builder().race(Race.HALFLING).alignment(Alignment.EVIL).build());
+
+        // Then
+        then(thrown).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("A HALFLING cannot be EVIL");
+    }
+}
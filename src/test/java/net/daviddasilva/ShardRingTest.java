@@ -0,0 +1,67 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.within;
+
+@DisplayName("A shard ring")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ShardRingTest {
+
+    private static final int HEROES = 100_000;
+
+    @Test
+    void spreads_heroes_evenly(BDDSoftAssertions softly) {
+        // Given
+        var ring = new ShardRing(4);
+        var heroes = new int[ring.shards()];
+
+        // When
+        for (long id = 0; id < HEROES; id++) {
+            heroes[ring.shardOf(id)]++;
+        }
+
+        // Then
+        for (int shard = 0; shard < ring.shards(); shard++) {
+            softly.then(heroes[shard]).isCloseTo(HEROES / 4, within(HEROES / 16));
+        }
+    }
+
+    @Test
+    void only_moves_heroes_to_an_added_shard(BDDSoftAssertions softly) {
+        // Given
+        var ring = new ShardRing(4);
+        var grown = new ShardRing(5);
+        int moved = 0;
+
+        // When
+        for (long id = 0; id < HEROES; id++) {
+            int shard = grown.shardOf(id);
+            if (shard != ring.shardOf(id)) {
+                softly.then(shard).isEqualTo(4);
+                moved++;
+            }
+        }
+
+        // Then
+        softly.then(moved).isCloseTo(HEROES / 5, within(HEROES / 20));
+    }
+
+    @Test
+    void cannot_have_no_shard() {
+        // When
+        var thrown = catchThrowable(() -> new ShardRing(0));
+
+        // Then
+        then(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+}
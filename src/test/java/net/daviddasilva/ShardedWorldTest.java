@@ -0,0 +1,169 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("A sharded world")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ShardedWorldTest {
+
+    @TempDir
+    Path sockets;
+
+    @Test
+    void resolves_the_attacks_of_a_single_shard_as_a_table_would(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var random = new SplittableRandom(3);
+        var table = new HeroTable();
+        try (var world = ShardedWorld.start(1, ShardTransport.loopback())) {
+            for (int i = 0; i < 20; i++) {
+                var hero = Hero.builder().strength(random.nextInt(8, 18)).hitPoints(random.nextInt(5, 40)).build();
+                table.add(hero);
+                world.spawn(hero);
+            }
+
+            // When
+            int tableHits = 0;
+            int worldHits = 0;
+            for (int tick = 0; tick < 50; tick++) {
+                for (int attack = 0; attack < 40; attack++) {
+                    int attacker = random.nextInt(20);
+                    int defender = random.nextInt(20);
+                    int roll = random.nextInt(1, 21);
+                    tableHits += table.attemptAttack(attacker, defender, roll) ? 1 : 0;
+                    world.attack(attacker, defender, roll);
+                }
+                worldHits += world.tick();
+            }
+
+            // Then
+            softly.then(worldHits).isEqualTo(tableHits);
+            for (int row = 0; row < table.size(); row++) {
+                softly.then(world.hero(row)).usingRecursiveComparison().isEqualTo(table.toHero(row));
+            }
+        }
+    }
+
+    @Test
+    void deals_damage_and_grants_experience_across_shards(BDDSoftAssertions softly) throws IOException {
+        // Given
+        var random = new SplittableRandom(5);
+        var table = new HeroTable();
+        int heroes = 40;
+        try (var world = ShardedWorld.start(4, ShardTransport.unixDomain(sockets))) {
+            for (int i = 0; i < heroes; i++) {
+                var hero = Hero.builder().alignment(Alignment.values()[i % 3]).dexterity(random.nextInt(8, 16))
+                               .hitPoints(random.nextInt(50, 500)).build();
+                table.add(hero);
+                world.spawn(hero);
+            }
+
+            // When
+            // the first half attacks the second once per tick, so the order of the attacks within a tick does not matter
+            for (int tick = 0; tick < 100; tick++) {
+                for (int attacker = 0; attacker < heroes / 2; attacker++) {
+                    int defender = random.nextInt(heroes / 2, heroes);
+                    int roll = random.nextInt(1, 21);
+                    table.attemptAttack(attacker, defender, roll);
+                    world.attack(attacker, defender, roll);
+                }
+                world.tick();
+            }
+
+            // Then
+            softly.then(LongStream.range(0, heroes).map(world::shardOf).distinct().count()).isEqualTo(4);
+            for (int row = 0; row < table.size(); row++) {
+                softly.then(world.hero(row)).usingRecursiveComparison().isEqualTo(table.toHero(row));
+            }
+        }
+    }
+
+    @Test
+    void runs_its_shards_in_worker_processes(BDDSoftAssertions softly) throws IOException {
+        // Given
+        try (var world = ShardedWorld.launch(2, ShardTransport.loopback())) {
+            long fighter = world.spawn(Hero.builder().name("Fighter").build());
+            long dummy = world.spawn(Hero.builder().name("Dummy").hitPoints(100).build());
+            long target = world.spawn(Hero.builder().name("Target").hitPoints(100).build());
+
+            // When
+            world.attack(fighter, dummy, Hero.NAT_20);
+            world.attack(fighter, target, 15);
+            int hits = world.tick();
+
+            // Then
+            softly.then(hits).isEqualTo(2);
+            softly.then(world.hero(dummy).getHitPoints()).isEqualTo(98);
+            softly.then(world.hero(target).getHitPoints()).isEqualTo(99);
+            softly.then(world.hero(fighter).getXp()).isEqualTo(2 * Hero.XP_FOR_ATTACK);
+        }
+    }
+
+    @Test
+    void reads_every_reply_and_drops_what_was_queued_when_a_shard_fails(BDDSoftAssertions softly) throws IOException {
+        // Given a first shard failing every request, the second one being a worker
+        try (var world = ShardedWorld.start(2, ShardTransport.loopback(),
+                (index, server) -> index == 0 ? failing(server) : new ShardWorker(server))) {
+            long[] heroes = LongStream.range(0, 20).map(id -> world.spawn(Hero.builder().hitPoints(100).build())).toArray();
+            long[] healthy = LongStream.of(heroes).filter(id -> world.shardOf(id) == 1).limit(2).toArray();
+            long broken = LongStream.of(heroes).filter(id -> world.shardOf(id) == 0).findFirst().orElseThrow();
+            softly.then(catchThrowable(world::tick)).isInstanceOf(IllegalStateException.class).hasMessageContaining("Shard 0 failed");
+
+            // When
+            world.attack(healthy[0], healthy[1], 15);
+            world.attack(broken, healthy[1], 15);
+            var thrown = catchThrowable(world::tick);
+            world.attack(healthy[1], healthy[0], 15);
+            int hits = world.tick();
+
+            // Then
+            softly.then(thrown).isInstanceOf(IllegalStateException.class).hasMessageContaining("Shard 0 failed");
+            softly.then(hits).isEqualTo(1);
+            softly.then(world.hero(healthy[0]).getHitPoints()).isEqualTo(99);
+            softly.then(world.hero(healthy[1]).getHitPoints()).isEqualTo(99);
+        }
+    }
+
+    @Test
+    void cannot_attack_a_hero_that_was_never_spawned() throws IOException {
+        // Given
+        try (var world = ShardedWorld.start(2, ShardTransport.loopback())) {
+            long hero = world.spawn(Hero.builder().build());
+
+            // When
+            var thrown = catchThrowable(() -> world.attack(hero, 42, 20));
+
+            // Then
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static Runnable failing(ServerSocketChannel server) {
+        return () -> {
+            try (server; var connection = new ShardConnection(server.accept())) {
+                while (connection.receive() != ShardConnection.STOP) {
+                    connection.sendError("Out of order");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
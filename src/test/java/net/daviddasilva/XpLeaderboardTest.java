@@ -0,0 +1,251 @@
+package net.daviddasilva;
+
+import org.assertj.core.api.BDDSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@DisplayName("An XP leaderboard")
+@ExtendWith(SoftAssertionsExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class XpLeaderboardTest {
+
+    @Test
+    void ranks_heroes_by_experience(BDDSoftAssertions softly) {
+        // Given
+        var leaderboard = new XpLeaderboard();
+        var rookie = Hero.builder().name("Rookie").build();
+        var veteran = Hero.builder().name("Veteran").build();
+        var legend = Hero.builder().name("Legend").build();
+        List.of(rookie, veteran, legend).forEach(leaderboard::track);
+
+        // When
+        veteran.grantXP(1_500);
+        legend.grantXP(7_000);
+        rookie.gainXP();
+
+        // Then
+        softly.then(leaderboard.top(2)).containsExactly(legend, veteran);
+        softly.then(leaderboard.top(10)).containsExactly(legend, veteran, rookie);
+        softly.then(leaderboard.rankOf(legend)).isEqualTo(1);
+        softly.then(leaderboard.rankOf(rookie)).isEqualTo(3);
+        softly.then(leaderboard.size()).isEqualTo(3);
+    }
+
+    @Test
+    void ranks_heroes_within_their_alignment(BDDSoftAssertions softly) {
+        // Given
+        var leaderboard = new XpLeaderboard();
+        var paladin = Hero.builder().name("Paladin").alignment(Alignment.GOOD).build();
+        var lich = Hero.builder().name("Lich").alignment(Alignment.EVIL).build();
+        var goblin = Hero.builder().name("Goblin").alignment(Alignment.EVIL).build();
+        List.of(paladin, lich, goblin).forEach(leaderboard::track);
+
+        // When
+        paladin.grantXP(9_000);
+        lich.grantXP(5_000);
+        goblin.grantXP(20);
+
+        // Then
+        softly.then(leaderboard.top(Alignment.EVIL, 5)).containsExactly(lich, goblin);
+        softly.then(leaderboard.top(Alignment.NEUTRAL, 5)).isEmpty();
+        softly.then(leaderboard.rankOf(lich)).isEqualTo(2);
+        softly.then(leaderboard.rankInAlignment(lich)).isEqualTo(1);
+    }
+
+    @Test
+    void follows_experience_gained_by_attacking() {
+        // Given
+        var leaderboard = new XpLeaderboard();
+        var fighter = Hero.builder().name("Fighter").build();
+        var bystander = Hero.builder().name("Bystander").build();
+        leaderboard.track(bystander);
+        leaderboard.track(fighter);
+
+        // When
+        fighter.attemptAttack(Hero.builder().build(), 15);
+
+        // Then
+        then(leaderboard.top(2)).containsExactly(fighter, bystander);
+    }
+
+    @Test
+    void ranks_heroes_with_the_same_experience_in_the_order_they_were_tracked() {
+        // Given
+        var leaderboard = new XpLeaderboard();
+        var first = Hero.builder().name("First").build();
+        var second = Hero.builder().name("Second").build();
+        leaderboard.track(first);
+        leaderboard.track(second);
+
+        // When
+        second.grantXP(100);
+        first.grantXP(100);
+
+        // Then
+        then(leaderboard.top(2)).containsExactly(first, second);
+    }
+
+    @Test
+    void forgets_untracked_and_pooled_heroes(BDDSoftAssertions softly) {
+        // Given
+        var leaderboard = new XpLeaderboard();
+        var pool = new HeroPool(1);
+        var goblin = pool.acquire(Hero.builder().name("Goblin"));
+        var deserter = Hero.builder().name("Deserter").build();
+        leaderboard.track(goblin);
+        leaderboard.track(deserter);
+
+        // When
+        leaderboard.untrack(deserter);
+        pool.release(goblin);
+        pool.acquire(Hero.builder().name("Kobold"));
+
+        // Then
+        softly.then(leaderboard.size()).isZero();
+        softly.then(leaderboard.top(5)).isEmpty();
+        softly.then(catchThrowable(() -> leaderboard.rankOf(deserter))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void forgets_released_heroes_before_they_are_reused(BDDSoftAssertions softly) {
+        // Given a pool keeping one hero, the second one released is dropped
+        var leaderboard = new XpLeaderboard();
+        var pool = new HeroPool(1);
+        var goblin = pool.acquire(Hero.builder().name("Goblin"));
+        var kobold = pool.acquire(Hero.builder().name("Kobold"));
+        var orc = Hero.builder().name("Orc").build();
+        leaderboard.track(goblin);
+        leaderboard.track(kobold);
+        leaderboard.track(orc);
+
+        // When
+        pool.release(goblin);
+        pool.release(kobold);
+
+        // Then
+        softly.then(pool.available()).isEqualTo(1);
+        softly.then(leaderboard.size()).isEqualTo(1);
+        softly.then(leaderboard.top(5)).containsExactly(orc);
+        softly.then(catchThrowable(() -> leaderboard.rankOf(goblin))).isInstanceOf(IllegalArgumentException.class);
+        softly.then(catchThrowable(() -> leaderboard.rankOf(kobold))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cannot_track_a_hero_twice() {
+        // Given
+        var leaderboard = new XpLeaderboard();
+        var hero = Hero.builder().name("Krom").build();
+        leaderboard.track(hero);
+
+        // When
+        var thrown = catchThrowable(() -> new XpLeaderboard().track(hero));
+
+        // Then
+        then(thrown).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void takes_experience_from_many_threads(BDDSoftAssertions softly) throws Exception {
+        // Given
+        var leaderboard = new XpLeaderboard();
+        var combat = new ConcurrentCombat();
+        List<Hero> heroes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            var hero = Hero.builder().name("Hero " + i).alignment(Alignment.values()[i % 3]).build();
+            heroes.add(hero);
+            leaderboard.track(hero);
+        }
+        int threads = 4;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < threads; thread++) {
+            var random = new SplittableRandom(thread);
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20_000; i++) {
+                    combat.gainXP(heroes.get(random.nextInt(heroes.size())));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        var sorted = heroes.stream().sorted(Comparator.comparingLong(Hero::getCurrentXP).reversed()
+                                                      .thenComparingInt(heroes::indexOf)).toList();
+        softly.then(leaderboard.size()).isEqualTo(heroes.size());
+        softly.then(leaderboard.top(heroes.size())).containsExactlyElementsOf(sorted);
+        for (int rank = 0; rank < sorted.size(); rank++) {
+            softly.then(leaderboard.rankOf(sorted.get(rank))).isEqualTo(rank + 1);
+        }
+    }
+
+    @Test
+    void stays_consistent_when_threads_race_on_the_same_heroes(BDDSoftAssertions softly) throws Exception {
+        // Given
+        var leaderboard = new XpLeaderboard(2);
+        List<Hero> heroes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            var hero = Hero.builder().name("Hero " + i).alignment(Alignment.values()[i % 3]).build();
+            heroes.add(hero);
+            leaderboard.track(hero);
+        }
+        int threads = 4;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < threads; thread++) {
+            var random = new SplittableRandom(thread);
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50_000; i++) {
+                    heroes.get(random.nextInt(heroes.size())).grantXP(random.nextInt(1, 20));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        var sorted = heroes.stream().sorted(Comparator.comparingLong(Hero::getCurrentXP).reversed()
+                                                      .thenComparingInt(heroes::indexOf)).toList();
+        softly.then(leaderboard.size()).isEqualTo(heroes.size());
+        softly.then(leaderboard.top(heroes.size() + 1)).containsExactlyElementsOf(sorted);
+        for (int rank = 0; rank < sorted.size(); rank++) {
+            softly.then(leaderboard.rankOf(sorted.get(rank))).isEqualTo(rank + 1);
+        }
+        for (Alignment alignment : Alignment.values()) {
+            var aligned = sorted.stream().filter(hero -> hero.getAlignment() == alignment).toList();
+            softly.then(leaderboard.top(alignment, heroes.size())).containsExactlyElementsOf(aligned);
+        }
+    }
+}